@@ -0,0 +1,64 @@
+package com.datadog.benchmarks;
+
+import com.datadog.common.config.StorageProperties;
+import com.datadog.common.dto.AddressDto;
+import com.datadog.profile.model.Address;
+import com.datadog.profile.repository.AddressRepository;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** {@link AddressRepository#findByUserId} for a random user, with {@code perUser} addresses each. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AddressRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int rows;
+
+    @Param({"2"})
+    int perUser;
+
+    @Param({"MAP", "PRIMITIVE", "SLAB"})
+    StorageProperties.Engine engine;
+
+    private AddressRepository addressRepository;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void fill() {
+        addressRepository = new AddressRepository(BenchmarkData.journals(), BenchmarkData.stores(engine));
+        for (long n = 0; n < rows; n++) {
+            AddressDto address = BenchmarkData.address(n + 1, n / perUser + 1);
+            addressRepository.save(Address.builder()
+                    .address1(address.getAddress1())
+                    .address2(address.getAddress2())
+                    .area(address.getArea())
+                    .city(address.getCity())
+                    .pincode(address.getPincode())
+                    .userId(address.getUserId())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<Address> findByUserId() {
+        return addressRepository.findByUserId(random.nextLong(1, rows / perUser + 1L));
+    }
+}
@@ -0,0 +1,77 @@
+package com.datadog.benchmarks;
+
+import com.datadog.common.config.PersistenceProperties;
+import com.datadog.common.config.StorageProperties;
+import com.datadog.common.dto.AddressDto;
+import com.datadog.common.dto.EducationDto;
+import com.datadog.common.dto.ProfileDto;
+import com.datadog.common.persistence.RepositoryJournals;
+import com.datadog.common.storage.EntityStores;
+import com.datadog.user.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Deterministic entities and in-memory repository wiring shared by the benchmarks. */
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    /** Journals for in-memory repositories, as in the default configuration. */
+    static RepositoryJournals journals() {
+        return new RepositoryJournals(new PersistenceProperties(), new ObjectMapper());
+    }
+
+    static EntityStores stores(StorageProperties.Engine engine) {
+        StorageProperties properties = new StorageProperties();
+        properties.setEngine(engine);
+        return new EntityStores(properties);
+    }
+
+    static User user(long n) {
+        return User.builder()
+                .username("user" + n)
+                .email("user" + n + "@example.com")
+                .password("secret" + n)
+                .firstName("First" + n)
+                .lastName("Last" + n)
+                .build();
+    }
+
+    static AddressDto address(long id, long userId) {
+        return AddressDto.builder()
+                .id(id)
+                .address1(id + " Main Street")
+                .address2("Apartment " + (id % 100))
+                .area("Area " + (id % 1000))
+                .city("City " + (id % 50))
+                .pincode(String.valueOf(100000 + id % 900000))
+                .userId(userId)
+                .build();
+    }
+
+    static EducationDto education(long id, long userId) {
+        return EducationDto.builder().id(id).stream("Stream " + (id % 20))
+                .startDate(LocalDate.of(2010, 1, 1).plusDays(id % 3650))
+                .endDate(LocalDate.of(2014, 1, 1).plusDays(id % 3650))
+                .per(50 + (id % 500) / 10.0)
+                .userId(userId)
+                .build();
+    }
+
+    /** A profile with {@code entries} addresses and as many educations. */
+    static ProfileDto profile(long userId, int entries) {
+        List<AddressDto> addresses = new ArrayList<>(entries);
+        List<EducationDto> educations = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            addresses.add(address(userId * entries + i, userId));
+            educations.add(education(userId * entries + i, userId));
+        }
+        return ProfileDto.builder()
+                .userId(userId)
+                .addresses(addresses)
+                .educations(educations)
+                .build();
+    }
+}
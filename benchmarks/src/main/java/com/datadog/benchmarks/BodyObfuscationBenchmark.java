@@ -0,0 +1,116 @@
+package com.datadog.benchmarks;
+
+import com.datadog.common.config.LogbookProperties;
+import com.datadog.common.config.ObfuscatingBodyFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.zalando.logbook.BodyFilter;
+import org.zalando.logbook.core.BodyFilters;
+import org.zalando.logbook.json.JsonBodyFilters;
+import org.zalando.logbook.json.JsonPathBodyFilters;
+
+/**
+ * Body obfuscation of a pretty-printed JSON body of about {@code bodySize} bytes with the services' default
+ * {@code logbook.obfuscate} rules: the single-pass {@link ObfuscatingBodyFilter} against the chain of Logbook filters
+ * it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BodyObfuscationBenchmark {
+
+    private static final String CONTENT_TYPE = "application/json";
+
+    @Param({"1024", "102400", "5242880"})
+    int bodySize;
+
+    private String body;
+    private BodyFilter singlePass;
+    private BodyFilter chain;
+
+    @Setup(Level.Trial)
+    public void build() throws JsonProcessingException {
+        LogbookProperties.ObfuscateProperties properties = new LogbookProperties.ObfuscateProperties();
+        properties.setBodyFields(Set.of("image", "pin", "password"));
+        properties.setBodyFieldsJsonPath(Map.of("data", List.of("password", "secret")));
+        singlePass = new ObfuscatingBodyFilter(properties);
+        chain = chain(properties);
+        body = body(bodySize);
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return singlePass.filter(CONTENT_TYPE, body);
+    }
+
+    @Benchmark
+    public String chain() {
+        return chain.filter(CONTENT_TYPE, body);
+    }
+
+    /** The filter {@code LogbookConfig} built before the single-pass filter. */
+    private static BodyFilter chain(LogbookProperties.ObfuscateProperties properties) {
+        BodyFilter bodyFilter = BodyFilter.merge(
+                BodyFilters.defaultValue(),
+                JsonBodyFilters.replaceJsonStringProperty(properties.getBodyFields(), "XXX"));
+        for (Map.Entry<String, List<String>> entry :
+                properties.getBodyFieldsJsonPath().entrySet()) {
+            Pattern pattern = Pattern.compile(String.join("|", entry.getValue()), Pattern.MULTILINE);
+            bodyFilter = BodyFilter.merge(
+                    bodyFilter,
+                    JsonPathBodyFilters.jsonPath("$." + entry.getKey()).replace(pattern, "XXX"));
+        }
+        return bodyFilter;
+    }
+
+    private static String body(int size) throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        List<Map<String, Object>> users = new ArrayList<>();
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("data", "reset password for user1, secret question answered");
+        document.put("access_token", "eyJhbGciOiJIUzI1NiJ9.e30.token");
+        document.put("users", users);
+        int empty = objectMapper.writeValueAsString(document).length();
+        users.add(user(1));
+        int perUser = objectMapper.writeValueAsString(document).length() - empty;
+        for (long n = 2; empty + n * perUser <= size; n++) {
+            users.add(user(n));
+        }
+        return objectMapper.writeValueAsString(document);
+    }
+
+    private static Map<String, Object> user(long n) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("id", n);
+        user.put("username", "user" + n);
+        user.put("email", "user" + n + "@example.com");
+        user.put("password", "secret" + n);
+        user.put("pin", String.valueOf(1000 + n % 9000));
+        user.put("active", n % 2 == 0);
+        user.put("addresses", List.of(BenchmarkData.address(n, n)));
+        return user;
+    }
+}
@@ -0,0 +1,85 @@
+package com.datadog.benchmarks;
+
+import com.datadog.common.config.StorageProperties;
+import com.datadog.common.storage.EntityStore;
+import com.datadog.common.storage.EntityStores;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Point operations on a repository's primary store holding {@code entries} entities: {@code MAP} is the
+ * {@code ConcurrentHashMap} store, {@code PRIMITIVE} the open-addressing store with primitive keys. Keys are drawn
+ * at random from the stored ids ({@code containsKeyMiss} from ids past the end), so lookups miss the CPU caches as
+ * they would on a large repository.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EntityStoreBenchmark {
+
+    private static final int KEYS = 1 << 16;
+
+    @Param({"1000", "1000000"})
+    int entries;
+
+    @Param({"MAP", "PRIMITIVE"})
+    StorageProperties.Engine engine;
+
+    private EntityStore<String> store;
+    private final long[] keys = new long[KEYS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        StorageProperties properties = new StorageProperties();
+        properties.setEngine(engine);
+        store = new EntityStores(properties).create();
+        for (long id = 1; id <= entries; id++) {
+            String value = "entity-" + id;
+            store.write(id, key -> value);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = random.nextLong(1, entries + 1L);
+        }
+    }
+
+    @Benchmark
+    public String get() {
+        return store.get(nextKey());
+    }
+
+    @Benchmark
+    public boolean containsKey() {
+        return store.contains(nextKey());
+    }
+
+    @Benchmark
+    public boolean containsKeyMiss() {
+        return store.contains(nextKey() + entries);
+    }
+
+    @Benchmark
+    public String put() {
+        return store.write(nextKey(), key -> "updated");
+    }
+
+    private long nextKey() {
+        return keys[next++ & (KEYS - 1)];
+    }
+}
@@ -0,0 +1,130 @@
+package com.datadog.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.datadog.common.constant.Constants;
+import com.datadog.common.logging.JsonLogEncoder;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+/**
+ * Logging cost on the request thread of one {@code GET /api/users/{id}}: the info and debug calls of the controller
+ * and {@code UserService}, with {@code correlationId} and {@code platform} in the MDC, through the two appenders of
+ * {@code logback-spring.xml}:
+ *
+ * <ul>
+ *   <li>{@code pattern}: the default profile's synchronous pattern encoders;
+ *   <li>{@code json}: synchronous {@link JsonLogEncoder}s, to separate encoding from queueing;
+ *   <li>{@code async-json}: the {@code async-json} profile, {@link JsonLogEncoder}s behind {@link AsyncAppender}s.
+ *       Nothing is discarded and a full queue blocks, so a caller that outruns the workers waits for them rather
+ *       than dropping events.
+ * </ul>
+ *
+ * <p>Both appenders write to {@code /dev/null}, so write system calls are counted without filling the disk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RequestLoggingBenchmark {
+
+    private static final String PATTERN = "%d{dd-MM-yyyy HH:mm:ss.SSS} [%thread] %-5level %X{correlationId}"
+            + " %X{customerId} %X{APIPlatform} %logger{36} - %msg%n";
+
+    @Param({"pattern", "json", "async-json"})
+    String pipeline;
+
+    private LoggerContext context;
+    private Logger controller;
+    private Logger service;
+    private long id;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        context.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender("STDOUT"));
+        root.addAppender(appender("FILE"));
+        controller = context.getLogger("com.datadog.user.controller.UserController");
+        service = context.getLogger("com.datadog.user.service.UserService");
+        MDC.put(Constants.CORRELATION_ID_MDC_KEY, UUID.randomUUID().toString());
+        MDC.put(Constants.PLATFORM_MDC_KEY, Constants.DEFAULT_PLATFORM);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        MDC.clear();
+        context.stop();
+    }
+
+    @Benchmark
+    public void request() {
+        long userId = ++id;
+        controller.info("REST request to get user by id: {}", userId);
+        service.info("Fetching user details with id: {}", userId);
+        service.debug("User found: {}, fetching profile data from profile-service", "user1");
+        service.info("User details fetched successfully for id: {}, addresses: {}, educations: {}", userId, 2, 1);
+        controller.info("REST response - user found: {}", "user1");
+    }
+
+    private Appender<ILoggingEvent> appender(String name) {
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName(name);
+        file.setFile("/dev/null");
+        file.setEncoder(encoder());
+        if (!pipeline.equals("async-json")) {
+            file.start();
+            return file;
+        }
+        file.setImmediateFlush(false);
+        file.start();
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC_" + name);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.addAppender(file);
+        async.start();
+        return async;
+    }
+
+    private Encoder<ILoggingEvent> encoder() {
+        if (pipeline.equals("pattern")) {
+            PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+            encoder.setContext(context);
+            encoder.setPattern(PATTERN);
+            encoder.start();
+            return encoder;
+        }
+        JsonLogEncoder encoder = new JsonLogEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        return encoder;
+    }
+}
@@ -0,0 +1,93 @@
+package com.datadog.benchmarks;
+
+import com.datadog.common.config.StorageProperties;
+import com.datadog.common.storage.EntityStore;
+import com.datadog.common.storage.EntityStores;
+import com.datadog.profile.model.Address;
+import com.datadog.profile.repository.AddressSlabLayout;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Heap retained by the address store after loading {@code rows} addresses, for each {@code storage.engine}. The
+ * secondary indexes are the same for every engine and are left out.
+ *
+ * <p>The primary score is the load time (including the collections used to measure); the footprint is reported as
+ * the {@code retainedBytes} secondary result.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(
+        value = 1,
+        jvmArgsAppend = {"-Xmx8g", "-XX:+UseParallelGC"})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class RowStorageFootprintBenchmark {
+
+    @Param({"10000000"})
+    int rows;
+
+    @Param({"MAP", "SLAB"})
+    StorageProperties.Engine engine;
+
+    private EntityStore<Address> addresses;
+    private long baseline;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long retainedBytes;
+    }
+
+    @Setup(Level.Invocation)
+    public void release() {
+        addresses = null;
+        baseline = usedHeapAfterGc();
+    }
+
+    @Benchmark
+    public EntityStore<Address> load(Footprint footprint) {
+        StorageProperties properties = new StorageProperties();
+        properties.setEngine(engine);
+        EntityStore<Address> store = new EntityStores(properties).create(new AddressSlabLayout());
+        for (long id = 1; id <= rows; id++) {
+            Address address = address(id);
+            store.write(id, key -> address);
+        }
+        footprint.retainedBytes = usedHeapAfterGc() - baseline;
+        addresses = store;
+        return store;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static Address address(long id) {
+        return Address.builder()
+                .address1(id + " Main Street")
+                .address2("Apartment " + (id % 100))
+                .area("Area " + (id % 1000))
+                .city("City " + (id % 50))
+                .pincode(String.valueOf(100000 + id % 900000))
+                .userId(id / 2 + 1)
+                .build();
+    }
+}
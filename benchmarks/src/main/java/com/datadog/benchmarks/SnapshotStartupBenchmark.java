@@ -0,0 +1,135 @@
+package com.datadog.benchmarks;
+
+import com.datadog.common.dto.AddressDto;
+import com.datadog.common.persistence.FileRepositoryJournal;
+import com.datadog.common.persistence.RepositoryJournal;
+import com.datadog.common.persistence.Snapshots;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cold start of a persistent repository from a snapshot of {@code records} addresses.
+ *
+ * <ul>
+ *   <li>{@code timeToFirstLookup}: recovery until {@code findById} can answer, served from the mapped snapshot.
+ *   <li>{@code timeToFullyLoaded}: recovery until every record has been decoded into the heap map, which is what a
+ *       restart cost before snapshots were mapped.
+ * </ul>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class SnapshotStartupBenchmark {
+
+    private static final String NAME = "addresses";
+
+    @Param({"100000", "1000000"})
+    int records;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Path directory;
+    private RepositoryJournal<AddressDto> journal;
+
+    @Setup(Level.Trial)
+    public void writeSnapshot() throws IOException {
+        directory = Files.createTempDirectory("snapshot-startup");
+        Iterator<Snapshots.Record> snapshot = LongStream.rangeClosed(1, records)
+                .mapToObj(id -> new Snapshots.Record(id, encode(address(id))))
+                .iterator();
+        Snapshots.write(directory, NAME, new Snapshots.Header(0, records + 1L), snapshot);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeJournal() {
+        journal.awaitWarm();
+        journal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshot() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<AddressDto> timeToFirstLookup() {
+        Map<Long, AddressDto> addresses = recover();
+        return journal.lookup(records / 2L, addresses::get);
+    }
+
+    @Benchmark
+    public Map<Long, AddressDto> timeToFullyLoaded() {
+        Map<Long, AddressDto> addresses = recover();
+        journal.awaitWarm();
+        return addresses;
+    }
+
+    private Map<Long, AddressDto> recover() {
+        Map<Long, AddressDto> addresses = new ConcurrentHashMap<>();
+        journal = new FileRepositoryJournal<>(
+                directory,
+                NAME,
+                AddressDto.class,
+                objectMapper,
+                () -> addresses.values().stream(),
+                AddressDto::getId,
+                () -> records + 1L,
+                1024,
+                false,
+                Long.MAX_VALUE,
+                Runnable::run);
+        journal.recover(address -> addresses.put(address.getId(), address), addresses::remove);
+        return addresses;
+    }
+
+    private byte[] encode(AddressDto address) {
+        try {
+            return objectMapper.writeValueAsBytes(address);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static AddressDto address(long id) {
+        return AddressDto.builder()
+                .id(id)
+                .address1(id + " Main Street")
+                .address2("Apartment " + (id % 100))
+                .area("Area " + (id % 1000))
+                .city("City " + (id % 50))
+                .pincode(String.valueOf(100000 + id % 900000))
+                .userId(id / 2 + 1)
+                .build();
+    }
+}
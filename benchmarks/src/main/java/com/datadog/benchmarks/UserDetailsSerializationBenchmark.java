@@ -0,0 +1,59 @@
+package com.datadog.benchmarks;
+
+import com.datadog.common.dto.ProfileDto;
+import com.datadog.common.dto.UserDetailsResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson serialization of a {@link UserDetailsResponse} with {@code profileEntries} addresses and educations, using
+ * an {@link ObjectMapper} configured the way Spring Boot configures the services' mapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserDetailsSerializationBenchmark {
+
+    @Param({"0", "2", "50"})
+    int profileEntries;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private UserDetailsResponse response;
+
+    @Setup(Level.Trial)
+    public void build() {
+        ProfileDto profile = BenchmarkData.profile(1, profileEntries);
+        response = UserDetailsResponse.builder()
+                .id(1L)
+                .username("user1")
+                .email("user1@example.com")
+                .firstName("First1")
+                .lastName("Last1")
+                .active(true)
+                .addresses(profile.getAddresses())
+                .educations(profile.getEducations())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,93 @@
+package com.datadog.benchmarks;
+
+import com.datadog.common.config.StorageProperties;
+import com.datadog.user.model.User;
+import com.datadog.user.repository.UserRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link UserRepository} operations on a repository of {@code rows} users, with ids and usernames drawn at random.
+ *
+ * <ul>
+ *   <li>{@code save}: re-saves an existing user with a new email, so the unique indexes are updated but the
+ *       repository does not grow across iterations.
+ *   <li>{@code findPage}: offset pagination ({@code ?page=&size=20}) at a random page, which walks the skipped ids.
+ *   <li>{@code findAfter}: keyset pagination ({@code ?after=&limit=20}) from a random id.
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    int rows;
+
+    @Param({"PRIMITIVE"})
+    StorageProperties.Engine engine;
+
+    private UserRepository userRepository;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private long saves;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        userRepository = new UserRepository(BenchmarkData.journals(), BenchmarkData.stores(engine));
+        for (long n = 1; n <= rows; n++) {
+            userRepository.save(BenchmarkData.user(n));
+        }
+    }
+
+    @Benchmark
+    public User save() {
+        long id = randomId();
+        User user = BenchmarkData.user(id);
+        user.setId(id);
+        user.setEmail("user" + id + "." + saves++ + "@example.com");
+        return userRepository.save(user);
+    }
+
+    @Benchmark
+    public Optional<User> findById() {
+        return userRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public boolean existsByUsername() {
+        return userRepository.existsByUsername("user" + randomId());
+    }
+
+    @Benchmark
+    public List<User> findPage() {
+        return userRepository.findAll(random.nextInt(rows / PAGE_SIZE + 1), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<User> findAfter() {
+        return userRepository.findAfter(randomId(), PAGE_SIZE);
+    }
+
+    private long randomId() {
+        return random.nextLong(1, rows + 1L);
+    }
+}
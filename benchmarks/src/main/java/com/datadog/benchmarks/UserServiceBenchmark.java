@@ -0,0 +1,126 @@
+package com.datadog.benchmarks;
+
+import com.datadog.common.client.ProfileServiceClient;
+import com.datadog.common.config.DownstreamFailures;
+import com.datadog.common.config.StorageProperties;
+import com.datadog.common.dto.AddressDto;
+import com.datadog.common.dto.EducationDto;
+import com.datadog.common.dto.ProfileDto;
+import com.datadog.common.dto.UserDetailsResponse;
+import com.datadog.user.cache.ProfileCache;
+import com.datadog.user.client.ProfileServiceGateway;
+import com.datadog.user.config.ProfileClientConfig;
+import com.datadog.user.config.ProfileServiceProperties;
+import com.datadog.user.repository.UserRepository;
+import com.datadog.user.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link UserService#getUserDetailsById} wired as in the service, with the Feign client replaced by an in-memory
+ * {@link ProfileServiceClient} that returns a profile of {@code profileEntries} addresses and educations.
+ *
+ * <ul>
+ *   <li>{@code cached}: the profile is served from the profile cache.
+ *   <li>{@code uncached}: the cached profile is evicted first, so every call goes through the gateway and its
+ *       fetch executor, as on a cache miss.
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserServiceBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"2"})
+    int profileEntries;
+
+    private UserService userService;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void wire() {
+        UserRepository userRepository =
+                new UserRepository(BenchmarkData.journals(), BenchmarkData.stores(StorageProperties.Engine.PRIMITIVE));
+        for (long n = 1; n <= USERS; n++) {
+            userRepository.save(BenchmarkData.user(n));
+        }
+        ProfileServiceProperties properties = new ProfileServiceProperties();
+        properties.getCache().setMaximumSize(USERS);
+        ProfileClientConfig executors = new ProfileClientConfig();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProfileServiceGateway gateway = new ProfileServiceGateway(
+                new StubProfileServiceClient(profileEntries),
+                properties,
+                executors.profileFetchExecutor(),
+                meterRegistry,
+                new DownstreamFailures());
+        ProfileCache profileCache = new ProfileCache(
+                gateway,
+                properties,
+                executors.profileFetchExecutor(),
+                executors.profileRefreshExecutor(),
+                meterRegistry);
+        userService = new UserService(userRepository, profileCache);
+    }
+
+    @Benchmark
+    public Optional<UserDetailsResponse> cached() {
+        return userService.getUserDetailsById(randomId());
+    }
+
+    @Benchmark
+    public Optional<UserDetailsResponse> uncached() {
+        long id = randomId();
+        userService.evictProfile(id);
+        return userService.getUserDetailsById(id);
+    }
+
+    private long randomId() {
+        return random.nextLong(1, USERS + 1L);
+    }
+
+    private record StubProfileServiceClient(int entries) implements ProfileServiceClient {
+
+        @Override
+        public List<AddressDto> getAddressesByUserId(Long userId) {
+            return BenchmarkData.profile(userId, entries).getAddresses();
+        }
+
+        @Override
+        public List<EducationDto> getEducationsByUserId(Long userId) {
+            return BenchmarkData.profile(userId, entries).getEducations();
+        }
+
+        @Override
+        public ProfileDto getProfileByUserId(Long userId) {
+            return BenchmarkData.profile(userId, entries);
+        }
+
+        @Override
+        public List<ProfileDto> getProfilesByUserIds(List<Long> userIds) {
+            return userIds.stream()
+                    .map(userId -> BenchmarkData.profile(userId, entries))
+                    .toList();
+        }
+    }
+}
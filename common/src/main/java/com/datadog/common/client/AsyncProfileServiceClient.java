@@ -0,0 +1,98 @@
+package com.datadog.common.client;
+
+import com.datadog.common.dto.AddressDto;
+import com.datadog.common.dto.EducationDto;
+import com.datadog.common.web.PropagatedContext;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Non-blocking counterpart of {@link ProfileServiceClient} for the per-user address and education endpoints.
+ * Requests are enqueued on the same OkHttp client as the Feign calls, so they share its connection pool, dispatcher,
+ * Logbook interceptors and metrics, and no thread waits while profile-service responds; responses are decoded on the
+ * dispatcher's thread. Headers come from the {@link PropagatedContext} passed in rather than from the calling thread.
+ *
+ * <p>Unlike {@code ProfileServiceGateway}, these calls do not go through the resilience layer: there is no circuit
+ * breaker, bulkhead, adaptive timeout, hedging or retry, only the {@code timeout} given here and whatever the caller
+ * adds. A caller that completes a returned future first, for example with {@code orTimeout}, cancels its call.
+ */
+public class AsyncProfileServiceClient {
+
+    private static final TypeReference<List<AddressDto>> ADDRESSES = new TypeReference<>() {};
+    private static final TypeReference<List<EducationDto>> EDUCATIONS = new TypeReference<>() {};
+
+    private final OkHttpClient httpClient;
+    private final HttpUrl baseUrl;
+    private final ObjectMapper objectMapper;
+
+    public AsyncProfileServiceClient(
+            OkHttpClient httpClient, String baseUrl, ObjectMapper objectMapper, Duration timeout) {
+        // A derived client shares the pool, dispatcher and interceptors of the one it is built from.
+        this.httpClient = httpClient.newBuilder().callTimeout(timeout).build();
+        this.baseUrl = HttpUrl.get(baseUrl);
+        this.objectMapper = objectMapper;
+    }
+
+    public CompletableFuture<List<AddressDto>> getAddressesByUserId(Long userId, PropagatedContext context) {
+        return get("/api/addresses/user/{userId}", "/api/addresses/user/" + userId, ADDRESSES, context);
+    }
+
+    public CompletableFuture<List<EducationDto>> getEducationsByUserId(Long userId, PropagatedContext context) {
+        return get("/api/educations/user/{userId}", "/api/educations/user/" + userId, EDUCATIONS, context);
+    }
+
+    private <T> CompletableFuture<T> get(
+            String template, String path, TypeReference<T> type, PropagatedContext context) {
+        Request.Builder request = new Request.Builder()
+                .url(baseUrl.resolve(path))
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                // Read by the client metrics, so expanded ids do not multiply the time series.
+                .tag(String.class, template)
+                .get();
+        context.headers().forEach(request::header);
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Call call = httpClient.newCall(request.build());
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                T value;
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        throw new IllegalStateException(
+                                "profile-service responded " + response.code() + " to GET " + path);
+                    }
+                    value = objectMapper.readValue(response.body().byteStream(), type);
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                // Completed once the connection is back in the pool, so dependent stages never hold it.
+                result.complete(value);
+            }
+        });
+        result.whenComplete((value, failure) -> {
+            if (failure != null) {
+                call.cancel();
+            }
+        });
+        return result;
+    }
+}
@@ -2,11 +2,14 @@ package com.datadog.common.client;
 
 import com.datadog.common.dto.AddressDto;
 import com.datadog.common.dto.EducationDto;
+import com.datadog.common.dto.ProfileDto;
 import com.datadog.common.feign.FeignConfig;
 import java.util.List;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 @FeignClient(name = "profile-service", url = "${profile-service.url}", configuration = FeignConfig.class)
 public interface ProfileServiceClient {
@@ -16,4 +19,10 @@ public interface ProfileServiceClient {
 
     @GetMapping("/api/educations/user/{userId}")
     List<EducationDto> getEducationsByUserId(@PathVariable("userId") Long userId);
+
+    @GetMapping("/api/profiles/user/{userId}")
+    ProfileDto getProfileByUserId(@PathVariable("userId") Long userId);
+
+    @PostMapping("/api/profiles/user:batch")
+    List<ProfileDto> getProfilesByUserIds(@RequestBody List<Long> userIds);
 }
@@ -0,0 +1,282 @@
+package com.datadog.common.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpLogFormatter;
+import org.zalando.logbook.HttpLogWriter;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Origin;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.attributes.HttpAttributes;
+
+/**
+ * Formats and writes HTTP logs on a background thread instead of the request thread.
+ *
+ * <p>The request thread only copies what the formatter needs (headers, filtered body, timing, MDC) into an immutable
+ * snapshot, because the servlet container recycles the request and response once the exchange completes, and
+ * hands it to a bounded ring buffer. A single writer thread drains up to {@code batchSize} entries at a time and
+ * formats and writes them. When the buffer is full the entry is dropped, or with {@link Overflow#BLOCK} the request
+ * thread waits for space.
+ */
+public class AsyncSink implements Sink, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncSink.class);
+
+    public enum Overflow {
+        DROP,
+        BLOCK
+    }
+
+    private final HttpLogFormatter formatter;
+    private final HttpLogWriter writer;
+    private final BlockingQueue<Entry> buffer;
+    private final int batchSize;
+    private final Overflow overflow;
+    private final LongAdder droppedRequests = new LongAdder();
+    private final LongAdder droppedResponses = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public AsyncSink(HttpLogFormatter formatter, HttpLogWriter writer, int capacity, int batchSize, Overflow overflow) {
+        this.formatter = formatter;
+        this.writer = writer;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.overflow = overflow;
+        this.writerThread =
+                Thread.ofPlatform().name("logbook-writer").daemon(true).start(this::drain);
+    }
+
+    @Override
+    public boolean isActive() {
+        return writer.isActive();
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request) throws IOException {
+        enqueue(
+                new Entry(snapshot(precorrelation), RequestSnapshot.of(request), null, MDC.getCopyOfContextMap()),
+                droppedRequests);
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException {
+        // The response line carries everything the formatter needs; the request was logged on its own.
+        enqueue(
+                new Entry(snapshot(correlation), null, ResponseSnapshot.of(response), MDC.getCopyOfContextMap()),
+                droppedResponses);
+    }
+
+    /** Publishes {@code logbook.sink.dropped} ({@code message=request|response}), written and queued counts. */
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("logbook.sink.dropped", droppedRequests, LongAdder::sum)
+                .tag("message", "request")
+                .register(meterRegistry);
+        FunctionCounter.builder("logbook.sink.dropped", droppedResponses, LongAdder::sum)
+                .tag("message", "response")
+                .register(meterRegistry);
+        FunctionCounter.builder("logbook.sink.written", written, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("logbook.sink.queued", buffer, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /** Stops accepting entries and writes what is still buffered. */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void enqueue(Entry entry, LongAdder dropped) {
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+        if (overflow == Overflow.BLOCK) {
+            try {
+                buffer.put(entry);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.increment();
+            }
+        } else if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                Entry first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // Only close() stops the writer, once the buffer is empty.
+                continue;
+            }
+            buffer.drainTo(batch, batchSize - 1);
+            for (Entry entry : batch) {
+                // Restores the request's correlation ID and platform on the log line.
+                setMdc(entry.mdc());
+                try {
+                    entry.writeTo(formatter, writer);
+                } catch (IOException | RuntimeException e) {
+                    log.warn(
+                            "Failed to write HTTP log entry {}: {}",
+                            entry.correlation().getId(),
+                            e.getMessage());
+                }
+            }
+            MDC.clear();
+            written.add(batch.size());
+            batch.clear();
+        }
+    }
+
+    private static void setMdc(Map<String, String> mdc) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        } else {
+            MDC.clear();
+        }
+    }
+
+    private static CorrelationSnapshot snapshot(Precorrelation precorrelation) {
+        Instant start = precorrelation.getStart();
+        Duration duration =
+                precorrelation instanceof Correlation correlation ? correlation.getDuration() : Duration.ZERO;
+        return new CorrelationSnapshot(precorrelation.getId(), start, start.plus(duration), duration);
+    }
+
+    private record Entry(
+            CorrelationSnapshot correlation,
+            RequestSnapshot request,
+            ResponseSnapshot response,
+            Map<String, String> mdc) {
+
+        void writeTo(HttpLogFormatter formatter, HttpLogWriter writer) throws IOException {
+            if (response == null) {
+                Precorrelation precorrelation = correlation;
+                writer.write(precorrelation, formatter.format(precorrelation, request));
+            } else {
+                writer.write(correlation, formatter.format(correlation, response));
+            }
+        }
+    }
+
+    private record CorrelationSnapshot(String getId, Instant getStart, Instant getEnd, Duration getDuration)
+            implements Correlation {
+
+        @Override
+        public Correlation correlate() {
+            return this;
+        }
+    }
+
+    private record RequestSnapshot(
+            String getRemote,
+            String getMethod,
+            String getRequestUri,
+            String getScheme,
+            String getHost,
+            Optional<Integer> getPort,
+            String getPath,
+            String getQuery,
+            String getProtocolVersion,
+            Origin getOrigin,
+            HttpHeaders getHeaders,
+            String getContentType,
+            Charset getCharset,
+            byte[] getBody,
+            HttpAttributes getAttributes)
+            implements HttpRequest {
+
+        static RequestSnapshot of(HttpRequest request) throws IOException {
+            return new RequestSnapshot(
+                    request.getRemote(),
+                    request.getMethod(),
+                    request.getRequestUri(),
+                    request.getScheme(),
+                    request.getHost(),
+                    request.getPort(),
+                    request.getPath(),
+                    request.getQuery(),
+                    request.getProtocolVersion(),
+                    request.getOrigin(),
+                    request.getHeaders(),
+                    request.getContentType(),
+                    request.getCharset(),
+                    request.getBody(),
+                    request.getAttributes());
+        }
+
+        @Override
+        public HttpRequest withBody() {
+            return this;
+        }
+
+        @Override
+        public HttpRequest withoutBody() {
+            return this;
+        }
+    }
+
+    private record ResponseSnapshot(
+            int getStatus,
+            String getReasonPhrase,
+            String getProtocolVersion,
+            Origin getOrigin,
+            HttpHeaders getHeaders,
+            String getContentType,
+            Charset getCharset,
+            byte[] getBody,
+            HttpAttributes getAttributes)
+            implements HttpResponse {
+
+        static ResponseSnapshot of(HttpResponse response) throws IOException {
+            return new ResponseSnapshot(
+                    response.getStatus(),
+                    response.getReasonPhrase(),
+                    response.getProtocolVersion(),
+                    response.getOrigin(),
+                    response.getHeaders(),
+                    response.getContentType(),
+                    response.getCharset(),
+                    response.getBody(),
+                    response.getAttributes());
+        }
+
+        @Override
+        public HttpResponse withBody() {
+            return this;
+        }
+
+        @Override
+        public HttpResponse withoutBody() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.datadog.common.config;
+
+import com.datadog.common.constant.Constants;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletRequestWrapper;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.slf4j.MDC;
+
+/**
+ * Runs Logbook's servlet filter, first wrapping the request and response of exchanges whose bodies the
+ * {@link BodyLoggingPolicy} may log so that their bodies stream through to the application and the client while only
+ * the first {@code max-body-bytes} (plus one, to tell that a body was truncated) are kept for the log. The policy then
+ * tells Logbook not to buffer these bodies itself and logs the captured bytes instead.
+ *
+ * <p>Exchanges are tracked in {@link DownstreamFailures} until they have been logged, which for asynchronous
+ * handlers is on the last dispatch.
+ */
+public class BodyCaptureFilter implements Filter {
+
+    private final BodyLoggingPolicy policy;
+    private final DownstreamFailures downstreamFailures;
+    private final Filter logbookFilter;
+
+    public BodyCaptureFilter(BodyLoggingPolicy policy, DownstreamFailures downstreamFailures, Filter logbookFilter) {
+        this.policy = policy;
+        this.downstreamFailures = downstreamFailures;
+        this.logbookFilter = logbookFilter;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        logbookFilter.init(filterConfig);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest httpRequest)
+                || !(response instanceof HttpServletResponse httpResponse)) {
+            logbookFilter.doFilter(request, response, chain);
+            return;
+        }
+        boolean initial = request.getDispatcherType() == DispatcherType.REQUEST;
+        String exchangeId = DownstreamFailures.exchangeId(httpResponse.getHeader(Constants.CORRELATION_ID_HEADER));
+        if (initial && exchangeId != null) {
+            downstreamFailures.begin(exchangeId);
+        }
+        try {
+            if (initial
+                    && policy.captures(policy.mode(
+                            httpRequest.getMethod(), httpRequest.getRequestURI(), correlationId(httpRequest)))) {
+                int limit = policy.maxBodyBytes() + 1;
+                logbookFilter.doFilter(
+                        new CapturingRequest(httpRequest, limit), new CapturingResponse(httpResponse, limit), chain);
+            } else {
+                logbookFilter.doFilter(request, response, chain);
+            }
+        } finally {
+            if (exchangeId != null && !request.isAsyncStarted()) {
+                downstreamFailures.end(exchangeId);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        logbookFilter.destroy();
+    }
+
+    /** Returns the capture of a request or response wrapped by this filter, or {@code null}. */
+    static Capture capture(Object message) {
+        Object current = message;
+        while (true) {
+            if (current instanceof Captured captured) {
+                return captured.capture();
+            } else if (current instanceof ServletRequestWrapper wrapper) {
+                current = wrapper.getRequest();
+            } else if (current instanceof ServletResponseWrapper wrapper) {
+                current = wrapper.getResponse();
+            } else {
+                return null;
+            }
+        }
+    }
+
+    private static String correlationId(HttpServletRequest request) {
+        String correlationId = request.getHeader(Constants.CORRELATION_ID_HEADER);
+        return correlationId != null ? correlationId : MDC.get(Constants.CORRELATION_ID_MDC_KEY);
+    }
+
+    /** The first {@code limit} bytes of a body. */
+    static final class Capture {
+
+        private final int limit;
+        private byte[] bytes;
+        private int count;
+
+        Capture(int limit) {
+            this.limit = limit;
+            this.bytes = new byte[Math.min(limit, 256)];
+        }
+
+        synchronized void write(int b) {
+            if (count < limit) {
+                ensureCapacity(count + 1);
+                bytes[count++] = (byte) b;
+            }
+        }
+
+        synchronized void write(byte[] b, int off, int len) {
+            int kept = Math.min(len, limit - count);
+            if (kept > 0) {
+                ensureCapacity(count + kept);
+                System.arraycopy(b, off, bytes, count, kept);
+                count += kept;
+            }
+        }
+
+        boolean isFull() {
+            return count >= limit;
+        }
+
+        synchronized byte[] toByteArray() {
+            return Arrays.copyOf(bytes, count);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.min(Math.max(capacity, bytes.length * 2), limit));
+            }
+        }
+    }
+
+    private interface Captured {
+        Capture capture();
+    }
+
+    private static final class CapturingRequest extends HttpServletRequestWrapper implements Captured {
+
+        private final Capture capture;
+        private ServletInputStream inputStream;
+        private BufferedReader reader;
+
+        CapturingRequest(HttpServletRequest request, int limit) {
+            super(request);
+            this.capture = new Capture(limit);
+        }
+
+        @Override
+        public Capture capture() {
+            return capture;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new CapturingInputStream(super.getInputStream(), capture);
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                reader = new BufferedReader(new InputStreamReader(getInputStream(), charset(getCharacterEncoding())));
+            }
+            return reader;
+        }
+    }
+
+    private static final class CapturingResponse extends HttpServletResponseWrapper implements Captured {
+
+        private final Capture capture;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CapturingResponse(HttpServletResponse response, int limit) {
+            super(response);
+            this.capture = new Capture(limit);
+        }
+
+        @Override
+        public Capture capture() {
+            return capture;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CapturingOutputStream(super.getOutputStream(), capture);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                // The container's own writer does the buffering and encoding; the copy is encoded separately.
+                writer = new PrintWriter(
+                        new CapturingWriter(super.getWriter(), capture, charset(getCharacterEncoding())));
+            }
+            return writer;
+        }
+    }
+
+    private static final class CapturingInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private final Capture capture;
+
+        CapturingInputStream(ServletInputStream delegate, Capture capture) {
+            this.delegate = delegate;
+            this.capture = capture;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b >= 0) {
+                capture.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = delegate.read(b, off, len);
+            if (read > 0) {
+                capture.write(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+
+    private static final class CapturingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final Capture capture;
+
+        CapturingOutputStream(ServletOutputStream delegate, Capture capture) {
+            this.delegate = delegate;
+            this.capture = capture;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            capture.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            capture.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+    private static final class CapturingWriter extends Writer {
+
+        private final Writer delegate;
+        private final Capture capture;
+        private final Charset charset;
+
+        CapturingWriter(Writer delegate, Capture capture, Charset charset) {
+            this.delegate = delegate;
+            this.capture = capture;
+            this.charset = charset;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            delegate.write(cbuf, off, len);
+            if (!capture.isFull()) {
+                byte[] encoded = new String(cbuf, off, len).getBytes(charset);
+                capture.write(encoded, 0, encoded.length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static Charset charset(String encoding) {
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+    }
+}
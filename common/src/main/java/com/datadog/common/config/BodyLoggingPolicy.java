@@ -0,0 +1,307 @@
+package com.datadog.common.config;
+
+import com.datadog.common.constant.Constants;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.MDC;
+import org.springframework.util.AntPathMatcher;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.ForwardingHttpMessage;
+import org.zalando.logbook.ForwardingHttpRequest;
+import org.zalando.logbook.ForwardingHttpResponse;
+import org.zalando.logbook.HttpMessage;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Origin;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.Strategy;
+
+/**
+ * Decides per exchange whether Logbook buffers and logs bodies, for both the servlet filter and the OkHttp
+ * interceptor:
+ *
+ * <ul>
+ *   <li>{@code headers-only} routes are always logged without bodies;
+ *   <li>other exchanges are sampled at their route's rate. The decision hashes the correlation ID, so every
+ *       service and client call of one request makes the same decision;
+ *   <li>sampled exchanges are logged with at most {@code max-body-bytes} of each body;
+ *   <li>unsampled exchanges are logged only when the status reaches {@code always-log-status}, they take
+ *       {@code always-log-slower-than} or, for server exchanges, a downstream call on the same correlation ID failed
+ *       (see {@link DownstreamFailures}). With {@code tail-capture}, unsampled server exchanges keep their first
+ *       bytes as well, so these come with their bodies; the others are dropped before anything is formatted.
+ * </ul>
+ *
+ * <p>The request line is written together with the response line once the exchange completes, which is what lets
+ * failed and slow exchanges be logged whatever the sample. On the server side {@link BodyCaptureFilter} keeps only
+ * the first bytes of each body while it streams, so the memory held per request is bounded; client bodies are
+ * buffered by Logbook only when sampled, and truncated when logged.
+ */
+public class BodyLoggingPolicy implements Strategy {
+
+    public enum Mode {
+        /** Logged with bodies. */
+        BODY,
+        /** Always logged, without bodies. */
+        HEADERS,
+        /** Logged only if failed or slow, with bodies if {@code tail-capture} kept them. */
+        UNSAMPLED
+    }
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+    private static final byte[] ELLIPSIS = "...".getBytes(StandardCharsets.UTF_8);
+
+    private final List<Route> headersOnly;
+    private final List<SampledRoute> sampleRates;
+    private final double sampleRate;
+    private final int maxBodyBytes;
+    private final int alwaysLogStatus;
+    private final Duration alwaysLogSlowerThan;
+    private final boolean tailCapture;
+    private final DownstreamFailures downstreamFailures;
+
+    public BodyLoggingPolicy(LogbookProperties.BodyProperties properties, DownstreamFailures downstreamFailures) {
+        this.headersOnly =
+                properties.getHeadersOnly().stream().map(Route::parse).toList();
+        this.sampleRates = properties.getSampleRates().stream()
+                .map(rate -> new SampledRoute(Route.parse(rate.getRoute()), rate.getRate()))
+                .toList();
+        this.sampleRate = properties.getSampleRate();
+        this.maxBodyBytes = properties.getMaxBodyBytes();
+        this.alwaysLogStatus = properties.getAlwaysLogStatus();
+        this.alwaysLogSlowerThan = properties.getAlwaysLogSlowerThan();
+        this.tailCapture = properties.isTailCapture();
+        this.downstreamFailures = downstreamFailures;
+    }
+
+    /** Bytes of each body kept for the log. */
+    public int maxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    /** Returns how an exchange is logged; exchanges without a correlation ID are sampled only at a rate of 1. */
+    public Mode mode(String method, String path, String correlationId) {
+        for (Route route : headersOnly) {
+            if (route.matches(method, path)) {
+                return Mode.HEADERS;
+            }
+        }
+        double rate = sampleRate;
+        for (SampledRoute sampled : sampleRates) {
+            if (sampled.route().matches(method, path)) {
+                rate = sampled.rate();
+                break;
+            }
+        }
+        if (rate >= 1) {
+            return Mode.BODY;
+        }
+        return correlationId != null && sample(correlationId) < rate ? Mode.BODY : Mode.UNSAMPLED;
+    }
+
+    /** Whether {@link BodyCaptureFilter} keeps the first bytes of the bodies of an exchange. */
+    public boolean captures(Mode mode) {
+        return mode == Mode.BODY || (mode == Mode.UNSAMPLED && tailCapture);
+    }
+
+    @Override
+    public HttpRequest process(HttpRequest request) throws IOException {
+        BodyCaptureFilter.Capture capture = BodyCaptureFilter.capture(request);
+        if (capture != null) {
+            return new CapturedRequest(request.withoutBody(), capture);
+        }
+        return mode(request, null) == Mode.BODY ? request.withBody() : request.withoutBody();
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request, Sink sink) {
+        // Written with the response, once it is known whether an unsampled exchange failed or was slow.
+    }
+
+    @Override
+    public HttpResponse process(HttpRequest request, HttpResponse response) throws IOException {
+        BodyCaptureFilter.Capture capture = BodyCaptureFilter.capture(response);
+        if (capture != null) {
+            return new CapturedResponse(response.withoutBody(), capture);
+        }
+        return mode(request, response) == Mode.BODY ? response.withBody() : response.withoutBody();
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response, Sink sink)
+            throws IOException {
+        if (mode(request, response) == Mode.UNSAMPLED && !isNotable(correlation, request, response)) {
+            return;
+        }
+        sink.writeBoth(correlation, truncated(request), truncated(response));
+    }
+
+    private boolean isNotable(Correlation correlation, HttpRequest request, HttpResponse response) {
+        return response.getStatus() >= alwaysLogStatus
+                || correlation.getDuration().compareTo(alwaysLogSlowerThan) >= 0
+                || (request.getOrigin() == Origin.REMOTE
+                        && downstreamFailures.hasFailed(DownstreamFailures.exchangeId(
+                                response.getHeaders().getFirst(Constants.CORRELATION_ID_HEADER))));
+    }
+
+    private Mode mode(HttpRequest request, HttpResponse response) {
+        return mode(request.getMethod(), request.getPath(), correlationId(request, response));
+    }
+
+    /**
+     * The caller's or propagated correlation ID, else the one {@code CorrelationIdFilter} generated: in the MDC on
+     * the request thread, and in the response header once the exchange completes.
+     */
+    private static String correlationId(HttpRequest request, HttpResponse response) {
+        String correlationId = request.getHeaders().getFirst(Constants.CORRELATION_ID_HEADER);
+        if (correlationId == null && response != null) {
+            correlationId = response.getHeaders().getFirst(Constants.CORRELATION_ID_HEADER);
+        }
+        return correlationId != null ? correlationId : MDC.get(Constants.CORRELATION_ID_MDC_KEY);
+    }
+
+    /** Maps a correlation ID to [0, 1) with the same result in every JVM. */
+    private static double sample(String correlationId) {
+        int hash = correlationId.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (hash >>> 8) / (double) (1 << 24);
+    }
+
+    private HttpRequest truncated(HttpRequest request) throws IOException {
+        byte[] body = request.getBody();
+        return isCut(request, body) ? new TruncatedRequest(request, truncate(body)) : request;
+    }
+
+    private HttpResponse truncated(HttpResponse response) throws IOException {
+        byte[] body = response.getBody();
+        return isCut(response, body) ? new TruncatedResponse(response, truncate(body)) : response;
+    }
+
+    /** Captured bodies were cut if they did not fit; obfuscation may have changed their length since. */
+    private boolean isCut(HttpMessage message, byte[] body) {
+        HttpMessage current = message;
+        while (current instanceof ForwardingHttpMessage forwarding) {
+            if (current instanceof CapturedBody captured) {
+                return captured.capture().isFull();
+            }
+            current = forwarding.delegate();
+        }
+        return body.length > maxBodyBytes;
+    }
+
+    private byte[] truncate(byte[] body) {
+        int kept = Math.min(body.length, maxBodyBytes);
+        byte[] truncated = Arrays.copyOf(body, kept + ELLIPSIS.length);
+        System.arraycopy(ELLIPSIS, 0, truncated, kept, ELLIPSIS.length);
+        return truncated;
+    }
+
+    /** Truncated JSON is no longer a JSON value, so it is logged as a string. */
+    private static String truncatedContentType(HttpMessage message) {
+        return "text/plain;charset=" + message.getCharset().name();
+    }
+
+    private record Route(String method, String pattern) {
+
+        static Route parse(String route) {
+            String trimmed = route.trim();
+            int space = trimmed.indexOf(' ');
+            return space < 0
+                    ? new Route(null, trimmed)
+                    : new Route(
+                            trimmed.substring(0, space),
+                            trimmed.substring(space + 1).trim());
+        }
+
+        boolean matches(String method, String path) {
+            return (this.method == null || this.method.equalsIgnoreCase(method)) && PATHS.match(pattern, path);
+        }
+    }
+
+    private record SampledRoute(Route route, double rate) {}
+
+    private interface CapturedBody {
+        BodyCaptureFilter.Capture capture();
+    }
+
+    private record CapturedRequest(HttpRequest delegate, BodyCaptureFilter.Capture capture)
+            implements ForwardingHttpRequest, CapturedBody {
+
+        @Override
+        public byte[] getBody() {
+            return capture.toByteArray();
+        }
+
+        @Override
+        public String getBodyAsString() {
+            return new String(getBody(), getCharset());
+        }
+
+        @Override
+        public HttpRequest withBody() {
+            return this;
+        }
+
+        @Override
+        public HttpRequest withoutBody() {
+            return this;
+        }
+    }
+
+    private record CapturedResponse(HttpResponse delegate, BodyCaptureFilter.Capture capture)
+            implements ForwardingHttpResponse, CapturedBody {
+
+        @Override
+        public byte[] getBody() {
+            return capture.toByteArray();
+        }
+
+        @Override
+        public String getBodyAsString() {
+            return new String(getBody(), getCharset());
+        }
+
+        @Override
+        public HttpResponse withBody() {
+            return this;
+        }
+
+        @Override
+        public HttpResponse withoutBody() {
+            return this;
+        }
+    }
+
+    private record TruncatedRequest(HttpRequest delegate, byte[] getBody) implements ForwardingHttpRequest {
+
+        @Override
+        public String getContentType() {
+            return truncatedContentType(delegate);
+        }
+
+        @Override
+        public String getBodyAsString() {
+            return new String(getBody, getCharset());
+        }
+    }
+
+    private record TruncatedResponse(HttpResponse delegate, byte[] getBody) implements ForwardingHttpResponse {
+
+        @Override
+        public String getContentType() {
+            return truncatedContentType(delegate);
+        }
+
+        @Override
+        public String getBodyAsString() {
+            return new String(getBody, getCharset());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.datadog.common.config;
+
+import com.datadog.common.constant.Constants;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.MDC;
+
+/**
+ * Correlation IDs of in-flight server exchanges that saw a downstream call fail, so that {@link BodyLoggingPolicy}
+ * logs them even when they are unsampled and answer successfully, for example from a fallback.
+ *
+ * <p>{@link BodyCaptureFilter} tracks an exchange from its arrival until it has been logged, so the map never holds
+ * more than the requests in flight. Failures recorded for IDs that are not in flight, such as a background refresh
+ * finishing after its request, are ignored. Concurrent exchanges sharing a correlation ID share its flag.
+ */
+public class DownstreamFailures {
+
+    private final ConcurrentHashMap<String, Exchanges> inFlight = new ConcurrentHashMap<>();
+
+    /** Records a failed downstream call for the exchange whose correlation ID is in the MDC. */
+    public void record() {
+        record(MDC.get(Constants.CORRELATION_ID_MDC_KEY));
+    }
+
+    /** Records a failed downstream call for the exchange with this correlation ID, if it is in flight. */
+    public void record(String correlationId) {
+        if (correlationId != null) {
+            inFlight.computeIfPresent(correlationId, (id, exchanges) -> new Exchanges(exchanges.count(), true));
+        }
+    }
+
+    boolean hasFailed(String correlationId) {
+        Exchanges exchanges = correlationId != null ? inFlight.get(correlationId) : null;
+        return exchanges != null && exchanges.failed();
+    }
+
+    void begin(String correlationId) {
+        inFlight.merge(
+                correlationId,
+                new Exchanges(1, false),
+                (current, added) -> new Exchanges(current.count() + 1, current.failed()));
+    }
+
+    void end(String correlationId) {
+        inFlight.computeIfPresent(
+                correlationId,
+                (id, exchanges) ->
+                        exchanges.count() > 1 ? new Exchanges(exchanges.count() - 1, exchanges.failed()) : null);
+    }
+
+    /**
+     * The ID {@code CorrelationIdFilter} gave this service's exchange: it sets the response header before the
+     * exchange reaches Logbook, and the MDC only on the initial dispatch.
+     */
+    static String exchangeId(String responseHeader) {
+        return responseHeader != null ? responseHeader : MDC.get(Constants.CORRELATION_ID_MDC_KEY);
+    }
+
+    private record Exchanges(int count, boolean failed) {}
+}
@@ -1,30 +1,32 @@
 package com.datadog.common.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.Filter;
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
 import org.zalando.logbook.BodyFilter;
 import org.zalando.logbook.HeaderFilter;
+import org.zalando.logbook.HttpLogFormatter;
+import org.zalando.logbook.HttpLogWriter;
 import org.zalando.logbook.Logbook;
 import org.zalando.logbook.QueryFilter;
-import org.zalando.logbook.core.BodyFilters;
+import org.zalando.logbook.Sink;
 import org.zalando.logbook.core.Conditions;
 import org.zalando.logbook.core.DefaultHttpLogWriter;
 import org.zalando.logbook.core.DefaultSink;
 import org.zalando.logbook.core.HeaderFilters;
 import org.zalando.logbook.core.QueryFilters;
-import org.zalando.logbook.json.JsonBodyFilters;
 import org.zalando.logbook.json.JsonHttpLogFormatter;
-import org.zalando.logbook.json.JsonPathBodyFilters;
 import org.zalando.logbook.okhttp.GzipInterceptor;
 import org.zalando.logbook.okhttp.LogbookInterceptor;
 import org.zalando.logbook.servlet.LogbookFilter;
@@ -41,23 +43,7 @@ public class LogbookConfig {
 
     @Bean
     public BodyFilter bodyFilter() {
-        Set<String> bodyFields = properties.getObfuscate().getBodyFields();
-        Map<String, List<String>> bodyFieldsJsonPath = properties.getObfuscate().getBodyFieldsJsonPath();
-
-        BodyFilter bodyFilter = BodyFilter.merge(
-                BodyFilters.defaultValue(), JsonBodyFilters.replaceJsonStringProperty(bodyFields, "XXX"));
-
-        if (bodyFieldsJsonPath != null && !bodyFieldsJsonPath.isEmpty()) {
-            for (Map.Entry<String, List<String>> entry : bodyFieldsJsonPath.entrySet()) {
-                String patternString = entry.getValue().stream().collect(Collectors.joining("|"));
-                Pattern pattern = Pattern.compile(patternString, Pattern.MULTILINE);
-                bodyFilter = BodyFilter.merge(
-                        bodyFilter,
-                        JsonPathBodyFilters.jsonPath("$." + entry.getKey()).replace(pattern, "XXX"));
-            }
-        }
-
-        return bodyFilter;
+        return new ObfuscatingBodyFilter(properties.getObfuscate());
     }
 
     @Bean
@@ -79,31 +65,77 @@ public class LogbookConfig {
     }
 
     @Bean
-    public Logbook logbook(BodyFilter bodyFilter, HeaderFilter headerFilter, QueryFilter queryFilter) {
+    public Sink logbookSink() {
+        HttpLogFormatter formatter = new JsonHttpLogFormatter();
+        HttpLogWriter writer = new DefaultHttpLogWriter();
+        LogbookProperties.SinkProperties sink = properties.getSink();
+        if (!sink.isAsync()) {
+            return new DefaultSink(formatter, writer);
+        }
+        return new AsyncSink(formatter, writer, sink.getCapacity(), sink.getBatchSize(), sink.getOverflow());
+    }
+
+    @Bean
+    public MeterBinder logbookSinkMetrics(Sink logbookSink) {
+        return meterRegistry -> {
+            if (logbookSink instanceof AsyncSink asyncSink) {
+                asyncSink.bindTo(meterRegistry);
+            }
+        };
+    }
+
+    @Bean
+    public DownstreamFailures downstreamFailures() {
+        return new DownstreamFailures();
+    }
+
+    @Bean
+    public BodyLoggingPolicy bodyLoggingPolicy(DownstreamFailures downstreamFailures) {
+        return new BodyLoggingPolicy(properties.getBody(), downstreamFailures);
+    }
+
+    @Bean
+    public Logbook logbook(
+            BodyFilter bodyFilter,
+            HeaderFilter headerFilter,
+            QueryFilter queryFilter,
+            BodyLoggingPolicy bodyLoggingPolicy,
+            Sink sink) {
         return Logbook.builder()
                 .condition(Conditions.exclude(
                         Conditions.requestTo("/management/**"), Conditions.requestTo("/actuator/**")))
                 .queryFilter(queryFilter)
                 .headerFilter(headerFilter)
                 .bodyFilter(bodyFilter)
-                .sink(new DefaultSink(new JsonHttpLogFormatter(), new DefaultHttpLogWriter()))
+                .strategy(bodyLoggingPolicy)
+                .sink(sink)
                 .build();
     }
 
     @Bean
-    public FilterRegistrationBean<Filter> logbookFilter(Logbook logbook) {
+    public FilterRegistrationBean<Filter> logbookFilter(
+            Logbook logbook, BodyLoggingPolicy bodyLoggingPolicy, DownstreamFailures downstreamFailures) {
         FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>();
-        registration.setFilter(new LogbookFilter(logbook));
+        registration.setFilter(
+                new BodyCaptureFilter(bodyLoggingPolicy, downstreamFailures, new LogbookFilter(logbook)));
         registration.setOrder(Ordered.LOWEST_PRECEDENCE);
         registration.addUrlPatterns("/*");
+        // Asynchronous handlers complete on an ASYNC dispatch, which is where the response gets logged.
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
         registration.setName("logbookFilter");
         return registration;
     }
 
     @Bean
-    public OkHttpClient.Builder okHttpClientBuilder(Logbook logbook) {
-        return new OkHttpClient.Builder()
+    public OkHttpClient.Builder okHttpClientBuilder(Logbook logbook, Environment environment) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
                 .addNetworkInterceptor(new LogbookInterceptor(logbook))
                 .addNetworkInterceptor(new GzipInterceptor());
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // Asynchronous calls get a virtual thread each instead of OkHttp's cached platform-thread pool.
+            builder.dispatcher(new Dispatcher(Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("okhttp-", 0).factory())));
+        }
+        return builder;
     }
 }
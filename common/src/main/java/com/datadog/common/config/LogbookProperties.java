@@ -1,5 +1,6 @@
 package com.datadog.common.config;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -9,6 +10,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class LogbookProperties {
 
     private ObfuscateProperties obfuscate = new ObfuscateProperties();
+    private SinkProperties sink = new SinkProperties();
+    private BodyProperties body = new BodyProperties();
 
     public ObfuscateProperties getObfuscate() {
         return obfuscate;
@@ -18,6 +21,22 @@ public class LogbookProperties {
         this.obfuscate = obfuscate;
     }
 
+    public SinkProperties getSink() {
+        return sink;
+    }
+
+    public void setSink(SinkProperties sink) {
+        this.sink = sink;
+    }
+
+    public BodyProperties getBody() {
+        return body;
+    }
+
+    public void setBody(BodyProperties body) {
+        this.body = body;
+    }
+
     public static class ObfuscateProperties {
         private Set<String> headers = Set.of();
         private Set<String> parameters = Set.of();
@@ -56,4 +75,151 @@ public class LogbookProperties {
             this.bodyFieldsJsonPath = bodyFieldsJsonPath;
         }
     }
+
+    /** Where HTTP logs are formatted and written; see {@link AsyncSink}. */
+    public static class SinkProperties {
+        /** Format and write logs on a background thread; when off they are written on the request thread. */
+        private boolean async = true;
+        /** Log entries the ring buffer holds before the overflow policy applies. */
+        private int capacity = 8192;
+        /** Entries the writer formats and writes per wake-up. */
+        private int batchSize = 256;
+        /** What a request does when the buffer is full: drop its entry, or block until there is space. */
+        private AsyncSink.Overflow overflow = AsyncSink.Overflow.DROP;
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public AsyncSink.Overflow getOverflow() {
+            return overflow;
+        }
+
+        public void setOverflow(AsyncSink.Overflow overflow) {
+            this.overflow = overflow;
+        }
+    }
+
+    /**
+     * Which exchanges are logged with their bodies; see {@link BodyLoggingPolicy}. Routes are an Ant path pattern,
+     * optionally preceded by a method, for example {@code GET /api/users/**}.
+     */
+    public static class BodyProperties {
+        /** Share of exchanges logged; the others only when they fail, are slow or a downstream call fails. */
+        private double sampleRate = 1.0;
+        /** Sample rates of specific routes; the first matching route wins over {@code sample-rate}. */
+        private List<RouteSampleRate> sampleRates = List.of();
+        /** Routes always logged, but without bodies, such as streamed collections. */
+        private List<String> headersOnly = List.of();
+        /** Bytes of each body kept for the log; longer bodies are truncated while they are read or written. */
+        private int maxBodyBytes = 8192;
+        /** Unsampled exchanges with at least this status are logged anyway. */
+        private int alwaysLogStatus = 500;
+        /** Unsampled exchanges taking at least this long are logged anyway. */
+        private Duration alwaysLogSlowerThan = Duration.ofSeconds(1);
+        /**
+         * Unsampled server exchanges keep their first bytes too, so those logged anyway come with bodies; this holds
+         * up to {@code max-body-bytes} per body of every request in flight rather than only the sampled ones.
+         */
+        private boolean tailCapture = true;
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public List<RouteSampleRate> getSampleRates() {
+            return sampleRates;
+        }
+
+        public void setSampleRates(List<RouteSampleRate> sampleRates) {
+            this.sampleRates = sampleRates;
+        }
+
+        public List<String> getHeadersOnly() {
+            return headersOnly;
+        }
+
+        public void setHeadersOnly(List<String> headersOnly) {
+            this.headersOnly = headersOnly;
+        }
+
+        public int getMaxBodyBytes() {
+            return maxBodyBytes;
+        }
+
+        public void setMaxBodyBytes(int maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        public int getAlwaysLogStatus() {
+            return alwaysLogStatus;
+        }
+
+        public void setAlwaysLogStatus(int alwaysLogStatus) {
+            this.alwaysLogStatus = alwaysLogStatus;
+        }
+
+        public Duration getAlwaysLogSlowerThan() {
+            return alwaysLogSlowerThan;
+        }
+
+        public void setAlwaysLogSlowerThan(Duration alwaysLogSlowerThan) {
+            this.alwaysLogSlowerThan = alwaysLogSlowerThan;
+        }
+
+        public boolean isTailCapture() {
+            return tailCapture;
+        }
+
+        public void setTailCapture(boolean tailCapture) {
+            this.tailCapture = tailCapture;
+        }
+    }
+
+    public static class RouteSampleRate {
+        /** Route the rate applies to. */
+        private String route;
+        /** Share of the route's exchanges logged with their bodies, from 0 to 1. */
+        private double rate;
+
+        public String getRoute() {
+            return route;
+        }
+
+        public void setRoute(String route) {
+            this.route = route;
+        }
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+    }
 }
@@ -0,0 +1,468 @@
+package com.datadog.common.config;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.zalando.logbook.BodyFilter;
+import org.zalando.logbook.ContentType;
+import org.zalando.logbook.core.BodyFilters;
+import org.zalando.logbook.json.JsonBodyFilters;
+
+/**
+ * Obfuscates and compacts JSON bodies in a single pass, replacing the chain of Logbook's default filters,
+ * {@code JsonBodyFilters.replaceJsonStringProperty} and one {@code JsonPathBodyFilters} filter per JSON path, each of
+ * which parses or rescans the whole body.
+ *
+ * <p>All {@link LogbookProperties.ObfuscateProperties} body rules are compiled up front: field names (plus Logbook's
+ * default {@code access_token}, {@code refresh_token}, {@code open_id} and {@code id_token}) into one hash table, and
+ * the {@code body-fields-json-path} keys into a tree of dotted paths from the root, each with its patterns joined into
+ * one regex. The body is then tokenized once, without building a tree: string values of a listed field become
+ * {@code "XXX"}, matches of a path's regex are replaced with {@code XXX} in every string value at or below that
+ * path, and whitespace between tokens is dropped. Only the output buffer and the tokenizer's container stack are
+ * allocated, plus a matcher per string value under a configured path.
+ *
+ * <p>A body cut short, as {@link BodyLoggingPolicy} does with large bodies, is obfuscated up to where it ends,
+ * including a value cut in the middle. Other bodies that are not valid JSON fall back to Logbook's regex-based field
+ * filter, as the chain did. Form bodies keep Logbook's {@code client_secret} and {@code password} obfuscation; other
+ * content types are left as they are.
+ */
+public final class ObfuscatingBodyFilter implements BodyFilter {
+
+    private static final String REPLACEMENT = "XXX";
+    private static final Set<String> DEFAULT_FIELDS = Set.of("access_token", "refresh_token", "open_id", "id_token");
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private final Names names;
+    private final boolean[] obfuscatedNames;
+    /** Child path node per path node and name id, or {@link #NONE}. */
+    private final int[][] children;
+    /** Regex of each path node, or {@code null} for intermediate nodes. */
+    private final Pattern[] pathPatterns;
+
+    private final BodyFilter fallback;
+    private final BodyFilter form = BodyFilters.oauthRequest();
+
+    public ObfuscatingBodyFilter(LogbookProperties.ObfuscateProperties properties) {
+        Set<String> fields = new LinkedHashSet<>(DEFAULT_FIELDS);
+        if (properties.getBodyFields() != null) {
+            fields.addAll(properties.getBodyFields());
+        }
+        Map<String, List<String>> paths =
+                properties.getBodyFieldsJsonPath() != null ? properties.getBodyFieldsJsonPath() : Map.of();
+
+        Set<String> allNames = new LinkedHashSet<>(fields);
+        paths.keySet().forEach(path -> allNames.addAll(segments(path)));
+        this.names = new Names(allNames);
+        this.obfuscatedNames = new boolean[allNames.size()];
+        fields.forEach(field -> obfuscatedNames[names.id(field)] = true);
+
+        List<int[]> nodes = new ArrayList<>();
+        List<Pattern> patterns = new ArrayList<>();
+        nodes.add(emptyNode());
+        patterns.add(null);
+        for (Map.Entry<String, List<String>> entry : paths.entrySet()) {
+            if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                continue;
+            }
+            int node = ROOT;
+            for (String segment : segments(entry.getKey())) {
+                int name = names.id(segment);
+                if (nodes.get(node)[name] == NONE) {
+                    nodes.get(node)[name] = nodes.size();
+                    nodes.add(emptyNode());
+                    patterns.add(null);
+                }
+                node = nodes.get(node)[name];
+            }
+            patterns.set(node, Pattern.compile(String.join("|", entry.getValue()), Pattern.MULTILINE));
+        }
+        this.children = nodes.toArray(int[][]::new);
+        this.pathPatterns = patterns.toArray(Pattern[]::new);
+        this.fallback = JsonBodyFilters.replaceJsonStringProperty(fields, REPLACEMENT);
+    }
+
+    @Override
+    public String filter(String contentType, String body) {
+        if (body.isEmpty()) {
+            return body;
+        }
+        if (!ContentType.isJsonMediaType(contentType)) {
+            return form.filter(contentType, body);
+        }
+        Tokenizer tokenizer = new Tokenizer(body);
+        try {
+            return tokenizer.run();
+        } catch (TruncatedJsonException e) {
+            return tokenizer.out.toString();
+        } catch (MalformedJsonException e) {
+            return fallback.filter(contentType, body);
+        }
+    }
+
+    private int[] emptyNode() {
+        int[] node = new int[names.size()];
+        Arrays.fill(node, NONE);
+        return node;
+    }
+
+    private static List<String> segments(String path) {
+        String relative = path.startsWith("$.") ? path.substring(2) : path;
+        return List.of(relative.split("\\."));
+    }
+
+    /** One pass over one body; not thread-safe. */
+    private final class Tokenizer {
+
+        private static final int VALUE = 0;
+        private static final int AFTER_VALUE = 1;
+        private static final int KEY = 2;
+
+        private final String body;
+        private final StringBuilder out;
+        private int pos;
+
+        // Stack of open containers: whether each is an object, its path node and the regex applying inside it.
+        private boolean[] objects = new boolean[16];
+        private int[] nodes = new int[16];
+        private Pattern[] patterns = new Pattern[16];
+        private int depth;
+
+        // Context of the value about to be read.
+        private int node = ROOT;
+        private Pattern pattern;
+        private boolean obfuscate;
+
+        Tokenizer(String body) {
+            this.body = body;
+            this.out = new StringBuilder(body.length());
+        }
+
+        String run() {
+            int state = VALUE;
+            while (true) {
+                switch (state) {
+                    case VALUE -> state = value();
+                    case KEY -> {
+                        key();
+                        state = VALUE;
+                    }
+                    default -> {
+                        if (depth == 0) {
+                            skipWhitespace();
+                            if (pos != body.length()) {
+                                throw MalformedJsonException.INSTANCE;
+                            }
+                            return out.toString();
+                        }
+                        state = afterValue();
+                    }
+                }
+            }
+        }
+
+        private int value() {
+            char c = next();
+            switch (c) {
+                case '{' -> {
+                    out.append(c);
+                    push(true);
+                    skipWhitespace();
+                    if (peek() == '}') {
+                        pos++;
+                        out.append('}');
+                        depth--;
+                        return AFTER_VALUE;
+                    }
+                    return KEY;
+                }
+                case '[' -> {
+                    out.append(c);
+                    push(false);
+                    skipWhitespace();
+                    if (peek() == ']') {
+                        pos++;
+                        out.append(']');
+                        depth--;
+                        return AFTER_VALUE;
+                    }
+                    element();
+                    return VALUE;
+                }
+                case '"' -> string();
+                default -> literal();
+            }
+            return AFTER_VALUE;
+        }
+
+        private int afterValue() {
+            char c = next();
+            if (c == ',') {
+                out.append(c);
+                if (objects[depth - 1]) {
+                    return KEY;
+                }
+                element();
+                return VALUE;
+            }
+            if (c != (objects[depth - 1] ? '}' : ']')) {
+                throw MalformedJsonException.INSTANCE;
+            }
+            out.append(c);
+            depth--;
+            return AFTER_VALUE;
+        }
+
+        /** Reads a member name and the colon, and sets up the context of the member's value. */
+        private void key() {
+            if (next() != '"') {
+                throw MalformedJsonException.INSTANCE;
+            }
+            int start = pos;
+            boolean escaped;
+            try {
+                escaped = skipString();
+            } catch (TruncatedJsonException e) {
+                out.append(body, start - 1, body.length());
+                throw e;
+            }
+            int end = pos - 1;
+            out.append(body, start - 1, pos);
+            if (next() != ':') {
+                throw MalformedJsonException.INSTANCE;
+            }
+            out.append(':');
+
+            int name = escaped ? names.id(unescape(start, end)) : names.id(body, start, end);
+            int parent = nodes[depth - 1];
+            pattern = patterns[depth - 1];
+            node = parent != NONE && name != NONE ? children[parent][name] : NONE;
+            if (pattern == null && node != NONE) {
+                pattern = pathPatterns[node];
+            }
+            obfuscate = name != NONE && obfuscatedNames[name];
+        }
+
+        /** Array elements are not addressed by dotted paths, but stay under an enclosing path's regex. */
+        private void element() {
+            node = NONE;
+            pattern = patterns[depth - 1];
+            obfuscate = false;
+        }
+
+        private void string() {
+            int start = pos;
+            try {
+                skipString();
+            } catch (TruncatedJsonException e) {
+                appendString(start, body.length(), false);
+                throw e;
+            }
+            appendString(start, pos - 1, true);
+        }
+
+        /** Appends the string value {@code body[start, end)}, which lacks its closing quote if the body was cut. */
+        private void appendString(int start, int end, boolean closed) {
+            String quote = closed ? "\"" : "";
+            if (obfuscate) {
+                out.append('"').append(REPLACEMENT).append(quote);
+                return;
+            }
+            if (pattern != null) {
+                Matcher matcher = pattern.matcher(CharBuffer.wrap(body, start, end));
+                if (matcher.find()) {
+                    out.append('"');
+                    do {
+                        matcher.appendReplacement(out, REPLACEMENT);
+                    } while (matcher.find());
+                    matcher.appendTail(out);
+                    out.append(quote);
+                    return;
+                }
+            }
+            out.append(body, start - 1, closed ? end + 1 : end);
+        }
+
+        /** Copies a number, {@code true}, {@code false} or {@code null}. */
+        private void literal() {
+            int start = pos - 1;
+            char first = body.charAt(start);
+            if (first != '-' && (first < '0' || first > '9') && first != 't' && first != 'f' && first != 'n') {
+                throw MalformedJsonException.INSTANCE;
+            }
+            while (pos < body.length()) {
+                char c = body.charAt(pos);
+                if (c == ',' || c == '}' || c == ']' || isWhitespace(c)) {
+                    break;
+                }
+                pos++;
+            }
+            out.append(body, start, pos);
+        }
+
+        /** Moves past the closing quote of the string being read; returns whether it has escapes. */
+        private boolean skipString() {
+            boolean escaped = false;
+            while (pos < body.length()) {
+                char c = body.charAt(pos++);
+                if (c == '"') {
+                    return escaped;
+                }
+                if (c == '\\') {
+                    escaped = true;
+                    pos++;
+                }
+            }
+            throw TruncatedJsonException.INSTANCE;
+        }
+
+        private String unescape(int start, int end) {
+            StringBuilder name = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                char c = body.charAt(i);
+                if (c != '\\') {
+                    name.append(c);
+                    continue;
+                }
+                char escape = body.charAt(++i);
+                switch (escape) {
+                    case 'b' -> name.append('\b');
+                    case 'f' -> name.append('\f');
+                    case 'n' -> name.append('\n');
+                    case 'r' -> name.append('\r');
+                    case 't' -> name.append('\t');
+                    case 'u' -> {
+                        if (i + 4 >= end) {
+                            throw MalformedJsonException.INSTANCE;
+                        }
+                        try {
+                            name.append((char) Integer.parseInt(body, i + 1, i + 5, 16));
+                        } catch (NumberFormatException e) {
+                            throw MalformedJsonException.INSTANCE;
+                        }
+                        i += 4;
+                    }
+                    default -> name.append(escape);
+                }
+            }
+            return name.toString();
+        }
+
+        private void push(boolean object) {
+            if (depth == objects.length) {
+                objects = Arrays.copyOf(objects, depth * 2);
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                patterns = Arrays.copyOf(patterns, depth * 2);
+            }
+            objects[depth] = object;
+            nodes[depth] = node;
+            patterns[depth] = pattern;
+            depth++;
+        }
+
+        private char next() {
+            skipWhitespace();
+            if (pos >= body.length()) {
+                throw TruncatedJsonException.INSTANCE;
+            }
+            return body.charAt(pos++);
+        }
+
+        private char peek() {
+            return pos < body.length() ? body.charAt(pos) : 0;
+        }
+
+        private void skipWhitespace() {
+            while (pos < body.length() && isWhitespace(body.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static boolean isWhitespace(char c) {
+            return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+        }
+    }
+
+    /** Open-addressing table of the names the rules mention, looked up by a region of the body without copying it. */
+    private static final class Names {
+
+        private final String[] slots;
+        private final int[] ids;
+        private final int size;
+
+        Names(Set<String> names) {
+            int capacity = Integer.highestOneBit(Math.max(names.size(), 1) * 4);
+            this.slots = new String[capacity];
+            this.ids = new int[capacity];
+            int id = 0;
+            for (String name : names) {
+                int slot = name.hashCode() & (capacity - 1);
+                while (slots[slot] != null) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                slots[slot] = name;
+                ids[slot] = id++;
+            }
+            this.size = id;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int id(String name) {
+            return id(name, 0, name.length());
+        }
+
+        /** Returns the id of {@code source[start, end)}, or {@link #NONE} when no rule mentions it. */
+        int id(CharSequence source, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + source.charAt(i);
+            }
+            int length = end - start;
+            int slot = hash & (slots.length - 1);
+            while (slots[slot] != null) {
+                String name = slots[slot];
+                if (name.length() == length && name.hashCode() == hash && regionMatches(source, start, name)) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            return NONE;
+        }
+
+        private static boolean regionMatches(CharSequence source, int start, String name) {
+            for (int i = 0; i < name.length(); i++) {
+                if (source.charAt(start + i) != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class MalformedJsonException extends RuntimeException {
+
+        private static final MalformedJsonException INSTANCE = new MalformedJsonException();
+
+        private MalformedJsonException() {
+            super("Malformed JSON body", null, false, false);
+        }
+    }
+
+    private static final class TruncatedJsonException extends RuntimeException {
+
+        private static final TruncatedJsonException INSTANCE = new TruncatedJsonException();
+
+        private TruncatedJsonException() {
+            super("Truncated JSON body", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.datadog.common.config;
+
+import com.datadog.common.persistence.RepositoryJournals;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PersistenceProperties.class)
+public class PersistenceConfig {
+
+    @Bean
+    public RepositoryJournals repositoryJournals(PersistenceProperties properties, ObjectMapper objectMapper) {
+        return new RepositoryJournals(properties, objectMapper);
+    }
+}
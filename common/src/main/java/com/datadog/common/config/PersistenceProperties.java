@@ -0,0 +1,61 @@
+package com.datadog.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "persistence")
+public class PersistenceProperties {
+
+    /** Keeps repositories in memory only when false; otherwise they are journaled to {@link #directory}. */
+    private boolean enabled = false;
+
+    private String directory = "data";
+
+    /** Upper bound on records written and forced to disk together by one group commit. */
+    private int maxBatch = 1024;
+
+    /** Forces each group commit to disk. Turning this off trades crash durability for latency. */
+    private boolean fsync = true;
+
+    /** Number of logged mutations after which a compacted snapshot is written in the background. */
+    private long snapshotEvery = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+
+    public void setMaxBatch(int maxBatch) {
+        this.maxBatch = maxBatch;
+    }
+
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    public void setFsync(boolean fsync) {
+        this.fsync = fsync;
+    }
+
+    public long getSnapshotEvery() {
+        return snapshotEvery;
+    }
+
+    public void setSnapshotEvery(long snapshotEvery) {
+        this.snapshotEvery = snapshotEvery;
+    }
+}
@@ -1,21 +1,15 @@
 package com.datadog.common.config;
 
-import com.datadog.common.constant.Constants;
+import com.datadog.common.web.PropagatedContext;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
-import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
-import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.Collections;
-import java.util.List;
-
 @Order(Ordered.HIGHEST_PRECEDENCE)
 public class PropagateHeadersInterceptor implements RequestInterceptor {
 
@@ -23,27 +17,18 @@ public class PropagateHeadersInterceptor implements RequestInterceptor {
 
     @Override
     public void apply(RequestTemplate template) {
-        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
-        if (attributes != null) {
-            HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
-            List<String> headers = Collections.list(request.getHeaderNames());
-            updateHeaders(request, headers, template);
-            template.removeHeader(Constants.CORRELATION_ID_HEADER);
-            template.header(Constants.CORRELATION_ID_HEADER, MDC.get(Constants.CORRELATION_ID_MDC_KEY));
+        // Worker threads only see the headers captured when their task was submitted, never the request itself.
+        PropagatedContext context = PropagatedContext.current();
+        if (context == null
+                && RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            context = PropagatedContext.of(attributes.getRequest());
         }
-    }
-
-    private void updateHeaders(
-            HttpServletRequest request,
-            List<String> headers,
-            RequestTemplate template
-    ) {
-        headers.forEach(header -> {
-            if (header.startsWith("x-")) {
-                log.trace("Propagating header: {} - {}", header, request.getHeader(header));
-                String value = request.getHeader(header);
+        if (context != null) {
+            context.headers().forEach((header, value) -> {
+                log.trace("Propagating header: {} - {}", header, value);
+                template.removeHeader(header);
                 template.header(header, value);
-            }
-        });
+            });
+        }
     }
 }
@@ -0,0 +1,64 @@
+package com.datadog.common.config;
+
+import com.datadog.common.web.PropagatedContext;
+import java.util.Map;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Carries the submitting thread's MDC (correlation ID, platform) and request context over to the worker thread, so
+ * logging and {@link PropagateHeadersInterceptor} behave the same as on the request thread.
+ *
+ * <p>The request context is a {@link PropagatedContext} captured when the task is submitted, not the servlet request:
+ * the container recycles the request once the response is committed, and a task may outlive it, for example a call
+ * its caller stopped waiting for. Tasks submitted from a worker pass on the context bound to it.
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    private final boolean propagateRequestContext;
+
+    public RequestContextTaskDecorator() {
+        this(true);
+    }
+
+    public RequestContextTaskDecorator(boolean propagateRequestContext) {
+        this.propagateRequestContext = propagateRequestContext;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        PropagatedContext context = propagateRequestContext ? currentRequestContext() : null;
+        return () -> {
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            PropagatedContext previousContext = PropagatedContext.bind(context);
+            setMdc(mdc);
+            try {
+                runnable.run();
+            } finally {
+                setMdc(previousMdc);
+                PropagatedContext.bind(previousContext);
+            }
+        };
+    }
+
+    private static PropagatedContext currentRequestContext() {
+        PropagatedContext bound = PropagatedContext.current();
+        if (bound != null) {
+            return bound;
+        }
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? PropagatedContext.of(attributes.getRequest())
+                : null;
+    }
+
+    private static void setMdc(Map<String, String> mdc) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        } else {
+            MDC.clear();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.datadog.common.config;
+
+import com.datadog.common.storage.EntityStores;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StorageProperties.class)
+public class StorageConfig {
+
+    @Bean
+    public EntityStores entityStores(StorageProperties properties) {
+        return new EntityStores(properties);
+    }
+}
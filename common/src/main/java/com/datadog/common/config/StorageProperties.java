@@ -0,0 +1,30 @@
+package com.datadog.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "storage")
+public class StorageProperties {
+
+    public enum Engine {
+        /** Entities kept in a {@code ConcurrentHashMap} keyed by boxed ids. */
+        MAP,
+        /** Entities kept in an open-addressing hash map keyed by primitive ids, without per-entry nodes. */
+        PRIMITIVE,
+        /** Entities decomposed into primitive-array slabs with pooled strings, materialized on every read. */
+        SLAB
+    }
+
+    /**
+     * Primary storage of every repository. Under {@link Engine#SLAB}, repositories without a slab layout use
+     * {@link Engine#PRIMITIVE}.
+     */
+    private Engine engine = Engine.PRIMITIVE;
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(Engine engine) {
+        this.engine = engine;
+    }
+}
@@ -10,4 +10,8 @@ public final class Constants {
     public static final String HEADER_API_PLATFORM = "x-user-platform";
     public static final String PLATFORM_MDC_KEY = "platform";
     public static final String DEFAULT_PLATFORM = "POSTMAN";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-After";
+    public static final String PROFILE_EVENTS_SECRET_HEADER = "X-Profile-Events-Secret";
+    public static final int MAX_PAGE_LIMIT = 1000;
+    public static final int MAX_BATCH_SIZE = 1000;
 }
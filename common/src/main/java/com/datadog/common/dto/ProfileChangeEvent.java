@@ -0,0 +1,28 @@
+package com.datadog.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfileChangeEvent {
+    private Long userId;
+    private EntityType entityType;
+    private ChangeType changeType;
+    private long version;
+
+    public enum EntityType {
+        ADDRESS,
+        EDUCATION
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,17 @@
+package com.datadog.common.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfileDto {
+    private Long userId;
+    private List<AddressDto> addresses;
+    private List<EducationDto> educations;
+}
@@ -0,0 +1,108 @@
+package com.datadog.common.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+
+/**
+ * Runs Feign requests on a shared {@link OkHttpClient}, so every call goes through its connection pool, protocol
+ * negotiation, transparent gzip and interceptors.
+ *
+ * <p>The OkHttp request is tagged with the Feign {@link Request}, which lets event listeners tag metrics with the
+ * client method instead of the expanded URL. Per-request {@link Request.Options} that differ from the client's own
+ * timeouts are applied to a derived client that still shares the pool.
+ */
+public class OkHttpFeignClient implements Client {
+
+    private final OkHttpClient delegate;
+
+    public OkHttpFeignClient(OkHttpClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        okhttp3.Response response =
+                clientFor(options).newCall(toOkHttpRequest(request)).execute();
+        return toFeignResponse(response, request);
+    }
+
+    private OkHttpClient clientFor(Request.Options options) {
+        if (delegate.connectTimeoutMillis() == options.connectTimeoutMillis()
+                && delegate.readTimeoutMillis() == options.readTimeoutMillis()
+                && delegate.followRedirects() == options.isFollowRedirects()) {
+            return delegate;
+        }
+        return delegate.newBuilder()
+                .connectTimeout(options.connectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(options.readTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .followRedirects(options.isFollowRedirects())
+                .build();
+    }
+
+    private static okhttp3.Request toOkHttpRequest(Request request) {
+        okhttp3.Request.Builder builder =
+                new okhttp3.Request.Builder().url(request.url()).tag(Request.class, request);
+
+        MediaType mediaType = null;
+        for (Map.Entry<String, Collection<String>> header : request.headers().entrySet()) {
+            String name = header.getKey();
+            if (name.equalsIgnoreCase("Content-Length")) {
+                // OkHttp derives it from the body.
+                continue;
+            }
+            for (String value : header.getValue()) {
+                if (name.equalsIgnoreCase("Content-Type")) {
+                    mediaType = MediaType.parse(value);
+                }
+                builder.addHeader(name, value);
+            }
+        }
+
+        Request.HttpMethod method = request.httpMethod();
+        byte[] body = request.body();
+        RequestBody requestBody = null;
+        // OkHttp rejects bodies on GET and HEAD, and requires one on POST, PUT and PATCH.
+        if (body != null && method != Request.HttpMethod.GET && method != Request.HttpMethod.HEAD) {
+            requestBody = RequestBody.create(body, mediaType);
+        } else if (method == Request.HttpMethod.POST
+                || method == Request.HttpMethod.PUT
+                || method == Request.HttpMethod.PATCH) {
+            requestBody = RequestBody.create(new byte[0], mediaType);
+        }
+        return builder.method(method.name(), requestBody).build();
+    }
+
+    private static Response toFeignResponse(okhttp3.Response response, Request request) {
+        ResponseBody body = response.body();
+        Response.Builder builder = Response.builder()
+                .status(response.code())
+                .reason(response.message())
+                .request(request)
+                .headers(toMap(response.headers()));
+        if (body != null) {
+            long length = body.contentLength();
+            builder.body(body.byteStream(), length >= 0 && length <= Integer.MAX_VALUE ? (int) length : null);
+        }
+        return builder.build();
+    }
+
+    private static Map<String, Collection<String>> toMap(Headers headers) {
+        Map<String, Collection<String>> map = new LinkedHashMap<>();
+        for (String name : headers.names()) {
+            map.put(name, new ArrayList<>(headers.values(name)));
+        }
+        return map;
+    }
+}
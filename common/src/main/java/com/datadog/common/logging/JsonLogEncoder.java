@@ -0,0 +1,194 @@
+package com.datadog.common.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.datadog.common.constant.Constants;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Encodes each event as one line of JSON: {@code @timestamp}, {@code level}, {@code thread}, {@code logger},
+ * {@code message}, the configured MDC keys as top-level fields ({@code correlationId} and {@code platform} by
+ * default) and {@code stack_trace} when there is a throwable.
+ *
+ * <p>The event is written as UTF-8 straight into a buffer the encoder reuses, so the only allocation per event is
+ * the returned array; the timestamp up to the second is formatted once per second. The buffer makes
+ * {@link #encode} synchronized, which costs nothing behind an {@code AsyncAppender}, whose worker is the only caller.
+ */
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final DateTimeFormatter SECONDS =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.").withZone(ZoneOffset.UTC);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private String[] mdcKeys = {Constants.CORRELATION_ID_MDC_KEY, Constants.PLATFORM_MDC_KEY};
+    private byte[] buffer = new byte[1024];
+    private int count;
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedTimestamp;
+
+    /** Comma-separated MDC keys written as top-level fields; keys missing from an event's MDC are left out. */
+    public void setMdcKeys(String mdcKeys) {
+        this.mdcKeys = Arrays.stream(mdcKeys.split(","))
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public synchronized byte[] encode(ILoggingEvent event) {
+        count = 0;
+        raw("{\"@timestamp\":\"");
+        timestamp(event.getTimeStamp());
+        raw("\"");
+        field("level", event.getLevel().toString());
+        field("thread", event.getThreadName());
+        field("logger", event.getLoggerName());
+        field("message", event.getFormattedMessage());
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        for (String key : mdcKeys) {
+            String value = mdc.get(key);
+            if (value != null) {
+                field(key, value);
+            }
+        }
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            field("stack_trace", ThrowableProxyUtil.asString(throwable));
+        }
+        raw("}\n");
+        byte[] encoded = Arrays.copyOf(buffer, count);
+        if (buffer.length > MAX_RETAINED_BUFFER) {
+            // Do not hold on to the buffer a large stack trace needed.
+            buffer = new byte[1024];
+        }
+        return encoded;
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    private void timestamp(long millis) {
+        long second = Math.floorDiv(millis, 1000);
+        if (second != cachedSecond) {
+            cachedTimestamp = SECONDS.format(Instant.ofEpochSecond(second));
+            cachedSecond = second;
+        }
+        raw(cachedTimestamp);
+        int fraction = (int) Math.floorMod(millis, 1000);
+        ensureCapacity(4);
+        buffer[count++] = (byte) ('0' + fraction / 100);
+        buffer[count++] = (byte) ('0' + fraction / 10 % 10);
+        buffer[count++] = (byte) ('0' + fraction % 10);
+        buffer[count++] = 'Z';
+    }
+
+    private void field(String name, String value) {
+        raw(",\"");
+        raw(name);
+        raw("\":\"");
+        escaped(value);
+        raw("\"");
+    }
+
+    /** Appends ASCII text that needs no escaping. */
+    private void raw(String text) {
+        ascii(text, 0, text.length());
+    }
+
+    /** Appends a JSON string body as UTF-8. */
+    private void escaped(String text) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            // Log lines are mostly printable ASCII, which is copied in runs.
+            int plain = i;
+            for (char c;
+                    plain < length && (c = text.charAt(plain)) >= 0x20 && c < 0x80 && c != '"' && c != '\\';
+                    plain++) {}
+            ascii(text, i, plain);
+            if (plain == length) {
+                return;
+            }
+            i = plain;
+            char c = text.charAt(i);
+            // Up to six bytes: an escaped control character, or four for a surrogate pair.
+            ensureCapacity(6);
+            if (c == '"' || c == '\\') {
+                buffer[count++] = '\\';
+                buffer[count++] = (byte) c;
+            } else if (c < 0x20) {
+                control(c);
+            } else if (c < 0x800) {
+                buffer[count++] = (byte) (0xc0 | c >> 6);
+                buffer[count++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer[count++] = (byte) (0xf0 | codePoint >> 18);
+                buffer[count++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                buffer[count++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                buffer[count++] = (byte) (0x80 | codePoint & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                buffer[count++] = '?';
+            } else {
+                buffer[count++] = (byte) (0xe0 | c >> 12);
+                buffer[count++] = (byte) (0x80 | c >> 6 & 0x3f);
+                buffer[count++] = (byte) (0x80 | c & 0x3f);
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Appends chars {@code from} to {@code to} of {@code text}, which must all be ASCII: the deprecated
+     * {@link String#getBytes(int, int, byte[], int)} keeps the low byte of each char, which for ASCII is its UTF-8
+     * encoding, and copies them in bulk.
+     */
+    @SuppressWarnings("deprecation")
+    private void ascii(String text, int from, int to) {
+        ensureCapacity(to - from);
+        text.getBytes(from, to, buffer, count);
+        count += to - from;
+    }
+
+    private void control(char c) {
+        buffer[count++] = '\\';
+        switch (c) {
+            case '\n' -> buffer[count++] = 'n';
+            case '\r' -> buffer[count++] = 'r';
+            case '\t' -> buffer[count++] = 't';
+            case '\b' -> buffer[count++] = 'b';
+            case '\f' -> buffer[count++] = 'f';
+            default -> {
+                buffer[count++] = 'u';
+                buffer[count++] = '0';
+                buffer[count++] = '0';
+                buffer[count++] = HEX[c >> 4];
+                buffer[count++] = HEX[c & 0xf];
+            }
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (count + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(count + extra, buffer.length * 2));
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.datadog.common.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link RepositoryJournal} backed by a {@link WriteAheadLog} of JSON-encoded entities plus periodic
+ * {@link Snapshots}. A snapshot is taken in the background every {@code snapshotEvery} mutations and on close, so
+ * recovery replays at most that many log records regardless of total history.
+ *
+ * <p>Snapshots are fuzzy: the log is rotated first and the live maps are copied afterwards, so the copy may already
+ * contain some later mutations. Log records hold full entity state keyed by id, so replaying them over such a copy
+ * converges on the same result. The rotation waits for mutations in {@link #mutate} to finish: a record is logged
+ * before the store publishes its entity, and one logged before the rotation but missing from the copy would be lost.
+ *
+ * <p>Recovery maps the snapshot rather than decoding it: the repository is ready as soon as the log tail has been
+ * replayed, point lookups are served from the mapped file, and a background thread loads the snapshot into the
+ * repository's maps. Records the tail already touched are skipped, since the tail holds their newer state.
+ *
+ * <p>If that load fails, for example on a corrupt record, the repository stays cold: lookups by id keep being served
+ * from the mapped file, while saves, deletes and whole-repository reads fail until the snapshot is repaired and the
+ * service restarted. The log segments the snapshot replaced are gone, so there is nothing to replay instead.
+ */
+public class FileRepositoryJournal<T> implements RepositoryJournal<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(FileRepositoryJournal.class);
+
+    private final Path directory;
+    private final String name;
+    private final Class<T> type;
+    private final ObjectMapper objectMapper;
+    private final Supplier<Stream<T>> contents;
+    private final ToLongFunction<T> idOf;
+    private final LongSupplier nextId;
+    private final int maxBatch;
+    private final boolean fsync;
+    private final long snapshotEvery;
+    private final Executor snapshotExecutor;
+
+    private final ReadWriteLock mutations = new ReentrantReadWriteLock();
+    private final AtomicLong sinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private final CountDownLatch warmed = new CountDownLatch(1);
+    private volatile boolean warm;
+    private volatile RuntimeException warmFailure;
+    private volatile MappedSnapshot coldSnapshot;
+    private volatile Set<Long> touchedByLog = Set.of();
+    private WriteAheadLog wal;
+
+    public FileRepositoryJournal(
+            Path directory,
+            String name,
+            Class<T> type,
+            ObjectMapper objectMapper,
+            Supplier<Stream<T>> contents,
+            ToLongFunction<T> idOf,
+            LongSupplier nextId,
+            int maxBatch,
+            boolean fsync,
+            long snapshotEvery,
+            Executor snapshotExecutor) {
+        this.directory = directory;
+        this.name = name;
+        this.type = type;
+        this.objectMapper = objectMapper;
+        this.contents = contents;
+        this.idOf = idOf;
+        this.nextId = nextId;
+        this.maxBatch = maxBatch;
+        this.fsync = fsync;
+        this.snapshotEvery = snapshotEvery;
+        this.snapshotExecutor = snapshotExecutor;
+    }
+
+    @Override
+    public long recover(Consumer<T> onSave, LongConsumer onDelete) {
+        long started = System.nanoTime();
+        try {
+            MappedSnapshot snapshot = MappedSnapshot.openLatest(directory, name).orElse(null);
+            Snapshots.Header header = snapshot != null ? snapshot.header() : new Snapshots.Header(0, 1);
+            long[] highestId = {snapshot != null ? snapshot.maxId() : 0};
+            Set<Long> touched = new HashSet<>();
+            long[] replayed = {0};
+            wal = WriteAheadLog.open(directory, name, header.lsn(), maxBatch, fsync, entry -> {
+                if (entry.type() == WriteAheadLog.DELETE) {
+                    onDelete.accept(entry.id());
+                } else {
+                    onSave.accept(decode(entry.payload()));
+                }
+                highestId[0] = Math.max(highestId[0], entry.id());
+                touched.add(entry.id());
+                replayed[0]++;
+            });
+            sinceSnapshot.set(replayed[0]);
+            touchedByLog = touched;
+            log.info(
+                    "Recovered {} in {} ms from snapshot at lsn {} ({} records) and {} log records",
+                    name,
+                    (System.nanoTime() - started) / 1_000_000,
+                    header.lsn(),
+                    snapshot != null ? snapshot.count() : 0,
+                    replayed[0]);
+            if (snapshot == null) {
+                markWarm();
+            } else {
+                coldSnapshot = snapshot;
+                Thread.ofPlatform().name("warm-" + name).daemon().start(() -> warm(snapshot, onSave));
+            }
+            return Math.max(header.nextId(), highestId[0] + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover " + name + " from " + directory, e);
+        }
+    }
+
+    @Override
+    public boolean isWarm() {
+        return warm;
+    }
+
+    @Override
+    public void awaitWarm() {
+        if (warm) {
+            return;
+        }
+        try {
+            warmed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading " + name, e);
+        }
+        if (warmFailure != null) {
+            throw warmFailure;
+        }
+    }
+
+    @Override
+    public Optional<T> findInSnapshot(long id) {
+        MappedSnapshot snapshot = coldSnapshot;
+        if (snapshot == null || touchedByLog.contains(id)) {
+            return Optional.empty();
+        }
+        try {
+            return snapshot.find(id).map(this::decode);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + name + " record " + id, e);
+        }
+    }
+
+    @Override
+    public void mutate(Runnable mutation) {
+        Lock lock = mutations.readLock();
+        lock.lock();
+        try {
+            mutation.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void logSave(long id, T entity) {
+        wal.append(WriteAheadLog.SAVE, id, encode(entity));
+        afterAppend();
+    }
+
+    @Override
+    public void logDelete(long id) {
+        wal.append(WriteAheadLog.DELETE, id, null);
+        afterAppend();
+    }
+
+    @Override
+    public void sync() {
+        wal.sync();
+    }
+
+    @Override
+    public void close() {
+        if (wal == null) {
+            return;
+        }
+        if (sinceSnapshot.get() > 0 && snapshotRunning.compareAndSet(false, true)) {
+            snapshot();
+        }
+        wal.close();
+    }
+
+    private void warm(MappedSnapshot snapshot, Consumer<T> onSave) {
+        long started = System.nanoTime();
+        try {
+            snapshot.forEach((id, payload) -> {
+                if (!touchedByLog.contains(id)) {
+                    onSave.accept(decode(payload));
+                }
+            });
+            log.info(
+                    "Loaded {} {} snapshot records into memory in {} ms",
+                    snapshot.count(),
+                    name,
+                    (System.nanoTime() - started) / 1_000_000);
+            markWarm();
+        } catch (IOException | RuntimeException e) {
+            log.error(
+                    "Failed to load {} snapshot: lookups by id are served from the mapped file, and saves, deletes"
+                            + " and full reads fail until it is repaired and the service restarted: {}",
+                    name,
+                    e.getMessage());
+            warmFailure = new IllegalStateException(
+                    "Failed to load " + name + " snapshot; only lookups by id are available until restart", e);
+            warmed.countDown();
+        }
+    }
+
+    private void markWarm() {
+        warm = true;
+        coldSnapshot = null;
+        warmed.countDown();
+    }
+
+    private void afterAppend() {
+        if (sinceSnapshot.incrementAndGet() >= snapshotEvery && snapshotRunning.compareAndSet(false, true)) {
+            snapshotExecutor.execute(this::snapshot);
+        }
+    }
+
+    private void snapshot() {
+        long started = System.nanoTime();
+        try {
+            sinceSnapshot.set(0);
+            long lsn = rotate();
+            Snapshots.Header header = new Snapshots.Header(lsn, nextId.getAsLong());
+            try (Stream<T> entities = contents.get()) {
+                Iterator<Snapshots.Record> records = entities.map(
+                                entity -> new Snapshots.Record(idOf.applyAsLong(entity), encode(entity)))
+                        .iterator();
+                Path written = Snapshots.write(directory, name, header, records);
+                Snapshots.deleteOlderThan(directory, name, written);
+            }
+            wal.deleteSegmentsBefore(lsn + 1);
+            log.info("Wrote {} snapshot at lsn {} in {} ms", name, lsn, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write {} snapshot, keeping the full log: {}", name, e.getMessage());
+        } finally {
+            snapshotRunning.set(false);
+        }
+    }
+
+    private long rotate() {
+        Lock lock = mutations.writeLock();
+        lock.lock();
+        try {
+            return wal.rotate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] encode(T entity) {
+        try {
+            return objectMapper.writeValueAsBytes(entity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode " + name + " record", e);
+        }
+    }
+
+    private T decode(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode " + name + " record", e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.datadog.common.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only, memory-mapped view of a {@link Snapshots} file. Opening validates the header and the id index, which
+ * costs time proportional to the index rather than to the data, so a repository can serve point lookups by binary
+ * search over the index while its heap maps are still being populated. Record checksums are verified as each
+ * record is read.
+ *
+ * <p>Files are mapped as regions of 1 GB each; reads that straddle two regions are stitched together.
+ */
+public final class MappedSnapshot {
+
+    private static final int REGION_SHIFT = 30;
+    private static final long REGION_MASK = (1L << REGION_SHIFT) - 1;
+
+    private final Path path;
+    private final MappedByteBuffer[] regions;
+    private final Snapshots.Header header;
+    private final long count;
+    private final long indexOffset;
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void accept(long id, byte[] payload) throws IOException;
+    }
+
+    private MappedSnapshot(Path path, MappedByteBuffer[] regions) throws IOException {
+        this.path = path;
+        this.regions = regions;
+        long size = size();
+        if (size < Snapshots.HEADER_BYTES || getInt(0) != Snapshots.MAGIC) {
+            throw new IOException("Not a snapshot: " + path);
+        }
+        if (getInt(4) != Snapshots.VERSION) {
+            throw new IOException("Unsupported snapshot version " + getInt(4) + ": " + path);
+        }
+        byte[] head = new byte[Snapshots.HEADER_BYTES - Integer.BYTES];
+        get(0, head);
+        if (crc(head) != getInt(head.length)) {
+            throw new IOException("Corrupt snapshot header: " + path);
+        }
+        this.header = new Snapshots.Header(getLong(8), getLong(16));
+        this.count = getLong(24);
+        this.indexOffset = getLong(32);
+        if (indexOffset + count * Snapshots.INDEX_ENTRY_BYTES != size) {
+            throw new IOException("Truncated snapshot: " + path);
+        }
+        if (indexCrc() != getInt(40)) {
+            throw new IOException("Corrupt snapshot index: " + path);
+        }
+    }
+
+    /** Maps the newest snapshot for {@code name}, if there is one. */
+    public static Optional<MappedSnapshot> openLatest(Path directory, String name) throws IOException {
+        Optional<Path> latest = Snapshots.latest(directory, name);
+        return latest.isPresent() ? Optional.of(open(latest.get())) : Optional.empty();
+    }
+
+    public static MappedSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int regionCount = (int) ((size + REGION_MASK) >>> REGION_SHIFT);
+            MappedByteBuffer[] regions = new MappedByteBuffer[Math.max(regionCount, 1)];
+            for (int i = 0; i < regions.length; i++) {
+                long start = (long) i << REGION_SHIFT;
+                regions[i] =
+                        channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, 1L << REGION_SHIFT));
+            }
+            return new MappedSnapshot(path, regions);
+        }
+    }
+
+    public Snapshots.Header header() {
+        return header;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /** Highest id in the snapshot, or 0 if it is empty. */
+    public long maxId() {
+        return count == 0 ? 0 : idAt(count - 1);
+    }
+
+    /** Looks up one record by binary search over the id index. */
+    public Optional<byte[]> find(long id) throws IOException {
+        long low = 0;
+        long high = count - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            long midId = idAt(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return Optional.of(payloadAt(getLong(indexOffset + mid * Snapshots.INDEX_ENTRY_BYTES + Long.BYTES)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Visits every record in ascending id order. */
+    public void forEach(RecordHandler handler) throws IOException {
+        long offset = Snapshots.HEADER_BYTES;
+        for (long i = 0; i < count; i++) {
+            byte[] payload = payloadAt(offset);
+            handler.accept(getLong(offset + Integer.BYTES * 2), payload);
+            offset += Snapshots.RECORD_HEADER_BYTES + payload.length;
+        }
+    }
+
+    private long idAt(long position) {
+        return getLong(indexOffset + position * Snapshots.INDEX_ENTRY_BYTES);
+    }
+
+    private byte[] payloadAt(long offset) throws IOException {
+        int length = getInt(offset);
+        if (length < 0 || offset + Snapshots.RECORD_HEADER_BYTES + length > indexOffset) {
+            throw new IOException("Corrupt record at offset " + offset + " in " + path);
+        }
+        byte[] payload = new byte[length];
+        get(offset + Snapshots.RECORD_HEADER_BYTES, payload);
+        if (crc(payload) != getInt(offset + Integer.BYTES)) {
+            throw new IOException("Checksum mismatch for record at offset " + offset + " in " + path);
+        }
+        return payload;
+    }
+
+    private int indexCrc() {
+        CRC32 crc = new CRC32();
+        for (long position = indexOffset; position < size(); ) {
+            ByteBuffer region = regions[(int) (position >>> REGION_SHIFT)];
+            int start = (int) (position & REGION_MASK);
+            int length = (int) Math.min(region.limit() - start, size() - position);
+            crc.update(region.slice(start, length));
+            position += length;
+        }
+        return (int) crc.getValue();
+    }
+
+    private long size() {
+        long size = 0;
+        for (MappedByteBuffer region : regions) {
+            size += region.limit();
+        }
+        return size;
+    }
+
+    private int getInt(long position) {
+        ByteBuffer region = regions[(int) (position >>> REGION_SHIFT)];
+        int offset = (int) (position & REGION_MASK);
+        if (offset + Integer.BYTES <= region.limit()) {
+            return region.getInt(offset);
+        }
+        byte[] bytes = new byte[Integer.BYTES];
+        get(position, bytes);
+        return ByteBuffer.wrap(bytes).getInt();
+    }
+
+    private long getLong(long position) {
+        ByteBuffer region = regions[(int) (position >>> REGION_SHIFT)];
+        int offset = (int) (position & REGION_MASK);
+        if (offset + Long.BYTES <= region.limit()) {
+            return region.getLong(offset);
+        }
+        byte[] bytes = new byte[Long.BYTES];
+        get(position, bytes);
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    private void get(long position, byte[] destination) {
+        int copied = 0;
+        while (copied < destination.length) {
+            ByteBuffer region = regions[(int) (position >>> REGION_SHIFT)];
+            int offset = (int) (position & REGION_MASK);
+            int length = Math.min(destination.length - copied, region.limit() - offset);
+            region.get(offset, destination, copied, length);
+            copied += length;
+            position += length;
+        }
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,97 @@
+package com.datadog.common.persistence;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * Durability hook for an in-memory repository. Repositories log each mutation while holding the per-id lock of
+ * their primary map, so the log order matches the order in which the map changed, and call {@link #sync()} after
+ * releasing it to wait for the mutation to reach disk. The whole store write or remove runs inside {@link #mutate}.
+ */
+public interface RepositoryJournal<T> extends AutoCloseable {
+
+    /**
+     * Rebuilds the repository from the latest snapshot and the log written after it. The log is replayed before
+     * this returns; snapshot records may be handed to {@code onSave} afterwards from a background thread, until
+     * {@link #isWarm()} turns true.
+     *
+     * @return the id generator value to resume from, or {@code 1} if nothing was recorded
+     */
+    long recover(Consumer<T> onSave, LongConsumer onDelete);
+
+    /** True once every recovered record has been handed to the repository. */
+    boolean isWarm();
+
+    /** Blocks until the repository is warm. Anything that needs complete maps or indexes calls this first. */
+    void awaitWarm();
+
+    /** While warming, reads a record that may not have been handed to the repository yet. */
+    Optional<T> findInSnapshot(long id);
+
+    /**
+     * Runs one store write or remove whose callback logs the mutation. Snapshots rotate the log only between
+     * mutations, so a mutation logged before a rotation is visible in the maps and indexes the snapshot then copies:
+     * its log record is replaced by the snapshot, and is not replayed over it.
+     */
+    default void mutate(Runnable mutation) {
+        mutation.run();
+    }
+
+    void logSave(long id, T entity);
+
+    void logDelete(long id);
+
+    /** Blocks until every mutation logged so far is durable. */
+    void sync();
+
+    @Override
+    void close();
+
+    /** Looks {@code id} up in the repository's map, falling back to the snapshot while the map is still warming. */
+    default Optional<T> lookup(Long id, Function<Long, T> map) {
+        T entity = map.apply(id);
+        if (entity != null || isWarm()) {
+            return Optional.ofNullable(entity);
+        }
+        Optional<T> cold = findInSnapshot(id);
+        // Warming may have finished, and released the snapshot, between the two reads of the map.
+        return cold.isPresent() ? cold : Optional.ofNullable(map.apply(id));
+    }
+
+    /** Journal for the default in-memory mode: nothing is recorded and recovery starts empty. */
+    static <T> RepositoryJournal<T> none() {
+        return new RepositoryJournal<>() {
+            @Override
+            public long recover(Consumer<T> onSave, LongConsumer onDelete) {
+                return 1;
+            }
+
+            @Override
+            public boolean isWarm() {
+                return true;
+            }
+
+            @Override
+            public void awaitWarm() {}
+
+            @Override
+            public Optional<T> findInSnapshot(long id) {
+                return Optional.empty();
+            }
+
+            @Override
+            public void logSave(long id, T entity) {}
+
+            @Override
+            public void logDelete(long id) {}
+
+            @Override
+            public void sync() {}
+
+            @Override
+            public void close() {}
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.datadog.common.persistence;
+
+import com.datadog.common.config.PersistenceProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Hands out a {@link RepositoryJournal} per repository: a no-op journal in the default in-memory mode, or a
+ * {@link FileRepositoryJournal} under {@code persistence.directory} when {@code persistence.enabled} is set.
+ * Closing the factory writes a final snapshot for every journal so the next start replays nothing.
+ */
+public class RepositoryJournals implements AutoCloseable {
+
+    private final PersistenceProperties properties;
+    private final ObjectMapper objectMapper;
+    private final List<RepositoryJournal<?>> journals = new CopyOnWriteArrayList<>();
+    private final ExecutorService snapshotExecutor;
+
+    public RepositoryJournals(PersistenceProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.snapshotExecutor = properties.isEnabled()
+                ? Executors.newSingleThreadExecutor(
+                        Thread.ofPlatform().name("repository-snapshot").daemon().factory())
+                : null;
+    }
+
+    public <T> RepositoryJournal<T> open(
+            String name, Class<T> type, Supplier<Stream<T>> contents, ToLongFunction<T> idOf, LongSupplier nextId) {
+        if (!properties.isEnabled()) {
+            return RepositoryJournal.none();
+        }
+        RepositoryJournal<T> journal = new FileRepositoryJournal<>(
+                Path.of(properties.getDirectory()),
+                name,
+                type,
+                objectMapper,
+                contents,
+                idOf,
+                nextId,
+                properties.getMaxBatch(),
+                properties.isFsync(),
+                properties.getSnapshotEvery(),
+                snapshotExecutor);
+        journals.add(journal);
+        return journal;
+    }
+
+    @Override
+    public void close() {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdown();
+            try {
+                snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        journals.forEach(RepositoryJournal::close);
+    }
+}
@@ -0,0 +1,168 @@
+package com.datadog.common.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Compacted snapshots of a repository: the live records as of a log sequence number, so recovery only replays the
+ * log written after it. Snapshots are read through {@link MappedSnapshot}.
+ *
+ * <p>Layout (version 2, big-endian), designed to be memory-mapped and searched without decoding:
+ *
+ * <pre>
+ * header  magic (int), version (int), lsn (long), next id (long), record count (long), index offset (long),
+ *         index CRC32 (int), header CRC32 (int)
+ * records length (int), CRC32 of the payload (int), id (long), payload   -- one per entity, ascending id
+ * index   id (long), record offset (long)                              -- one per record, ascending id
+ * </pre>
+ *
+ * Snapshots are written to a temporary file, forced and atomically renamed, so a visible snapshot is always
+ * complete.
+ */
+public final class Snapshots {
+
+    static final int MAGIC = 0x44445348;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 48;
+    static final int RECORD_HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    static final int INDEX_ENTRY_BYTES = Long.BYTES * 2;
+    static final String SUFFIX = ".snapshot";
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private Snapshots() {}
+
+    public record Header(long lsn, long nextId) {}
+
+    public record Record(long id, byte[] payload) {}
+
+    /** Writes {@code records}, which must be in ascending id order, as the snapshot for {@code header.lsn()}. */
+    public static Path write(Path directory, String name, Header header, Iterator<Record> records) throws IOException {
+        Path target = directory.resolve(String.format("%s-%020d%s", name, header.lsn(), SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        Path indexTemp = directory.resolve(target.getFileName() + ".idx.tmp");
+        try (FileChannel channel = FileChannel.open(
+                        temp,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                FileChannel indexChannel = FileChannel.open(
+                        indexTemp,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.DELETE_ON_CLOSE)) {
+            OutputStream stream = Channels.newOutputStream(channel.position(HEADER_BYTES));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, BUFFER_BYTES));
+            DataOutputStream index = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(indexChannel), BUFFER_BYTES));
+            CRC32 crc = new CRC32();
+            CRC32 indexCrc = new CRC32();
+            ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+            long offset = HEADER_BYTES;
+            long count = 0;
+            long previousId = Long.MIN_VALUE;
+            while (records.hasNext()) {
+                Record record = records.next();
+                if (record.id() <= previousId) {
+                    throw new IOException("Snapshot records must be in ascending id order: " + record.id());
+                }
+                crc.reset();
+                crc.update(record.payload());
+                out.writeInt(record.payload().length);
+                out.writeInt((int) crc.getValue());
+                out.writeLong(record.id());
+                out.write(record.payload());
+
+                indexEntry.clear();
+                indexEntry.putLong(record.id()).putLong(offset);
+                indexCrc.update(indexEntry.array());
+                index.write(indexEntry.array());
+
+                offset += RECORD_HEADER_BYTES + record.payload().length;
+                previousId = record.id();
+                count++;
+            }
+            out.flush();
+            index.flush();
+            long indexBytes = indexChannel.position();
+            for (long copied = 0; copied < indexBytes; ) {
+                copied += indexChannel.transferTo(copied, indexBytes - copied, channel);
+            }
+
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES);
+            head.putInt(MAGIC).putInt(VERSION).putLong(header.lsn()).putLong(header.nextId());
+            head.putLong(count).putLong(offset).putInt((int) indexCrc.getValue());
+            crc.reset();
+            crc.update(head.array(), 0, head.position());
+            head.putInt((int) crc.getValue()).flip();
+            while (head.hasRemaining()) {
+                channel.write(head, head.position());
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(directory);
+        return target;
+    }
+
+    /** Deletes every snapshot for {@code name} other than {@code keep}, along with abandoned temporary files. */
+    public static void deleteOlderThan(Path directory, String name, Path keep) throws IOException {
+        for (Path snapshot : list(directory, name)) {
+            if (!snapshot.equals(keep)) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path temp :
+                    files.filter(path -> isSnapshot(path, name, ".tmp")).toList()) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    static Optional<Path> latest(Path directory, String name) throws IOException {
+        List<Path> snapshots = list(directory, name);
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.get(snapshots.size() - 1));
+    }
+
+    static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not every platform allows opening a directory; the rename itself is still atomic there.
+        }
+    }
+
+    private static List<Path> list(Path directory, String name) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> isSnapshot(path, name, SUFFIX))
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    private static boolean isSnapshot(Path path, String name, String suffix) {
+        String fileName = path.getFileName().toString();
+        return fileName.startsWith(name + "-") && fileName.endsWith(suffix);
+    }
+}
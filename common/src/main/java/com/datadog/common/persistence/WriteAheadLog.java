@@ -0,0 +1,372 @@
+package com.datadog.common.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only, checksummed log of repository mutations, split into segment files named after the sequence number
+ * (LSN) of their first record.
+ *
+ * <p>Any number of threads may append; a single writer thread drains whatever has queued up, writes it with one
+ * gathering write and forces it to disk once (group commit), so concurrent callers share an fsync instead of each
+ * paying for their own. Callers that need durability wait in {@link #sync()}.
+ *
+ * <p>Record layout: body length (int), CRC32 of the body (int), then the body: lsn (long), type (byte), id (long),
+ * payload. A torn record at the end of the newest segment is truncated on open; corruption anywhere else stops
+ * startup rather than silently dropping acknowledged writes.
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    public static final byte SAVE = 1;
+    public static final byte DELETE = 2;
+
+    private static final byte ROTATE = -1;
+    private static final byte CLOSE = -2;
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int FIXED_BODY_BYTES = Long.BYTES + Byte.BYTES + Long.BYTES;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+    private static final String SEGMENT_SUFFIX = ".wal";
+
+    private final Path directory;
+    private final String name;
+    private final int maxBatch;
+    private final boolean fsync;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    // Appends take this lock only to assign the LSN and enqueue, so queue order is LSN order.
+    private final Object appendLock = new Object();
+    private long nextLsn;
+    private boolean closed;
+
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+    private long durableLsn;
+    private volatile IOException failure;
+
+    // Owned by the writer thread once it has started.
+    private FileChannel segment;
+
+    public record Entry(long lsn, byte type, long id, byte[] payload) {}
+
+    private record Pending(long lsn, byte type, long id, byte[] payload, CompletableFuture<Void> done) {}
+
+    private WriteAheadLog(Path directory, String name, int maxBatch, boolean fsync, long nextLsn) throws IOException {
+        this.directory = directory;
+        this.name = name;
+        this.maxBatch = maxBatch;
+        this.fsync = fsync;
+        this.nextLsn = nextLsn;
+        this.durableLsn = nextLsn - 1;
+        this.segment = openSegment(nextLsn);
+        this.writer = Thread.ofPlatform().name("wal-" + name).daemon().start(this::writeLoop);
+    }
+
+    /**
+     * Replays every record with an LSN greater than {@code afterLsn} into {@code replay}, in order, and opens the log
+     * for appending after the last valid record.
+     */
+    public static WriteAheadLog open(
+            Path directory, String name, long afterLsn, int maxBatch, boolean fsync, Consumer<Entry> replay)
+            throws IOException {
+        Files.createDirectories(directory);
+        long lastLsn = afterLsn;
+        List<Path> segments = segments(directory, name);
+        for (int i = 0; i < segments.size(); i++) {
+            lastLsn = Math.max(lastLsn, replay(segments.get(i), i == segments.size() - 1, afterLsn, replay));
+        }
+        return new WriteAheadLog(directory, name, maxBatch, fsync, lastLsn + 1);
+    }
+
+    /** Queues a record and returns its LSN. The record is durable once {@link #sync()} returns. */
+    public long append(byte type, long id, byte[] payload) {
+        synchronized (appendLock) {
+            if (closed) {
+                throw new IllegalStateException("Write-ahead log is closed: " + name);
+            }
+            checkFailure();
+            long lsn = nextLsn++;
+            queue.add(new Pending(lsn, type, id, payload, null));
+            return lsn;
+        }
+    }
+
+    /** Blocks until every record appended before this call has been written and forced to disk. */
+    public void sync() {
+        long target;
+        synchronized (appendLock) {
+            target = nextLsn - 1;
+        }
+        awaitDurable(target);
+    }
+
+    private void awaitDurable(long lsn) {
+        durableLock.lock();
+        try {
+            while (durableLsn < lsn) {
+                checkFailure();
+                durableAdvanced.awaitUninterruptibly();
+            }
+        } finally {
+            durableLock.unlock();
+        }
+        checkFailure();
+    }
+
+    /**
+     * Starts a new segment. Every record with an LSN up to the returned value lives in older segments, which can be
+     * deleted with {@link #deleteSegmentsBefore(long)} once a snapshot covers them.
+     */
+    public long rotate() {
+        CompletableFuture<Void> rotated = new CompletableFuture<>();
+        long lastLsn;
+        synchronized (appendLock) {
+            checkFailure();
+            lastLsn = nextLsn - 1;
+            queue.add(new Pending(nextLsn, ROTATE, 0, null, rotated));
+        }
+        rotated.join();
+        return lastLsn;
+    }
+
+    /** Deletes segments whose records all have an LSN below {@code lsn}. The current segment is never deleted. */
+    public void deleteSegmentsBefore(long lsn) throws IOException {
+        List<Path> segments = segments(directory, name);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstLsn(segments.get(i + 1)) <= lsn) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        CompletableFuture<Void> stopped = new CompletableFuture<>();
+        synchronized (appendLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(new Pending(nextLsn, CLOSE, 0, null, stopped));
+        }
+        stopped.join();
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            running = writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private boolean writeBatch(List<Pending> batch) {
+        if (failure != null) {
+            return rejectBatch(batch);
+        }
+        List<ByteBuffer> buffers = new ArrayList<>(batch.size());
+        long lastLsn = -1;
+        try {
+            for (Pending pending : batch) {
+                if (pending.type() == ROTATE || pending.type() == CLOSE) {
+                    lastLsn = flush(buffers, lastLsn);
+                    segment.close();
+                    if (pending.type() == CLOSE) {
+                        pending.done().complete(null);
+                        return false;
+                    }
+                    segment = openSegment(pending.lsn());
+                    pending.done().complete(null);
+                } else {
+                    buffers.add(encode(pending));
+                    lastLsn = pending.lsn();
+                }
+            }
+            flush(buffers, lastLsn);
+        } catch (IOException e) {
+            log.error("Write-ahead log {} failed, rejecting further writes: {}", name, e.getMessage());
+            failure = e;
+            signalDurable(durableLsn);
+            return rejectBatch(batch);
+        }
+        return true;
+    }
+
+    // After a failure nothing more is written, but the writer keeps draining so rotate() and close() return.
+    private boolean rejectBatch(List<Pending> batch) {
+        boolean running = true;
+        for (Pending pending : batch) {
+            if (pending.type() == CLOSE) {
+                pending.done().complete(null);
+                running = false;
+            } else if (pending.done() != null) {
+                pending.done().completeExceptionally(failure);
+            }
+        }
+        return running;
+    }
+
+    private long flush(List<ByteBuffer> buffers, long lastLsn) throws IOException {
+        if (buffers.isEmpty()) {
+            return lastLsn;
+        }
+        ByteBuffer[] pending = buffers.toArray(ByteBuffer[]::new);
+        while (pending[pending.length - 1].hasRemaining()) {
+            segment.write(pending);
+        }
+        if (fsync) {
+            segment.force(false);
+        }
+        buffers.clear();
+        signalDurable(lastLsn);
+        return lastLsn;
+    }
+
+    private void signalDurable(long lsn) {
+        durableLock.lock();
+        try {
+            durableLsn = Math.max(durableLsn, lsn);
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log failed: " + name, failure);
+        }
+    }
+
+    private FileChannel openSegment(long firstLsn) throws IOException {
+        FileChannel channel = FileChannel.open(
+                directory.resolve(segmentName(name, firstLsn)),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        if (fsync) {
+            Snapshots.forceDirectory(directory);
+        }
+        return channel;
+    }
+
+    private static ByteBuffer encode(Pending pending) {
+        byte[] payload = pending.payload() != null ? pending.payload() : new byte[0];
+        int bodyLength = FIXED_BODY_BYTES + payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+        buffer.putInt(bodyLength).putInt(0);
+        buffer.putLong(pending.lsn()).put(pending.type()).putLong(pending.id()).put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, bodyLength);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private static long replay(Path segment, boolean newest, long afterLsn, Consumer<Entry> replay) throws IOException {
+        long lastLsn = -1;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            long position = 0;
+            long size = channel.size();
+            while (position < size) {
+                Entry entry = read(channel, position, size, header);
+                if (entry == null) {
+                    if (!newest) {
+                        throw new IOException("Corrupt record in " + segment + " at offset " + position);
+                    }
+                    log.warn("Truncating torn tail of {} at offset {} ({} bytes)", segment, position, size - position);
+                    channel.truncate(position);
+                    channel.force(true);
+                    break;
+                }
+                position += HEADER_BYTES + FIXED_BODY_BYTES + entry.payload().length;
+                lastLsn = entry.lsn();
+                if (entry.lsn() > afterLsn) {
+                    replay.accept(entry);
+                }
+            }
+        }
+        return lastLsn;
+    }
+
+    private static Entry read(FileChannel channel, long position, long size, ByteBuffer header) throws IOException {
+        if (size - position < HEADER_BYTES) {
+            return null;
+        }
+        header.clear();
+        channel.read(header, position);
+        int bodyLength = header.getInt(0);
+        int checksum = header.getInt(Integer.BYTES);
+        if (bodyLength < FIXED_BODY_BYTES
+                || bodyLength > MAX_RECORD_BYTES
+                || size - position - HEADER_BYTES < bodyLength) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocate(bodyLength);
+        while (body.hasRemaining()) {
+            channel.read(body, position + HEADER_BYTES + body.position());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body.array(), 0, bodyLength);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        body.flip();
+        long lsn = body.getLong();
+        byte type = body.get();
+        long id = body.getLong();
+        byte[] payload = new byte[body.remaining()];
+        body.get(payload);
+        return new Entry(lsn, type, id, payload);
+    }
+
+    private static List<Path> segments(Path directory, String name) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> isSegment(path, name))
+                    .sorted((a, b) -> Long.compare(firstLsn(a), firstLsn(b)))
+                    .toList();
+        }
+    }
+
+    private static boolean isSegment(Path path, String name) {
+        String fileName = path.getFileName().toString();
+        return fileName.startsWith(name + "-") && fileName.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long firstLsn(Path segment) {
+        String fileName = segment.getFileName().toString();
+        return Long.parseLong(
+                fileName.substring(fileName.lastIndexOf('-') + 1, fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static String segmentName(String name, long firstLsn) {
+        return String.format("%s-%020d%s", name, firstLsn, SEGMENT_SUFFIX);
+    }
+}
@@ -0,0 +1,31 @@
+package com.datadog.common.storage;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * Primary storage of a repository: entities keyed by a positive long id. {@link #write} and {@link #remove} run the
+ * caller's callback while holding the lock for that id, which repositories rely on to keep secondary indexes and the
+ * journal in step with the stored record.
+ *
+ * <p>Implementations may keep entities in a decomposed form, in which case {@link #get} materializes a fresh
+ * instance on every call; callers must save a modified entity rather than expect in-place changes to stick.
+ */
+public interface EntityStore<T> {
+
+    T get(long id);
+
+    boolean contains(long id);
+
+    int size();
+
+    /** Stores the entity returned by {@code writer} for {@code id}, under the lock for that id. */
+    T write(long id, LongFunction<T> writer);
+
+    /**
+     * Removes the entity for {@code id}, if present, after running {@code remover} under the lock for that id.
+     *
+     * @return true if an entity was removed
+     */
+    boolean remove(long id, LongConsumer remover);
+}
@@ -0,0 +1,32 @@
+package com.datadog.common.storage;
+
+import com.datadog.common.config.StorageProperties;
+
+/**
+ * Hands out the {@link EntityStore} for a repository according to {@code storage.engine}. Slab stores share one
+ * {@link StringPool}, so a value such as a city name is stored once across all repositories.
+ */
+public class EntityStores {
+
+    private final StorageProperties properties;
+    private final StringPool strings = new StringPool();
+
+    public EntityStores(StorageProperties properties) {
+        this.properties = properties;
+    }
+
+    public <T> EntityStore<T> create() {
+        if (properties.getEngine() == StorageProperties.Engine.MAP) {
+            return new MapEntityStore<>();
+        }
+        return new LongHashEntityStore<>();
+    }
+
+    /** Like {@link #create()}, but honours the slab engine using {@code layout}. */
+    public <T> EntityStore<T> create(SlabLayout<T> layout) {
+        if (properties.getEngine() == StorageProperties.Engine.SLAB) {
+            return new SlabEntityStore<>(layout, strings);
+        }
+        return create();
+    }
+}
@@ -0,0 +1,134 @@
+package com.datadog.common.storage;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * {@link EntityStore} over a concurrent hash map with primitive long keys: ids are never boxed and entries need no
+ * node objects, just a slot in a {@code long[]} of keys and the matching slot in an array of entities.
+ *
+ * <p>Entries are spread over {@link LongSlotSegment}s by a hash of the id. Each segment is an open-addressing table
+ * with linear probing and backward-shift deletion. Writers take the segment's write lock, so writes to different
+ * segments run in parallel; readers probe under an optimistic read stamp and fall back to the read lock only if a
+ * writer got in between.
+ *
+ * <p>Ids must be positive; 0 marks an empty slot.
+ */
+public class LongHashEntityStore<T> implements EntityStore<T> {
+
+    @SuppressWarnings("unchecked")
+    private final LongSlotSegment<Table>[] segments = new LongSlotSegment[1 << LongSlotSegment.SEGMENT_SHIFT];
+
+    public LongHashEntityStore() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new LongSlotSegment<>(new Table(LongSlotSegment.INITIAL_CAPACITY));
+        }
+    }
+
+    @Override
+    public T get(long id) {
+        if (id <= 0) {
+            return null;
+        }
+        LongSlotSegment<Table> segment = segmentFor(id);
+        long stamp = segment.lock.tryOptimisticRead();
+        T entity = find(segment.table, id);
+        if (segment.lock.validate(stamp)) {
+            return entity;
+        }
+        stamp = segment.lock.readLock();
+        try {
+            return find(segment.table, id);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return get(id) != null;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (LongSlotSegment<Table> segment : segments) {
+            size += segment.count;
+        }
+        return size;
+    }
+
+    @Override
+    public T write(long id, LongFunction<T> writer) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Primitive storage requires positive ids: " + id);
+        }
+        LongSlotSegment<Table> segment = segmentFor(id);
+        long stamp = segment.lock.writeLock();
+        try {
+            T entity = writer.apply(id);
+            if (entity == null) {
+                segment.delete(id);
+            } else {
+                int slot = segment.claim(id);
+                segment.table.values[slot] = entity;
+            }
+            return entity;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(long id, LongConsumer remover) {
+        if (id <= 0) {
+            return false;
+        }
+        LongSlotSegment<Table> segment = segmentFor(id);
+        long stamp = segment.lock.writeLock();
+        try {
+            if (segment.table.slotOf(id) < 0) {
+                return false;
+            }
+            remover.accept(id);
+            segment.delete(id);
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T find(Table current, long id) {
+        int slot = current.slotOf(id);
+        return slot < 0 ? null : (T) current.values[slot];
+    }
+
+    private LongSlotSegment<Table> segmentFor(long id) {
+        return segments[LongSlotSegment.indexOf(id)];
+    }
+
+    private static final class Table extends LongSlotTable<Table> {
+        final Object[] values;
+
+        Table(int capacity) {
+            super(capacity);
+            this.values = new Object[capacity];
+        }
+
+        @Override
+        Table create(int capacity) {
+            return new Table(capacity);
+        }
+
+        @Override
+        void copy(int from, Table target, int to) {
+            target.values[to] = values[from];
+        }
+
+        @Override
+        void clear(int slot) {
+            values[slot] = null;
+        }
+    }
+}
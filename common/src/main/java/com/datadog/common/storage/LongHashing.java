@@ -0,0 +1,12 @@
+package com.datadog.common.storage;
+
+/** Hash spreading shared by the open-addressing stores, so sequential ids do not cluster into one probe run. */
+final class LongHashing {
+
+    private LongHashing() {}
+
+    static long mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+}
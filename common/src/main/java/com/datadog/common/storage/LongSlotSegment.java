@@ -0,0 +1,89 @@
+package com.datadog.common.storage;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * One segment of a primitive-keyed store: a {@link LongSlotTable} with linear probing and backward-shift deletion,
+ * guarded by a {@link StampedLock}. Stores spread ids over {@code 1 << SEGMENT_SHIFT} segments by a hash of the id.
+ *
+ * <p>Writers call {@link #claim} and {@link #delete} under the write lock. Readers probe {@link #table} under an
+ * optimistic read stamp and fall back to the read lock if a writer got in between.
+ */
+final class LongSlotSegment<T extends LongSlotTable<T>> {
+
+    static final int SEGMENT_SHIFT = 6;
+    static final int INITIAL_CAPACITY = 64;
+
+    final StampedLock lock = new StampedLock();
+    volatile T table;
+    volatile int count;
+
+    LongSlotSegment(T table) {
+        this.table = table;
+    }
+
+    static int indexOf(long id) {
+        return (int) (LongHashing.mix(id) >>> (Long.SIZE - SEGMENT_SHIFT));
+    }
+
+    /**
+     * Returns the slot of {@code id} in {@link #table}, taking an empty one if the id is absent. The table is grown
+     * first when taking a slot would fill it beyond 3/4, so callers must read {@link #table} afterwards.
+     */
+    int claim(long id) {
+        T current = table;
+        int slot = current.home(id);
+        while (current.keys[slot] != 0 && current.keys[slot] != id) {
+            slot = (slot + 1) & current.mask;
+        }
+        if (current.keys[slot] == 0) {
+            if ((count + 1) * 4L > current.keys.length * 3L) {
+                table = resize(current);
+                return claim(id);
+            }
+            current.keys[slot] = id;
+            count++;
+        }
+        return slot;
+    }
+
+    /** Removes {@code id}; returns false if it was absent. */
+    boolean delete(long id) {
+        T current = table;
+        int hole = current.slotOf(id);
+        if (hole < 0) {
+            return false;
+        }
+        // Backward-shift deletion: pull later entries of the probe run into the hole when their home slot allows it,
+        // so lookups can keep stopping at the first empty slot.
+        for (int slot = (hole + 1) & current.mask; current.keys[slot] != 0; slot = (slot + 1) & current.mask) {
+            int home = current.home(current.keys[slot]);
+            if (((slot - home) & current.mask) >= ((slot - hole) & current.mask)) {
+                current.keys[hole] = current.keys[slot];
+                current.copy(slot, current, hole);
+                hole = slot;
+            }
+        }
+        current.keys[hole] = 0;
+        current.clear(hole);
+        count--;
+        return true;
+    }
+
+    private T resize(T current) {
+        T resized = current.create(current.keys.length * 2);
+        for (int from = 0; from < current.keys.length; from++) {
+            long key = current.keys[from];
+            if (key == 0) {
+                continue;
+            }
+            int to = resized.home(key);
+            while (resized.keys[to] != 0) {
+                to = (to + 1) & resized.mask;
+            }
+            resized.keys[to] = key;
+            current.copy(from, resized, to);
+        }
+        return resized;
+    }
+}
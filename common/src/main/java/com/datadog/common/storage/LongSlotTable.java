@@ -0,0 +1,44 @@
+package com.datadog.common.storage;
+
+/**
+ * Slot arrays of one {@link LongSlotSegment}: a {@code long[]} of keys, probed linearly from a hash of the key, and
+ * whatever parallel arrays a store keeps its values in. 0 marks an empty slot.
+ *
+ * <p>A table never grows in place; the segment replaces it as a whole, so readers never mix generations.
+ */
+abstract class LongSlotTable<T extends LongSlotTable<T>> {
+
+    final long[] keys;
+    final int mask;
+
+    LongSlotTable(int capacity) {
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /** Returns the slot holding {@code id}, or -1. */
+    final int slotOf(long id) {
+        for (int slot = home(id); ; slot = (slot + 1) & mask) {
+            long key = keys[slot];
+            if (key == id) {
+                return slot;
+            }
+            if (key == 0) {
+                return -1;
+            }
+        }
+    }
+
+    final int home(long id) {
+        return (int) LongHashing.mix(id) & mask;
+    }
+
+    /** An empty table of the same shape with {@code capacity} slots. */
+    abstract T create(int capacity);
+
+    /** Copies the value of slot {@code from} to slot {@code to} of {@code target}, which may be this table. */
+    abstract void copy(int from, T target, int to);
+
+    /** Drops the value of a slot that was emptied, so the collector can reclaim what it referenced. */
+    abstract void clear(int slot);
+}
@@ -0,0 +1,43 @@
+package com.datadog.common.storage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+
+/** {@link EntityStore} over a {@link ConcurrentHashMap}, holding the entity instances themselves. */
+public class MapEntityStore<T> implements EntityStore<T> {
+
+    private final Map<Long, T> entities = new ConcurrentHashMap<>();
+
+    @Override
+    public T get(long id) {
+        return entities.get(id);
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return entities.containsKey(id);
+    }
+
+    @Override
+    public int size() {
+        return entities.size();
+    }
+
+    @Override
+    public T write(long id, LongFunction<T> writer) {
+        return entities.compute(id, (key, existing) -> writer.apply(key));
+    }
+
+    @Override
+    public boolean remove(long id, LongConsumer remover) {
+        boolean[] removed = {false};
+        entities.computeIfPresent(id, (key, existing) -> {
+            remover.accept(key);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+}
@@ -0,0 +1,197 @@
+package com.datadog.common.storage;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * {@link EntityStore} that keeps entities decomposed into primitive arrays instead of as objects: each row is a long
+ * key, the layout's long columns, a null mask, int references into a shared {@link StringPool} and the UTF-8 bytes of
+ * any row string columns. A row costs a few
+ * dozen bytes against several hundred for a boxed key, a map node, the entity and its strings, and gives the
+ * collector a handful of large arrays to trace instead of millions of small objects.
+ *
+ * <p>Rows are spread over {@link LongSlotSegment}s by a hash of the id. Each segment is an open-addressing table with
+ * linear probing, where the slot of a key is also its row, and deletes shift later entries back rather than leaving
+ * tombstones. Writers take the segment's write lock; readers copy the row under an optimistic read stamp and retry
+ * under the read lock only if a writer got in between. Every {@link #get} materializes a new entity.
+ *
+ * <p>Ids must be positive; 0 marks an empty slot.
+ */
+public class SlabEntityStore<T> implements EntityStore<T> {
+
+    private final SlabLayout<T> layout;
+    private final StringPool strings;
+
+    @SuppressWarnings("unchecked")
+    private final LongSlotSegment<Table>[] segments = new LongSlotSegment[1 << LongSlotSegment.SEGMENT_SHIFT];
+
+    public SlabEntityStore(SlabLayout<T> layout, StringPool strings) {
+        this.layout = layout;
+        this.strings = strings;
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new LongSlotSegment<>(new Table(
+                    LongSlotSegment.INITIAL_CAPACITY,
+                    layout.longColumns(),
+                    layout.stringColumns(),
+                    layout.rowStringColumns()));
+        }
+    }
+
+    @Override
+    public T get(long id) {
+        if (id <= 0) {
+            return null;
+        }
+        SlabRow row = new SlabRow(layout, strings);
+        return read(segmentFor(id), id, row) ? layout.read(id, row) : null;
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return id > 0 && read(segmentFor(id), id, null);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (LongSlotSegment<Table> segment : segments) {
+            size += segment.count;
+        }
+        return size;
+    }
+
+    @Override
+    public T write(long id, LongFunction<T> writer) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Slab storage requires positive ids: " + id);
+        }
+        LongSlotSegment<Table> segment = segmentFor(id);
+        SlabRow row = new SlabRow(layout, strings);
+        long stamp = segment.lock.writeLock();
+        try {
+            T entity = writer.apply(id);
+            if (entity == null) {
+                segment.delete(id);
+                return null;
+            }
+            layout.write(entity, row);
+            int slot = segment.claim(id);
+            segment.table.write(slot, row);
+            return entity;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(long id, LongConsumer remover) {
+        if (id <= 0) {
+            return false;
+        }
+        LongSlotSegment<Table> segment = segmentFor(id);
+        long stamp = segment.lock.writeLock();
+        try {
+            if (segment.table.slotOf(id) < 0) {
+                return false;
+            }
+            remover.accept(id);
+            segment.delete(id);
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Bytes held by the row arrays, excluding the string pool and row string bytes; for footprint reporting. */
+    public long tableBytes() {
+        long bytes = 0;
+        for (LongSlotSegment<Table> segment : segments) {
+            Table table = segment.table;
+            bytes += (long) table.keys.length * Long.BYTES * 2
+                    + (long) table.longs.length * Long.BYTES
+                    + (long) (table.strings.length + table.rowStrings.length) * Integer.BYTES;
+        }
+        return bytes;
+    }
+
+    /** Copies the row for {@code id} into {@code row}, if given; returns whether it exists. */
+    private static boolean read(LongSlotSegment<Table> segment, long id, SlabRow row) {
+        long stamp = segment.lock.tryOptimisticRead();
+        boolean found = segment.table.read(id, row);
+        if (segment.lock.validate(stamp)) {
+            return found;
+        }
+        stamp = segment.lock.readLock();
+        try {
+            return segment.table.read(id, row);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    private LongSlotSegment<Table> segmentFor(long id) {
+        return segments[LongSlotSegment.indexOf(id)];
+    }
+
+    private static final class Table extends LongSlotTable<Table> {
+        final int longColumns;
+        final int stringColumns;
+        final int rowStringColumns;
+        final long[] nullMasks;
+        final long[] longs;
+        final int[] strings;
+        final byte[][] rowStrings;
+
+        Table(int capacity, int longColumns, int stringColumns, int rowStringColumns) {
+            super(capacity);
+            this.longColumns = longColumns;
+            this.stringColumns = stringColumns;
+            this.rowStringColumns = rowStringColumns;
+            this.nullMasks = new long[capacity];
+            this.longs = new long[capacity * longColumns];
+            this.strings = new int[capacity * stringColumns];
+            this.rowStrings = new byte[capacity * rowStringColumns][];
+        }
+
+        boolean read(long id, SlabRow row) {
+            int slot = slotOf(id);
+            if (slot < 0) {
+                return false;
+            }
+            if (row != null) {
+                row.nullMask = nullMasks[slot];
+                System.arraycopy(longs, slot * longColumns, row.longs, 0, longColumns);
+                System.arraycopy(strings, slot * stringColumns, row.strings, 0, stringColumns);
+                System.arraycopy(rowStrings, slot * rowStringColumns, row.rowStrings, 0, rowStringColumns);
+            }
+            return true;
+        }
+
+        void write(int slot, SlabRow row) {
+            nullMasks[slot] = row.nullMask;
+            System.arraycopy(row.longs, 0, longs, slot * longColumns, longColumns);
+            System.arraycopy(row.strings, 0, strings, slot * stringColumns, stringColumns);
+            System.arraycopy(row.rowStrings, 0, rowStrings, slot * rowStringColumns, rowStringColumns);
+        }
+
+        @Override
+        Table create(int capacity) {
+            return new Table(capacity, longColumns, stringColumns, rowStringColumns);
+        }
+
+        @Override
+        void copy(int from, Table target, int to) {
+            target.nullMasks[to] = nullMasks[from];
+            System.arraycopy(longs, from * longColumns, target.longs, to * longColumns, longColumns);
+            System.arraycopy(strings, from * stringColumns, target.strings, to * stringColumns, stringColumns);
+            System.arraycopy(
+                    rowStrings, from * rowStringColumns, target.rowStrings, to * rowStringColumns, rowStringColumns);
+        }
+
+        @Override
+        void clear(int slot) {
+            Arrays.fill(rowStrings, slot * rowStringColumns, (slot + 1) * rowStringColumns, null);
+        }
+    }
+}
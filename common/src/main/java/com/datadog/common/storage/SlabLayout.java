@@ -0,0 +1,26 @@
+package com.datadog.common.storage;
+
+/**
+ * Describes how an entity is decomposed into one {@link SlabEntityStore} row: a fixed number of nullable long
+ * columns (numbers, dates as epoch days, doubles as raw bits), string columns, which are interned in the store's
+ * {@link StringPool}, and row string columns, kept as UTF-8 with the row. The id is the row key and is not stored as a
+ * column.
+ *
+ * <p>The pool never reclaims a value, so only low-cardinality columns such as cities belong in string columns; values
+ * that rarely repeat, such as street addresses, go in row string columns and are freed with their row.
+ */
+public interface SlabLayout<T> {
+
+    int longColumns();
+
+    int stringColumns();
+
+    default int rowStringColumns() {
+        return 0;
+    }
+
+    void write(T entity, SlabRow row);
+
+    /** Builds a new entity for {@code id} from {@code row}. */
+    T read(long id, SlabRow row);
+}
@@ -0,0 +1,91 @@
+package com.datadog.common.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * One decoded row of a {@link SlabEntityStore}, used by a {@link SlabLayout} to copy an entity's fields in or out.
+ * Long columns are nullable (at most 64 of them); string columns hold {@link StringPool} references, resolved only
+ * when read; row string columns hold their own UTF-8 bytes.
+ */
+public final class SlabRow {
+
+    static final int NULL_STRING = -1;
+
+    final long[] longs;
+    final int[] strings;
+    final byte[][] rowStrings;
+    long nullMask;
+
+    private final StringPool pool;
+
+    SlabRow(SlabLayout<?> layout, StringPool pool) {
+        if (layout.longColumns() > Long.SIZE) {
+            throw new IllegalArgumentException("A slab row holds at most " + Long.SIZE + " long columns");
+        }
+        this.longs = new long[layout.longColumns()];
+        this.strings = new int[layout.stringColumns()];
+        this.rowStrings = new byte[layout.rowStringColumns()][];
+        this.pool = pool;
+        clear();
+    }
+
+    private void clear() {
+        Arrays.fill(longs, 0);
+        Arrays.fill(strings, NULL_STRING);
+        Arrays.fill(rowStrings, null);
+        nullMask = -1L >>> (Long.SIZE - longs.length);
+    }
+
+    public Long getLong(int column) {
+        return isNull(column) ? null : longs[column];
+    }
+
+    public void setLong(int column, Long value) {
+        setRaw(column, value != null, value != null ? value : 0);
+    }
+
+    public Double getDouble(int column) {
+        return isNull(column) ? null : Double.longBitsToDouble(longs[column]);
+    }
+
+    public void setDouble(int column, Double value) {
+        setRaw(column, value != null, value != null ? Double.doubleToRawLongBits(value) : 0);
+    }
+
+    public LocalDate getDate(int column) {
+        return isNull(column) ? null : LocalDate.ofEpochDay(longs[column]);
+    }
+
+    public void setDate(int column, LocalDate value) {
+        setRaw(column, value != null, value != null ? value.toEpochDay() : 0);
+    }
+
+    public String getString(int column) {
+        int reference = strings[column];
+        return reference == NULL_STRING ? null : pool.get(reference);
+    }
+
+    public void setString(int column, String value) {
+        strings[column] = value == null ? NULL_STRING : pool.intern(value);
+    }
+
+    public String getRowString(int column) {
+        byte[] bytes = rowStrings[column];
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public void setRowString(int column, String value) {
+        rowStrings[column] = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private boolean isNull(int column) {
+        return (nullMask & (1L << column)) != 0;
+    }
+
+    private void setRaw(int column, boolean present, long value) {
+        longs[column] = value;
+        nullMask = present ? nullMask & ~(1L << column) : nullMask | (1L << column);
+    }
+}
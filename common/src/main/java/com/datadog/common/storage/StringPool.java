@@ -0,0 +1,149 @@
+package com.datadog.common.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only pool of deduplicated strings, stored as UTF-8 in one byte slab and addressed by int offsets. Equal
+ * strings intern to the same reference, so low-cardinality columns such as cities cost a few bytes per row instead
+ * of a {@code String} and its backing array each.
+ *
+ * <p>Interning is serialized; {@link #get} is lock-free. Entries are never reclaimed: a string that no row refers to
+ * any more keeps its bytes until the pool is rebuilt, which for a persistent repository happens on restart.
+ */
+public final class StringPool {
+
+    private static final int MAX_BYTES = Integer.MAX_VALUE - 8;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Published after each append, so a reader that obtained a reference sees the bytes behind it.
+    private volatile byte[] data;
+    private int size;
+
+    // Open-addressing table of (reference + 1), with the hash of each entry alongside to skip most comparisons.
+    private int[] slots;
+    private int[] hashes;
+    private int entries;
+
+    public StringPool() {
+        this(64 * 1024);
+    }
+
+    public StringPool(int initialBytes) {
+        this.data = new byte[Math.max(initialBytes, 16)];
+        this.slots = new int[1024];
+        this.hashes = new int[1024];
+    }
+
+    public int intern(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int hash = mix(Arrays.hashCode(bytes));
+        lock.lock();
+        try {
+            int mask = slots.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int entry = slots[slot];
+                if (entry == 0) {
+                    int reference = append(bytes);
+                    slots[slot] = reference + 1;
+                    hashes[slot] = hash;
+                    if (++entries * 2 > slots.length) {
+                        rehash();
+                    }
+                    return reference;
+                }
+                if (hashes[slot] == hash && matches(entry - 1, bytes)) {
+                    return entry - 1;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String get(int reference) {
+        byte[] bytes = data;
+        int position = reference;
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[position++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        return new String(bytes, position, length, StandardCharsets.UTF_8);
+    }
+
+    /** Bytes of string data held by the pool. */
+    public int sizeInBytes() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int append(byte[] bytes) {
+        int needed = 5 + bytes.length;
+        byte[] current = data;
+        if ((long) size + needed > current.length) {
+            if ((long) size + needed > MAX_BYTES) {
+                throw new IllegalStateException("String pool is full");
+            }
+            current = Arrays.copyOf(current, (int) Math.min(MAX_BYTES, Math.max(current.length * 2L, size + needed)));
+        }
+        int reference = size;
+        int position = size;
+        int length = bytes.length;
+        while ((length & ~0x7F) != 0) {
+            current[position++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        current[position++] = (byte) length;
+        System.arraycopy(bytes, 0, current, position, bytes.length);
+        size = position + bytes.length;
+        data = current;
+        return reference;
+    }
+
+    private boolean matches(int reference, byte[] bytes) {
+        byte[] current = data;
+        int position = reference;
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = current[position++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        return Arrays.equals(current, position, position + length, bytes, 0, bytes.length);
+    }
+
+    private void rehash() {
+        int[] newSlots = new int[slots.length * 2];
+        int[] newHashes = new int[hashes.length * 2];
+        int mask = newSlots.length - 1;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != 0) {
+                int slot = hashes[i] & mask;
+                while (newSlots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                newSlots[slot] = slots[i];
+                newHashes[slot] = hashes[i];
+            }
+        }
+        slots = newSlots;
+        hashes = newHashes;
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,85 @@
+package com.datadog.common.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes a collection to the response one element at a time, either as a JSON array or as newline-delimited
+ * JSON, so the full collection is never materialized as a list or a serialized buffer.
+ */
+public final class JsonStreaming {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    private JsonStreaming() {}
+
+    public static boolean prefersNdjson(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (APPLICATION_NDJSON.includes(mediaType)) {
+                return true;
+            }
+            if (MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> response(
+            ObjectMapper objectMapper, Stream<T> elements, boolean ndjson) {
+        ObjectWriter writer = objectMapper
+                .writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body =
+                ndjson ? out -> writeNdjson(writer, elements, out) : out -> writeArray(writer, elements, out);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private static <T> void writeArray(ObjectWriter writer, Stream<T> elements, OutputStream out) throws IOException {
+        try (elements;
+                SequenceWriter sequence = writer.writeValuesAsArray(out)) {
+            write(sequence, elements.iterator());
+        }
+    }
+
+    private static <T> void writeNdjson(ObjectWriter writer, Stream<T> elements, OutputStream out) throws IOException {
+        boolean written;
+        try (elements;
+                SequenceWriter sequence = writer.withRootValueSeparator("\n").writeValues(out)) {
+            written = write(sequence, elements.iterator());
+        }
+        // An empty body is an empty stream; a lone newline would read as one empty record.
+        if (written) {
+            out.write('\n');
+        }
+    }
+
+    private static <T> boolean write(SequenceWriter sequence, Iterator<T> iterator) throws IOException {
+        boolean written = false;
+        while (iterator.hasNext()) {
+            sequence.write(iterator.next());
+            written = true;
+        }
+        return written;
+    }
+}
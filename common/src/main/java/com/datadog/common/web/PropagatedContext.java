@@ -0,0 +1,77 @@
+package com.datadog.common.web;
+
+import com.datadog.common.constant.Constants;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.MDC;
+
+/**
+ * Correlation ID, platform and {@code x-} headers of an incoming request, captured once on the request thread. Non-
+ * blocking code passes it along explicitly instead of reading the MDC and {@code RequestContextHolder}, which are
+ * bound to the thread that received the request. Tasks submitted through {@code RequestContextTaskDecorator} find it
+ * bound to their thread instead, as {@link #current()}.
+ *
+ * @param headers headers to send on outbound calls: the request's {@code x-} headers, with {@code X-Correlation-ID}
+ *     set to the correlation ID, as {@code PropagateHeadersInterceptor} sends them for Feign
+ */
+public record PropagatedContext(String correlationId, String platform, Map<String, String> headers) {
+
+    private static final ThreadLocal<PropagatedContext> CURRENT = new ThreadLocal<>();
+
+    /** Captures the context of {@code request}; must run on the request thread, after {@code CorrelationIdFilter}. */
+    public static PropagatedContext of(HttpServletRequest request) {
+        String correlationId = MDC.get(Constants.CORRELATION_ID_MDC_KEY);
+        Map<String, String> headers = new HashMap<>();
+        for (String header : Collections.list(request.getHeaderNames())) {
+            if (header.startsWith("x-") && !header.equalsIgnoreCase(Constants.CORRELATION_ID_HEADER)) {
+                headers.put(header, request.getHeader(header));
+            }
+        }
+        if (correlationId != null) {
+            headers.put(Constants.CORRELATION_ID_HEADER, correlationId);
+        }
+        return new PropagatedContext(correlationId, MDC.get(Constants.PLATFORM_MDC_KEY), Map.copyOf(headers));
+    }
+
+    /** The context bound to this thread, or {@code null} outside tasks that carry one. */
+    public static PropagatedContext current() {
+        return CURRENT.get();
+    }
+
+    /** Binds {@code context} to this thread, or unbinds it if {@code null}, and returns the one bound before. */
+    public static PropagatedContext bind(PropagatedContext context) {
+        PropagatedContext previous = CURRENT.get();
+        if (context != null) {
+            CURRENT.set(context);
+        } else {
+            CURRENT.remove();
+        }
+        return previous;
+    }
+
+    /** Runs {@code action} with the correlation ID and platform in the MDC, for logging from callbacks. */
+    public void run(Runnable action) {
+        Map<String, String> previous = MDC.getCopyOfContextMap();
+        putOrRemove(Constants.CORRELATION_ID_MDC_KEY, correlationId);
+        putOrRemove(Constants.PLATFORM_MDC_KEY, platform);
+        try {
+            action.run();
+        } finally {
+            if (previous != null) {
+                MDC.setContextMap(previous);
+            } else {
+                MDC.clear();
+            }
+        }
+    }
+
+    private static void putOrRemove(String key, String value) {
+        if (value != null) {
+            MDC.put(key, value);
+        } else {
+            MDC.remove(key);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.datadog.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Measures how many user-details requests the in-process user-service keeps in flight at once, and what each costs in
+ * memory, under the thread model it was started with. For each level a burst of that many concurrent requests for
+ * distinct, freshly created users is sent, so every request misses the profile cache and waits the stub latency on a
+ * call to profile-service. The stub's peak concurrency is the number of requests the service was holding at once.
+ * Once that number stops growing, process RSS, heap retained after a full GC and platform threads are sampled and
+ * compared with the idle process.
+ *
+ * <p>Run it once with {@code --virtual-threads=false} and once with {@code --virtual-threads=true} to compare the
+ * Tomcat platform-thread pool with virtual threads, or with {@code --in-flight-operation=get-details-async} for the
+ * non-blocking details endpoint. Both runs include the load generator's own connections, which
+ * cost the same in either mode.
+ */
+public class InFlightBenchmark {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+    private static final Duration SETTLE_TIME = Duration.ofMillis(250);
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final Path STATUS = Path.of("/proc/self/status");
+
+    private final URI users;
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper;
+    private final ProfileServiceStub stub;
+    private final HttpClient client;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public InFlightBenchmark(URI target, LoadTestOptions options, ObjectMapper objectMapper, ProfileServiceStub stub) {
+        this.users = target.resolve("/api/users");
+        this.options = options;
+        this.objectMapper = objectMapper;
+        this.stub = stub;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public InFlightReport run() throws InterruptedException {
+        // One small burst first, so class loading and connection setup are not charged to the first level.
+        burst(Math.min(50, options.inFlight().get(0)));
+        List<InFlightReport.Level> levels = new ArrayList<>();
+        for (int requests : options.inFlight()) {
+            System.out.printf("Sending %d concurrent requests%n", requests);
+            levels.add(burst(requests));
+        }
+        return new InFlightReport(
+                options.inFlightOperation().label(),
+                options.virtualThreads(),
+                options.stubLatency().toMillis(),
+                levels);
+    }
+
+    private InFlightReport.Level burst(int requests) throws InterruptedException {
+        List<Long> ids = createUsers(requests);
+        Sample baseline = afterGc();
+        stub.resetPeakInFlight();
+
+        Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> calls = new ArrayList<>(requests);
+        for (long id : ids) {
+            HttpRequest request = HttpRequest.newBuilder(
+                            users.resolve(LoadGenerator.detailsPath(options.inFlightOperation(), id)))
+                    .timeout(Duration.ofMinutes(2))
+                    .GET()
+                    .build();
+            long sent = System.nanoTime();
+            calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        latencies.recordValue(
+                                Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent), MAX_LATENCY_MICROS));
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.increment();
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture<Void> done = CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new));
+        Sample loaded = sampleWhenSettled(done);
+        done.join();
+        long elapsed = System.nanoTime() - start;
+
+        int held = loaded.inFlight();
+        return new InFlightReport.Level(
+                requests,
+                errors.sum(),
+                stub.peakInFlight(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed),
+                latencies.getValueAtPercentile(50) / 1000.0,
+                latencies.getValueAtPercentile(99) / 1000.0,
+                loaded.platformThreads(),
+                held == 0 || baseline.rssBytes() < 0 ? -1 : (loaded.rssBytes() - baseline.rssBytes()) / held,
+                held == 0 ? -1 : (loaded.heapBytes() - baseline.heapBytes()) / held);
+    }
+
+    /**
+     * Waits until the number of requests held at the stub has stopped growing, then samples memory after a full GC,
+     * so the heap figure is what the in-flight requests retain rather than garbage. Needs a stub latency well above
+     * {@link #SETTLE_TIME}.
+     */
+    private Sample sampleWhenSettled(CompletableFuture<Void> done) throws InterruptedException {
+        int highest = 0;
+        long changed = System.nanoTime();
+        while (!done.isDone()) {
+            int current = stub.inFlight();
+            if (current > highest) {
+                highest = current;
+                changed = System.nanoTime();
+            } else if (current > 0 && System.nanoTime() - changed >= SETTLE_TIME.toNanos()) {
+                return afterGc();
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        return afterGc();
+    }
+
+    private List<Long> createUsers(int count) {
+        List<CompletableFuture<Long>> created = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long n = sequence.incrementAndGet();
+            HttpRequest request;
+            try {
+                request = HttpRequest.newBuilder(users)
+                        .header("Content-Type", "application/json")
+                        .timeout(Duration.ofMinutes(2))
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(userJson(n)))
+                        .build();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            created.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .thenApply(response -> {
+                        if (response.statusCode() != 201) {
+                            throw new IllegalStateException("Creating a user failed with " + response.statusCode());
+                        }
+                        try {
+                            return objectMapper
+                                    .readTree(response.body())
+                                    .get("id")
+                                    .asLong();
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }));
+        }
+        return created.stream().map(CompletableFuture::join).toList();
+    }
+
+    private byte[] userJson(long n) throws IOException {
+        return objectMapper.writeValueAsBytes(Map.of(
+                "username",
+                "in-flight-" + n,
+                "email",
+                "in-flight-" + n + "@example.com",
+                "password",
+                "secret",
+                "firstName",
+                "In",
+                "lastName",
+                "Flight " + n,
+                "active",
+                true));
+    }
+
+    /**
+     * Process memory, platform thread count and requests held at the stub at one point in time. RSS is -1 where
+     * {@code /proc} is not available.
+     */
+    private record Sample(long rssBytes, long heapBytes, int platformThreads, int inFlight) {}
+
+    private Sample afterGc() {
+        System.gc();
+        return new Sample(rss(), MEMORY.getHeapMemoryUsage().getUsed(), THREADS.getThreadCount(), stub.inFlight());
+    }
+
+    private static long rss() {
+        try {
+            for (String line : Files.readAllLines(STATUS)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not Linux; fall through.
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.datadog.loadtest;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Results of {@link InFlightBenchmark}: per burst size, the peak number of requests the service held at once and the
+ * memory each of them cost. Serialized as the JSON report.
+ */
+public record InFlightReport(String operation, boolean virtualThreads, long stubLatencyMillis, List<Level> levels) {
+
+    /**
+     * @param requests concurrent requests sent
+     * @param errors requests that failed or did not answer 200
+     * @param peakInFlight most requests waiting on profile-service at once
+     * @param elapsedMillis time until the last response arrived
+     * @param p50 median latency in milliseconds
+     * @param p99 99th percentile latency in milliseconds
+     * @param platformThreads live platform threads in the process while the requests were held
+     * @param rssBytesPerRequest growth of the process resident set over the idle process per held request, or -1 if
+     *     unknown
+     * @param heapBytesPerRequest growth of the heap retained after a full GC per held request
+     */
+    public record Level(
+            int requests,
+            long errors,
+            int peakInFlight,
+            long elapsedMillis,
+            double p50,
+            double p99,
+            int platformThreads,
+            long rssBytesPerRequest,
+            long heapBytesPerRequest) {}
+
+    public void print(PrintStream out) {
+        out.printf(
+                "%n%s, %s threads, profile-service stub latency %d ms%n",
+                operation, virtualThreads ? "virtual" : "platform", stubLatencyMillis);
+        out.printf(
+                "%8s %7s %9s %10s %9s %9s %9s %12s %13s%n",
+                "requests",
+                "errors",
+                "in-flight",
+                "elapsed ms",
+                "p50 ms",
+                "p99 ms",
+                "threads",
+                "RSS B/req",
+                "heap B/req");
+        for (Level level : levels) {
+            out.printf(
+                    "%8d %7d %9d %10d %9.1f %9.1f %9d %12d %13d%n",
+                    level.requests(),
+                    level.errors(),
+                    level.peakInFlight(),
+                    level.elapsedMillis(),
+                    level.p50(),
+                    level.p99(),
+                    level.platformThreads(),
+                    level.rssBytesPerRequest(),
+                    level.heapBytesPerRequest());
+        }
+    }
+}
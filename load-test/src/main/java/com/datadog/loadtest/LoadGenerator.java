@@ -0,0 +1,245 @@
+package com.datadog.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Drives user-service with {@code concurrency} virtual-thread clients issuing a weighted mix of operations, and
+ * records each operation's latency in an HdrHistogram (microseconds, three significant digits).
+ */
+public class LoadGenerator {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int PAGE_SIZE = 20;
+
+    private final URI users;
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private final UserIds ids = new UserIds();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    public LoadGenerator(URI target, LoadTestOptions options, ObjectMapper objectMapper) {
+        this.users = target.resolve("/api/users");
+        this.options = options;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /** Creates {@code options.users()} users so the run starts with a populated repository. */
+    public void seed() throws InterruptedException {
+        forEachClient((client, random) -> {
+            while (sequence.get() < options.users()) {
+                execute(Operation.CREATE, random);
+            }
+        });
+    }
+
+    /** Runs the operation mix for {@code duration}; returns the recorded results if {@code record} is set. */
+    public LoadReport run(Duration duration, boolean record) throws InterruptedException {
+        stats.values().forEach(OperationStats::reset);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        // With a target rate each client owns every concurrency-th slot of the schedule.
+        long interval = options.rate() > 0 ? TimeUnit.SECONDS.toNanos(options.concurrency()) / options.rate() : 0;
+        forEachClient((client, random) -> {
+            long scheduled = start + (interval > 0 ? interval * client / options.concurrency() : 0);
+            while (true) {
+                if (interval > 0) {
+                    long wait = scheduled - System.nanoTime();
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                } else {
+                    scheduled = System.nanoTime();
+                }
+                if (scheduled >= deadline) {
+                    return;
+                }
+                Operation operation = options.mix().next(random);
+                Operation executed = null;
+                try {
+                    executed = execute(operation, random);
+                } catch (IOException e) {
+                    // Connection failures count as errors of the intended operation.
+                }
+                if (record) {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+                    stats.get(executed != null ? executed : operation).record(micros, executed != null);
+                }
+                scheduled += interval;
+            }
+        });
+        return record ? LoadReport.of(options, System.nanoTime() - start, stats) : null;
+    }
+
+    /**
+     * Issues one request. Operations that need an existing user fall back to {@link Operation#CREATE} when there is
+     * none.
+     *
+     * @return the operation actually executed if it succeeded, or null if the service answered with an error
+     */
+    private Operation execute(Operation operation, SplittableRandom random) throws IOException, InterruptedException {
+        switch (operation) {
+            case CREATE -> {
+                long n = sequence.incrementAndGet();
+                HttpResponse<byte[]> response = send(HttpRequest.newBuilder(users)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(userJson(n))));
+                if (response.statusCode() != 201) {
+                    return null;
+                }
+                ids.add(objectMapper.readTree(response.body()).get("id").asLong());
+                return operation;
+            }
+            case GET_DETAILS, GET_DETAILS_ASYNC -> {
+                long id = ids.pick(random);
+                if (id < 0) {
+                    return execute(Operation.CREATE, random);
+                }
+                return ok(
+                        send(HttpRequest.newBuilder(users.resolve(detailsPath(operation, id)))
+                                .GET()),
+                        operation);
+            }
+            case LIST -> {
+                int page = random.nextInt(ids.size() / PAGE_SIZE + 1);
+                URI uri = URI.create(users + "?page=" + page + "&size=" + PAGE_SIZE);
+                return ok(send(HttpRequest.newBuilder(uri).GET()), operation);
+            }
+            case UPDATE -> {
+                long id = ids.take(random);
+                if (id < 0) {
+                    return execute(Operation.CREATE, random);
+                }
+                try {
+                    return ok(
+                            send(HttpRequest.newBuilder(users.resolve("/api/users/" + id))
+                                    .header("Content-Type", "application/json")
+                                    .PUT(HttpRequest.BodyPublishers.ofByteArray(userJson(sequence.incrementAndGet())))),
+                            operation);
+                } finally {
+                    ids.add(id);
+                }
+            }
+            case DELETE -> {
+                long id = ids.take(random);
+                if (id < 0) {
+                    return execute(Operation.CREATE, random);
+                }
+                return ok(
+                        send(HttpRequest.newBuilder(users.resolve("/api/users/" + id))
+                                .DELETE()),
+                        operation);
+            }
+            default -> throw new IllegalStateException("Unexpected operation: " + operation);
+        }
+    }
+
+    static String detailsPath(Operation operation, long id) {
+        return "/api/users/" + id + (operation == Operation.GET_DETAILS_ASYNC ? "/details:async" : "");
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static Operation ok(HttpResponse<byte[]> response, Operation operation) {
+        return response.statusCode() / 100 == 2 ? operation : null;
+    }
+
+    private byte[] userJson(long n) throws IOException {
+        return objectMapper.writeValueAsBytes(Map.of(
+                "username",
+                "load-" + n,
+                "email",
+                "load-" + n + "@example.com",
+                "password",
+                "secret",
+                "firstName",
+                "Load",
+                "lastName",
+                "Test " + n,
+                "active",
+                true));
+    }
+
+    private void forEachClient(Client body) throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> clients = new ArrayList<>(options.concurrency());
+            for (int i = 0; i < options.concurrency(); i++) {
+                int client = i;
+                SplittableRandom random = new SplittableRandom(client);
+                clients.add(executor.submit(() -> {
+                    body.run(client, random);
+                    return null;
+                }));
+            }
+            for (Future<?> client : clients) {
+                try {
+                    client.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load client failed", e.getCause());
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Client {
+        void run(int client, SplittableRandom random) throws IOException, InterruptedException;
+    }
+
+    /** Latencies and error count of one operation. */
+    static final class OperationStats {
+
+        private final ConcurrentHistogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long micros, boolean succeeded) {
+            latencies.recordValue(Math.min(Math.max(micros, 1), MAX_LATENCY_MICROS));
+            if (!succeeded) {
+                errors.increment();
+            }
+        }
+
+        void reset() {
+            latencies.reset();
+            errors.reset();
+        }
+
+        Histogram latencies() {
+            return latencies.copy();
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+    }
+}
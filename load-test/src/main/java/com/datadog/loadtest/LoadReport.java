@@ -0,0 +1,116 @@
+package com.datadog.loadtest;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Results of a measured run: throughput, errors and latency percentiles (milliseconds) per operation and overall.
+ * Serialized as the JSON report, so runs can be compared over time.
+ */
+public record LoadReport(
+        double durationSeconds,
+        int concurrency,
+        int targetRate,
+        Map<String, Integer> mix,
+        List<Result> operations,
+        Result total,
+        Stub stub) {
+
+    public record Result(
+            String operation,
+            long count,
+            long errors,
+            double throughput,
+            double p50,
+            double p90,
+            double p99,
+            double p999,
+            double max) {
+
+        static Result of(String operation, Histogram latencies, long errors, double seconds) {
+            return new Result(
+                    operation,
+                    latencies.getTotalCount(),
+                    errors,
+                    latencies.getTotalCount() / seconds,
+                    millis(latencies.getValueAtPercentile(50)),
+                    millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    /** Settings of the profile-service stub and the requests it served, when it was used. */
+    public record Stub(long latencyMillis, long jitterMillis, double errorRate, long requests, long injectedErrors) {}
+
+    static LoadReport of(
+            LoadTestOptions options, long elapsedNanos, Map<Operation, LoadGenerator.OperationStats> stats) {
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        List<Result> operations = new ArrayList<>();
+        Histogram all = null;
+        long errors = 0;
+        for (Map.Entry<Operation, LoadGenerator.OperationStats> entry : stats.entrySet()) {
+            Histogram latencies = entry.getValue().latencies();
+            if (latencies.getTotalCount() == 0) {
+                continue;
+            }
+            operations.add(Result.of(
+                    entry.getKey().label(), latencies, entry.getValue().errors(), seconds));
+            errors += entry.getValue().errors();
+            if (all == null) {
+                all = latencies.copy();
+            } else {
+                all.add(latencies);
+            }
+        }
+        Result total = all == null ? null : Result.of("total", all, errors, seconds);
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().weights().forEach((operation, weight) -> mix.put(operation.label(), weight));
+        return new LoadReport(seconds, options.concurrency(), options.rate(), mix, operations, total, null);
+    }
+
+    public LoadReport withStub(Stub stub) {
+        return new LoadReport(durationSeconds, concurrency, targetRate, mix, operations, total, stub);
+    }
+
+    public void print(PrintStream out) {
+        out.printf(
+                "%n%d clients, %s, %.1f s%n",
+                concurrency, targetRate > 0 ? targetRate + " req/s scheduled" : "closed loop", durationSeconds);
+        out.printf(
+                "%-12s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms");
+        List<Result> rows = new ArrayList<>(operations);
+        if (total != null) {
+            rows.add(total);
+        }
+        for (Result row : rows) {
+            out.printf(
+                    "%-12s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    row.operation(),
+                    row.count(),
+                    row.errors(),
+                    row.throughput(),
+                    row.p50(),
+                    row.p90(),
+                    row.p99(),
+                    row.p999(),
+                    row.max());
+        }
+        if (stub != null) {
+            out.printf(
+                    "profile-service stub: %d ms + up to %d ms, %d requests, %d injected errors%n",
+                    stub.latencyMillis(), stub.jitterMillis(), stub.requests(), stub.injectedErrors());
+        }
+    }
+}
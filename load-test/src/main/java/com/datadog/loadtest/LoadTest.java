@@ -0,0 +1,99 @@
+package com.datadog.loadtest;
+
+import com.datadog.user.UserServiceApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * End-to-end load test of the user-service to profile-service path. Unless {@code --target} points at a running
+ * user-service, one is started in-process on a random port, calling either {@code --profile-service-url} or an
+ * in-process {@link ProfileServiceStub}. After seeding users and a warmup, the operation mix runs for the given
+ * duration and the results are printed and written as JSON. With {@code --scenario=in-flight} the
+ * {@link InFlightBenchmark} runs instead. See {@link LoadTestOptions} for the options.
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ProfileServiceStub stub = null;
+        ConfigurableApplicationContext userService = null;
+        try {
+            String target = options.target();
+            if (target.isEmpty()) {
+                String profileServiceUrl = options.profileServiceUrl();
+                if (profileServiceUrl.isEmpty()) {
+                    stub = new ProfileServiceStub(
+                            objectMapper,
+                            options.stubLatency(),
+                            options.stubJitter(),
+                            options.stubErrorRate(),
+                            options.profileEntries());
+                    profileServiceUrl = stub.url();
+                }
+                // Passed as arguments so they take precedence over user-service's application.yaml.
+                userService = new SpringApplicationBuilder(UserServiceApplication.class)
+                        .run(
+                                "--server.port=0",
+                                "--spring.main.banner-mode=off",
+                                "--spring.threads.virtual.enabled=" + options.virtualThreads(),
+                                "--profile-service.url=" + profileServiceUrl,
+                                "--logging.level.root=" + options.logLevel(),
+                                "--logging.level.com.datadog=" + options.logLevel(),
+                                "--logging.level.org.zalando.logbook=" + options.logLevel());
+                target = "http://127.0.0.1:" + userService.getEnvironment().getProperty("local.server.port");
+            }
+
+            if (options.scenario().equals(LoadTestOptions.IN_FLIGHT)) {
+                if (userService == null || stub == null) {
+                    throw new IllegalArgumentException(
+                            "The in-flight scenario needs the in-process user-service and profile-service stub");
+                }
+                InFlightReport report = new InFlightBenchmark(URI.create(target), options, objectMapper, stub).run();
+                report.print(System.out);
+                write(objectMapper, options, report);
+                return;
+            }
+
+            LoadGenerator generator = new LoadGenerator(URI.create(target), options, objectMapper);
+            System.out.printf("Seeding %d users on %s%n", options.users(), target);
+            generator.seed();
+            System.out.printf("Warming up for %s%n", options.warmup());
+            generator.run(options.warmup(), false);
+            System.out.printf("Measuring for %s%n", options.duration());
+            LoadReport report = generator.run(options.duration(), true);
+            if (stub != null) {
+                report = report.withStub(new LoadReport.Stub(
+                        options.stubLatency().toMillis(),
+                        options.stubJitter().toMillis(),
+                        options.stubErrorRate(),
+                        stub.requests(),
+                        stub.injectedErrors()));
+            }
+
+            report.print(System.out);
+            write(objectMapper, options, report);
+        } finally {
+            if (userService != null) {
+                userService.close();
+            }
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
+
+    private static void write(ObjectMapper objectMapper, LoadTestOptions options, Object report) throws IOException {
+        Path file = Path.of(options.report());
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        System.out.printf("Report written to %s%n", file.toAbsolutePath());
+    }
+}
@@ -0,0 +1,122 @@
+package com.datadog.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Command-line options of {@link LoadTest}, given as {@code --name=value}. Durations accept the same forms as Spring
+ * properties ({@code 250ms}, {@code 30s}).
+ *
+ * @param target base URL of a running user-service; empty to start one in-process against {@code profileServiceUrl}
+ * @param profileServiceUrl profile-service for the in-process user-service; empty to start the stub
+ * @param stubLatency fixed delay added to every stub response
+ * @param stubJitter upper bound of an extra, uniformly distributed delay per stub response
+ * @param stubErrorRate fraction of stub responses that fail with 503
+ * @param profileEntries addresses and educations in each stubbed profile
+ * @param users users created before the run, so reads, updates and deletes have targets
+ * @param concurrency concurrent virtual-thread clients
+ * @param rate total requests per second to schedule, or 0 to send each request as soon as the previous returns;
+ *     when set, latency is measured from the scheduled start so a stalled server is not hidden (coordinated omission)
+ * @param warmup time spent before recording
+ * @param duration time spent recording
+ * @param mix weights of the operations, for example {@code create=10,get-details=60,list=10,update=15,delete=5}
+ * @param report JSON file the results are written to
+ * @param logLevel log level of the in-process user-service
+ * @param scenario {@code mix} for the operation mix, or {@code in-flight} for {@link InFlightBenchmark}
+ * @param virtualThreads whether the in-process user-service runs Tomcat on virtual threads
+ * @param inFlight burst sizes of the {@code in-flight} scenario
+ * @param inFlightOperation details call the {@code in-flight} scenario sends, {@code get-details} or
+ *     {@code get-details-async}
+ */
+public record LoadTestOptions(
+        String target,
+        String profileServiceUrl,
+        Duration stubLatency,
+        Duration stubJitter,
+        double stubErrorRate,
+        int profileEntries,
+        int users,
+        int concurrency,
+        int rate,
+        Duration warmup,
+        Duration duration,
+        OperationMix mix,
+        String report,
+        String logLevel,
+        String scenario,
+        boolean virtualThreads,
+        List<Integer> inFlight,
+        Operation inFlightOperation) {
+
+    public static final String MIX = "mix";
+    public static final String IN_FLIGHT = "in-flight";
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("target", ""),
+            Map.entry("profile-service-url", ""),
+            Map.entry("stub-latency", "20ms"),
+            Map.entry("stub-jitter", "10ms"),
+            Map.entry("stub-error-rate", "0"),
+            Map.entry("profile-entries", "2"),
+            Map.entry("users", "1000"),
+            Map.entry("concurrency", "64"),
+            Map.entry("rate", "0"),
+            Map.entry("warmup", "10s"),
+            Map.entry("duration", "30s"),
+            Map.entry("mix", "create=10,get-details=60,list=10,update=15,delete=5"),
+            Map.entry("report", "load-test-report.json"),
+            Map.entry("log-level", "WARN"),
+            Map.entry("scenario", MIX),
+            Map.entry("virtual-threads", "false"),
+            Map.entry("in-flight", "100,200,400,800,1600"),
+            Map.entry("in-flight-operation", Operation.GET_DETAILS.label()));
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException(
+                        "Unknown option: --" + name + ", expected one of " + DEFAULTS.keySet());
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        Operation inFlightOperation = Operation.fromLabel(values.get("in-flight-operation"));
+        if (inFlightOperation != Operation.GET_DETAILS && inFlightOperation != Operation.GET_DETAILS_ASYNC) {
+            throw new IllegalArgumentException("The in-flight scenario sends get-details or get-details-async");
+        }
+        String scenario = values.get("scenario");
+        if (!scenario.equals(MIX) && !scenario.equals(IN_FLIGHT)) {
+            throw new IllegalArgumentException("Unknown scenario: " + scenario + ", expected mix or in-flight");
+        }
+        return new LoadTestOptions(
+                values.get("target"),
+                values.get("profile-service-url"),
+                DurationStyle.detectAndParse(values.get("stub-latency")),
+                DurationStyle.detectAndParse(values.get("stub-jitter")),
+                Double.parseDouble(values.get("stub-error-rate")),
+                Integer.parseInt(values.get("profile-entries")),
+                Integer.parseInt(values.get("users")),
+                Integer.parseInt(values.get("concurrency")),
+                Integer.parseInt(values.get("rate")),
+                DurationStyle.detectAndParse(values.get("warmup")),
+                DurationStyle.detectAndParse(values.get("duration")),
+                OperationMix.parse(values.get("mix")),
+                values.get("report"),
+                values.get("log-level"),
+                scenario,
+                Boolean.parseBoolean(values.get("virtual-threads")),
+                Arrays.stream(values.get("in-flight").split(","))
+                        .map(String::trim)
+                        .map(Integer::valueOf)
+                        .toList(),
+                inFlightOperation);
+    }
+}
@@ -0,0 +1,30 @@
+package com.datadog.loadtest;
+
+/** User-service calls the load generator can issue, named as in the {@code --mix} option. */
+public enum Operation {
+    CREATE("create"),
+    GET_DETAILS("get-details"),
+    GET_DETAILS_ASYNC("get-details-async"),
+    LIST("list"),
+    UPDATE("update"),
+    DELETE("delete");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public static Operation fromLabel(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + label);
+    }
+}
@@ -0,0 +1,51 @@
+package com.datadog.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/** Weighted choice of {@link Operation}s, parsed from {@code create=10,get-details=60,...}. */
+public final class OperationMix {
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] table;
+
+    private OperationMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Operation mix needs at least one positive weight");
+        }
+        this.table = new Operation[total];
+        int position = 0;
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                table[position++] = entry.getKey();
+            }
+        }
+    }
+
+    public static OperationMix parse(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight but got: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + pair[0]);
+            }
+            weights.merge(Operation.fromLabel(pair[0].trim()), weight, Integer::sum);
+        }
+        return new OperationMix(weights);
+    }
+
+    public Operation next(RandomGenerator random) {
+        return table[random.nextInt(table.length)];
+    }
+
+    public Map<Operation, Integer> weights() {
+        return weights;
+    }
+}
@@ -0,0 +1,204 @@
+package com.datadog.loadtest;
+
+import com.datadog.common.dto.AddressDto;
+import com.datadog.common.dto.EducationDto;
+import com.datadog.common.dto.ProfileDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process HTTP stand-in for profile-service, serving the endpoints user-service calls with generated profiles.
+ * Every response is delayed by the configured latency plus a random jitter, and a configurable fraction fails with
+ * 503 so the caller's timeout, fallback and cache paths are exercised.
+ */
+public class ProfileServiceStub implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileServiceStub.class);
+
+    private static final String PROFILES = "/api/profiles/user/";
+    private static final String ADDRESSES = "/api/addresses/user/";
+    private static final String EDUCATIONS = "/api/educations/user/";
+    private static final String BATCH_SUFFIX = "user:batch";
+
+    private final HttpServer server;
+    private final ObjectMapper objectMapper;
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+    private final int entries;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    public ProfileServiceStub(
+            ObjectMapper objectMapper, Duration latency, Duration jitter, double errorRate, int entries)
+            throws IOException {
+        this.objectMapper = objectMapper;
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        this.entries = entries;
+        // A deep backlog, so bursts of connections from the in-flight scenario are not refused.
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/", this::handle);
+        server.start();
+        log.info("Profile-service stub listening on {}", url());
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    /** Requests the stub is serving right now. */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /** Highest number of requests the stub was serving at once since the last {@link #resetPeakInFlight()}. */
+    public int peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public void resetPeakInFlight() {
+        peakInFlight.set(inFlight.get());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try (exchange) {
+            requests.increment();
+            byte[] requestBody = readBody(exchange.getRequestBody());
+            delay();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.increment();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            Object body = respond(
+                    exchange.getRequestMethod(), exchange.getRequestURI().getPath(), requestBody);
+            if (body == null) {
+                // Paths the stub does not serve, including malformed ids.
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, json.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(json);
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private Object respond(String method, String path, byte[] requestBody) throws IOException {
+        if ("POST".equals(method) && path.endsWith(BATCH_SUFFIX)) {
+            Long[] userIds = objectMapper.readValue(requestBody, Long[].class);
+            if (path.startsWith("/api/profiles/")) {
+                return Arrays.stream(userIds).map(this::profile).toList();
+            }
+            return null;
+        }
+        if (!"GET".equals(method)) {
+            return null;
+        }
+        String prefix = path.startsWith(PROFILES)
+                ? PROFILES
+                : path.startsWith(ADDRESSES) ? ADDRESSES : path.startsWith(EDUCATIONS) ? EDUCATIONS : null;
+        Long userId = prefix != null ? userId(path, prefix) : null;
+        if (userId == null) {
+            return null;
+        }
+        ProfileDto profile = profile(userId);
+        if (prefix.equals(ADDRESSES)) {
+            return profile.getAddresses();
+        }
+        return prefix.equals(EDUCATIONS) ? profile.getEducations() : profile;
+    }
+
+    private ProfileDto profile(Long userId) {
+        List<AddressDto> addresses = new ArrayList<>(entries);
+        List<EducationDto> educations = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            long id = userId * entries + i;
+            addresses.add(AddressDto.builder()
+                    .id(id)
+                    .address1(id + " Main Street")
+                    .city("City " + (id % 50))
+                    .pincode(String.valueOf(100000 + id % 900000))
+                    .userId(userId)
+                    .build());
+            educations.add(EducationDto.builder().id(id).stream("Stream " + (id % 20))
+                    .startDate(LocalDate.of(2010, 1, 1).plusDays(id % 3650))
+                    .per(50 + (id % 500) / 10.0)
+                    .userId(userId)
+                    .build());
+        }
+        return ProfileDto.builder()
+                .userId(userId)
+                .addresses(addresses)
+                .educations(educations)
+                .build();
+    }
+
+    private void delay() {
+        long nanos = latency.toNanos();
+        if (!jitter.isZero()) {
+            nanos += ThreadLocalRandom.current().nextLong(jitter.toNanos() + 1);
+        }
+        if (nanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Long userId(String path, String prefix) {
+        try {
+            return Long.valueOf(path.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static byte[] readBody(InputStream body) throws IOException {
+        try (body) {
+            return body.readAllBytes();
+        }
+    }
+}
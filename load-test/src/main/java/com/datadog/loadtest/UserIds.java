@@ -0,0 +1,51 @@
+package com.datadog.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ids of the users the load generator created and has not deleted. Updates and deletes {@link #take} an id so no
+ * two clients mutate the same user at once; reads only {@link #pick} one, so a read can still race a delete and
+ * see a 404.
+ */
+final class UserIds {
+
+    private long[] ids = new long[1024];
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private int size;
+
+    synchronized void add(long id) {
+        if (size == ids.length) {
+            long[] grown = new long[ids.length * 2];
+            System.arraycopy(ids, 0, grown, 0, size);
+            ids = grown;
+        }
+        positions.put(id, size);
+        ids[size++] = id;
+    }
+
+    /** A random live id, or -1 if there is none. */
+    synchronized long pick(RandomGenerator random) {
+        return size == 0 ? -1 : ids[random.nextInt(size)];
+    }
+
+    /** Removes and returns a random live id, or -1 if there is none. */
+    synchronized long take(RandomGenerator random) {
+        if (size == 0) {
+            return -1;
+        }
+        long id = ids[random.nextInt(size)];
+        int position = positions.remove(id);
+        long last = ids[--size];
+        if (last != id) {
+            ids[position] = last;
+            positions.put(last, position);
+        }
+        return id;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
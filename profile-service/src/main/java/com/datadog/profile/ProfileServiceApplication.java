@@ -2,12 +2,14 @@ package com.datadog.profile;
 
 import com.datadog.common.config.CorrelationIdFilter;
 import com.datadog.common.config.LogbookConfig;
+import com.datadog.common.config.PersistenceConfig;
+import com.datadog.common.config.StorageConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
-@Import(value = {CorrelationIdFilter.class, LogbookConfig.class})
+@Import(value = {CorrelationIdFilter.class, LogbookConfig.class, PersistenceConfig.class, StorageConfig.class})
 public class ProfileServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(ProfileServiceApplication.class, args);
@@ -0,0 +1,61 @@
+package com.datadog.profile.config;
+
+import com.datadog.common.config.RequestContextTaskDecorator;
+import com.datadog.common.constant.Constants;
+import com.datadog.profile.event.ApplicationEventProfileChangePublisher;
+import com.datadog.profile.event.ProfileChangePublisher;
+import com.datadog.profile.event.WebhookProfileChangePublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+@Configuration
+@EnableConfigurationProperties(ProfileEventProperties.class)
+public class ProfileEventConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileEventConfig.class);
+
+    @Bean
+    public ProfileChangePublisher profileChangePublisher(
+            ProfileEventProperties properties, ApplicationEventPublisher applicationEventPublisher) {
+        ProfileEventProperties.Transport transport = properties.getTransport();
+        if (transport == ProfileEventProperties.Transport.WEBHOOK && !hasSecret(properties.getWebhook())) {
+            // Subscribers reject unsigned deliveries, so sending them would only fail on every write.
+            log.warn("profile-events.webhook.secret is not set; profile change events are not published and cached"
+                    + " profiles in user-service expire by TTL only");
+            transport = ProfileEventProperties.Transport.NONE;
+        }
+        log.info("Publishing profile change events via {}", transport);
+        return switch (transport) {
+            case NONE -> event -> {};
+            case IN_PROCESS -> new ApplicationEventProfileChangePublisher(applicationEventPublisher);
+            case WEBHOOK -> webhookPublisher(properties.getWebhook());
+        };
+    }
+
+    private static boolean hasSecret(ProfileEventProperties.WebhookProperties webhook) {
+        return webhook.getSecret() != null && !webhook.getSecret().isBlank();
+    }
+
+    private static ProfileChangePublisher webhookPublisher(ProfileEventProperties.WebhookProperties webhook) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(webhook.getConnectTimeout());
+        requestFactory.setReadTimeout(webhook.getReadTimeout());
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("profile-events-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(new RequestContextTaskDecorator(false));
+
+        RestClient restClient = RestClient.builder()
+                .requestFactory(requestFactory)
+                .defaultHeader(Constants.PROFILE_EVENTS_SECRET_HEADER, webhook.getSecret())
+                .build();
+        return new WebhookProfileChangePublisher(restClient, webhook.getUrls(), executor);
+    }
+}
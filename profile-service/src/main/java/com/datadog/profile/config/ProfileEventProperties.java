@@ -0,0 +1,78 @@
+package com.datadog.profile.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "profile-events")
+public class ProfileEventProperties {
+
+    private Transport transport = Transport.NONE;
+    private WebhookProperties webhook = new WebhookProperties();
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public void setTransport(Transport transport) {
+        this.transport = transport;
+    }
+
+    public WebhookProperties getWebhook() {
+        return webhook;
+    }
+
+    public void setWebhook(WebhookProperties webhook) {
+        this.webhook = webhook;
+    }
+
+    public enum Transport {
+        NONE,
+        /** Spring application events within profile-service only; never reaches user-service. */
+        IN_PROCESS,
+        WEBHOOK
+    }
+
+    public static class WebhookProperties {
+        private List<String> urls = List.of();
+        private Duration connectTimeout = Duration.ofSeconds(1);
+        private Duration readTimeout = Duration.ofSeconds(2);
+        /**
+         * Shared secret sent with every delivery; subscribers reject events without it, so the webhook transport
+         * publishes nothing while it is blank.
+         */
+        private String secret;
+
+        public List<String> getUrls() {
+            return urls;
+        }
+
+        public void setUrls(List<String> urls) {
+            this.urls = urls;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+    }
+}
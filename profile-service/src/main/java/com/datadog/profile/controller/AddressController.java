@@ -1,11 +1,18 @@
 package com.datadog.profile.controller;
 
+import static com.datadog.common.constant.Constants.MAX_PAGE_LIMIT;
+import static com.datadog.common.constant.Constants.NEXT_CURSOR_HEADER;
+
+import com.datadog.common.web.JsonStreaming;
 import com.datadog.profile.model.Address;
 import com.datadog.profile.service.AddressService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,9 +20,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/addresses")
@@ -24,9 +33,11 @@ public class AddressController {
     private static final Logger log = LoggerFactory.getLogger(AddressController.class);
 
     private final AddressService addressService;
+    private final ObjectMapper objectMapper;
 
-    public AddressController(AddressService addressService) {
+    public AddressController(AddressService addressService, ObjectMapper objectMapper) {
         this.addressService = addressService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -57,10 +68,32 @@ public class AddressController {
                 });
     }
 
+    @GetMapping(
+            params = {"!page", "!size", "!after", "!limit"},
+            produces = {MediaType.APPLICATION_JSON_VALUE, JsonStreaming.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamAllAddresses(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean ndjson = JsonStreaming.prefersNdjson(accept);
+        log.info("REST request to stream all addresses - ndjson: {}", ndjson);
+        return JsonStreaming.response(objectMapper, addressService.streamAllAddresses(), ndjson);
+    }
+
     @GetMapping
     public ResponseEntity<List<Address>> getAllAddresses(
-            @RequestParam(required = false) Integer page, @RequestParam(required = false) Integer size) {
-        log.info("REST request to get all addresses - page: {}, size: {}", page, size);
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        log.info(
+                "REST request to get all addresses - page: {}, size: {}, after: {}, limit: {}",
+                page,
+                size,
+                after,
+                limit);
+
+        if (after != null || limit != null) {
+            return getAddressesAfter(after, limit);
+        }
 
         List<Address> addresses;
         if (page != null && size != null) {
@@ -74,6 +107,24 @@ public class AddressController {
         return ResponseEntity.ok(addresses);
     }
 
+    private ResponseEntity<List<Address>> getAddressesAfter(Long after, Integer limit) {
+        int pageLimit = limit != null ? limit : MAX_PAGE_LIMIT;
+        if (pageLimit <= 0 || pageLimit > MAX_PAGE_LIMIT) {
+            log.error("REST error getting addresses: limit must be between 1 and {}", MAX_PAGE_LIMIT);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        List<Address> addresses = addressService.getAddressesAfter(after, pageLimit);
+        log.info("REST response - returning {} addresses after id: {}", addresses.size(), after);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (addresses.size() == pageLimit) {
+            Long lastId = addresses.get(pageLimit - 1).getId();
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(lastId));
+        }
+        return response.body(addresses);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<Address>> getAddressesByUserId(@PathVariable Long userId) {
         log.info("REST request to get addresses by userId: {}", userId);
@@ -0,0 +1,53 @@
+package com.datadog.profile.controller;
+
+import com.datadog.profile.model.Profile;
+import com.datadog.profile.service.ProfileService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/profiles")
+public class ProfileController {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileController.class);
+
+    private final ProfileService profileService;
+
+    public ProfileController(ProfileService profileService) {
+        this.profileService = profileService;
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<Profile> getProfileByUserId(@PathVariable Long userId) {
+        log.info("REST request to get profile by userId: {}", userId);
+        Profile profile = profileService.getProfileByUserId(userId);
+        log.info(
+                "REST response - returning {} addresses and {} educations for userId: {}",
+                profile.getAddresses().size(),
+                profile.getEducations().size(),
+                userId);
+        return ResponseEntity.ok(profile);
+    }
+
+    @PostMapping("/user:batch")
+    public ResponseEntity<List<Profile>> getProfilesByUserIds(@RequestBody List<Long> userIds) {
+        log.info("REST request to get profiles for {} userIds", userIds.size());
+        try {
+            List<Profile> profiles = profileService.getProfilesByUserIds(userIds);
+            log.info("REST response - returning {} profiles", profiles.size());
+            return ResponseEntity.ok(profiles);
+        } catch (IllegalArgumentException e) {
+            log.error("REST error getting profiles batch: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+}
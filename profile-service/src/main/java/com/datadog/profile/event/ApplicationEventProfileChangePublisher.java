@@ -0,0 +1,23 @@
+package com.datadog.profile.event;
+
+import com.datadog.common.dto.ProfileChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Delivers events to {@code @EventListener}s in profile-service's own application context. It never reaches a
+ * separately running user-service, whose cache only the webhook transport can evict; meant for tests that listen in
+ * the same context.
+ */
+public class ApplicationEventProfileChangePublisher implements ProfileChangePublisher {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public ApplicationEventProfileChangePublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public void publish(ProfileChangeEvent event) {
+        applicationEventPublisher.publishEvent(event);
+    }
+}
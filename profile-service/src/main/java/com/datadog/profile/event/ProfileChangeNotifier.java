@@ -0,0 +1,36 @@
+package com.datadog.profile.event;
+
+import com.datadog.common.dto.ProfileChangeEvent;
+import com.datadog.common.dto.ProfileChangeEvent.ChangeType;
+import com.datadog.common.dto.ProfileChangeEvent.EntityType;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProfileChangeNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileChangeNotifier.class);
+
+    private final ProfileChangePublisher publisher;
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    public ProfileChangeNotifier(ProfileChangePublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    public void notifyChange(Long userId, EntityType entityType, ChangeType changeType) {
+        if (userId == null) {
+            return;
+        }
+        ProfileChangeEvent event = ProfileChangeEvent.builder()
+                .userId(userId)
+                .entityType(entityType)
+                .changeType(changeType)
+                .version(versionSequence.incrementAndGet())
+                .build();
+        log.debug("Publishing profile change event: {}", event);
+        publisher.publish(event);
+    }
+}
@@ -0,0 +1,12 @@
+package com.datadog.profile.event;
+
+import com.datadog.common.dto.ProfileChangeEvent;
+
+/**
+ * Transport for {@link ProfileChangeEvent}s. Implementations must not block the calling request thread on
+ * delivery and must not throw; a lost event only means a subscriber serves cached data until its TTL expires.
+ */
+public interface ProfileChangePublisher {
+
+    void publish(ProfileChangeEvent event);
+}
@@ -0,0 +1,53 @@
+package com.datadog.profile.event;
+
+import com.datadog.common.dto.ProfileChangeEvent;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+/**
+ * POSTs each event to every configured subscriber URL on a background executor.
+ */
+public class WebhookProfileChangePublisher implements ProfileChangePublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookProfileChangePublisher.class);
+
+    private final RestClient restClient;
+    private final List<String> urls;
+    private final Executor executor;
+
+    public WebhookProfileChangePublisher(RestClient restClient, List<String> urls, Executor executor) {
+        this.restClient = restClient;
+        this.urls = urls;
+        this.executor = executor;
+    }
+
+    @Override
+    public void publish(ProfileChangeEvent event) {
+        for (String url : urls) {
+            executor.execute(() -> deliver(url, event));
+        }
+    }
+
+    private void deliver(String url, ProfileChangeEvent event) {
+        try {
+            restClient
+                    .post()
+                    .uri(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(List.of(event))
+                    .retrieve()
+                    .toBodilessEntity();
+            log.trace("Delivered profile change event version {} to {}", event.getVersion(), url);
+        } catch (Exception e) {
+            log.warn(
+                    "Failed to deliver profile change event for userId: {} to {}, error: {}",
+                    event.getUserId(),
+                    url,
+                    e.getMessage());
+        }
+    }
+}
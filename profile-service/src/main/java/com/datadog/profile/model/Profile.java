@@ -0,0 +1,17 @@
+package com.datadog.profile.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Profile {
+    private Long userId;
+    private List<Address> addresses;
+    private List<Education> educations;
+}
@@ -1,68 +1,201 @@
 package com.datadog.profile.repository;
 
+import com.datadog.common.persistence.RepositoryJournal;
+import com.datadog.common.persistence.RepositoryJournals;
+import com.datadog.common.storage.EntityStore;
+import com.datadog.common.storage.EntityStores;
 import com.datadog.profile.model.Address;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class AddressRepository {
 
-    private final Map<Long, Address> addresses = new ConcurrentHashMap<>();
+    private final EntityStore<Address> addresses;
     private final AtomicLong idGenerator = new AtomicLong(1);
 
+    // Ids in ascending order, for stable offset and keyset pagination without walking the store.
+    private final NavigableSet<Long> sortedIds = new ConcurrentSkipListSet<>();
+
+    // userId -> ids of that user's addresses. userIdsById remembers the indexed owner of each address because
+    // the service mutates the stored instance in place (including userId) before saving it again.
+    private final Map<Long, Set<Long>> idsByUserId = new ConcurrentHashMap<>();
+    private final Map<Long, Long> userIdsById = new ConcurrentHashMap<>();
+
+    private final RepositoryJournal<Address> journal;
+
+    public AddressRepository(RepositoryJournals journals, EntityStores stores) {
+        this.addresses = stores.create(new AddressSlabLayout());
+        this.journal = journals.open("addresses", Address.class, this::streamAll, Address::getId, idGenerator::get);
+        idGenerator.set(journal.recover(
+                address -> addresses.write(address.getId(), id -> store(id, address)),
+                id -> addresses.remove(id, this::remove)));
+    }
+
     public Address save(Address address) {
+        journal.awaitWarm();
         if (address.getId() == null) {
             address.setId(idGenerator.getAndIncrement());
         }
-        addresses.put(address.getId(), address);
+        journal.mutate(() -> addresses.write(address.getId(), id -> {
+            journal.logSave(id, address);
+            return store(id, address);
+        }));
+        journal.sync();
         return address;
     }
 
     public Optional<Address> findById(Long id) {
-        return Optional.ofNullable(addresses.get(id));
+        return journal.lookup(id, addresses::get);
     }
 
     public List<Address> findAll() {
-        return new ArrayList<>(addresses.values());
+        journal.awaitWarm();
+        return collect(sortedIds, 0, Integer.MAX_VALUE);
     }
 
     public List<Address> findByUserId(Long userId) {
-        return addresses.values().stream()
-                .filter(address -> address.getUserId().equals(userId))
-                .collect(Collectors.toList());
+        journal.awaitWarm();
+        Set<Long> ids = idsByUserId.get(userId);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<Address> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Address address = addresses.get(id);
+            if (address != null) {
+                result.add(address);
+            }
+        }
+        return result;
+    }
+
+    public Map<Long, List<Address>> findByUserIds(Collection<Long> userIds) {
+        journal.awaitWarm();
+        Map<Long, List<Address>> result = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            result.put(userId, findByUserId(userId));
+        }
+        return result;
     }
 
     public List<Address> findAll(int page, int size) {
-        List<Address> allAddresses = new ArrayList<>(addresses.values());
-        int start = page * size;
-        int end = Math.min(start + size, allAddresses.size());
+        journal.awaitWarm();
+        return collect(sortedIds, (long) page * size, size);
+    }
 
-        if (start >= allAddresses.size()) {
-            return new ArrayList<>();
-        }
+    public List<Address> findAfter(Long afterId, int limit) {
+        journal.awaitWarm();
+        NavigableSet<Long> ids = afterId == null ? sortedIds : sortedIds.tailSet(afterId, false);
+        return collect(ids, 0, limit);
+    }
 
-        return allAddresses.subList(start, end);
+    /**
+     * Lazily walks all addresses in id order without copying them into a list.
+     */
+    public Stream<Address> streamAll() {
+        journal.awaitWarm();
+        return sortedIds.stream().map(addresses::get).filter(Objects::nonNull);
     }
 
     public int count() {
+        journal.awaitWarm();
         return addresses.size();
     }
 
     public boolean existsById(Long id) {
-        return addresses.containsKey(id);
+        return journal.lookup(id, addresses::get).isPresent();
     }
 
     public void deleteById(Long id) {
-        addresses.remove(id);
+        journal.awaitWarm();
+        delete(id);
+        journal.sync();
     }
 
     public void deleteByUserId(Long userId) {
-        addresses.entrySet().removeIf(entry -> entry.getValue().getUserId().equals(userId));
+        journal.awaitWarm();
+        Set<Long> ids = idsByUserId.get(userId);
+        if (ids != null) {
+            ids.forEach(this::delete);
+        }
+        journal.sync();
+    }
+
+    private void delete(Long id) {
+        journal.mutate(() -> addresses.remove(id, key -> {
+            journal.logDelete(key);
+            remove(key);
+        }));
+    }
+
+    private Address store(long id, Address address) {
+        Long previousUserId = userIdsById.get(id);
+        Long userId = address.getUserId();
+        sortedIds.add(id);
+        if (!Objects.equals(previousUserId, userId)) {
+            unindex(previousUserId, id);
+            index(userId, id);
+        }
+        return address;
+    }
+
+    private void remove(long id) {
+        unindex(userIdsById.get(id), id);
+        sortedIds.remove(id);
+    }
+
+    private void index(Long userId, Long id) {
+        if (userId == null) {
+            return;
+        }
+        userIdsById.put(id, userId);
+        idsByUserId.compute(userId, (key, ids) -> {
+            Set<Long> updated = ids != null ? ids : new ConcurrentSkipListSet<>();
+            updated.add(id);
+            return updated;
+        });
+    }
+
+    private void unindex(Long userId, Long id) {
+        if (userId == null) {
+            return;
+        }
+        userIdsById.remove(id, userId);
+        idsByUserId.computeIfPresent(userId, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private List<Address> collect(Iterable<Long> ids, long skip, int limit) {
+        List<Address> result = new ArrayList<>(Math.min(limit, 1024));
+        for (Long id : ids) {
+            if (result.size() >= limit) {
+                break;
+            }
+            Address address = addresses.get(id);
+            if (address == null) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            result.add(address);
+        }
+        return result;
     }
 }
@@ -0,0 +1,55 @@
+package com.datadog.profile.repository;
+
+import com.datadog.common.storage.SlabLayout;
+import com.datadog.common.storage.SlabRow;
+import com.datadog.profile.model.Address;
+
+public class AddressSlabLayout implements SlabLayout<Address> {
+
+    private static final int USER_ID = 0;
+
+    private static final int AREA = 0;
+    private static final int CITY = 1;
+    private static final int PINCODE = 2;
+
+    private static final int ADDRESS1 = 0;
+    private static final int ADDRESS2 = 1;
+
+    @Override
+    public int longColumns() {
+        return 1;
+    }
+
+    @Override
+    public int stringColumns() {
+        return 3;
+    }
+
+    @Override
+    public int rowStringColumns() {
+        return 2;
+    }
+
+    @Override
+    public void write(Address address, SlabRow row) {
+        row.setLong(USER_ID, address.getUserId());
+        row.setRowString(ADDRESS1, address.getAddress1());
+        row.setRowString(ADDRESS2, address.getAddress2());
+        row.setString(AREA, address.getArea());
+        row.setString(CITY, address.getCity());
+        row.setString(PINCODE, address.getPincode());
+    }
+
+    @Override
+    public Address read(long id, SlabRow row) {
+        return Address.builder()
+                .id(id)
+                .address1(row.getRowString(ADDRESS1))
+                .address2(row.getRowString(ADDRESS2))
+                .area(row.getString(AREA))
+                .city(row.getString(CITY))
+                .pincode(row.getString(PINCODE))
+                .userId(row.getLong(USER_ID))
+                .build();
+    }
+}
@@ -1,68 +1,202 @@
 package com.datadog.profile.repository;
 
+import com.datadog.common.persistence.RepositoryJournal;
+import com.datadog.common.persistence.RepositoryJournals;
+import com.datadog.common.storage.EntityStore;
+import com.datadog.common.storage.EntityStores;
 import com.datadog.profile.model.Education;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class EducationRepository {
 
-    private final Map<Long, Education> educations = new ConcurrentHashMap<>();
+    private final EntityStore<Education> educations;
     private final AtomicLong idGenerator = new AtomicLong(1);
 
+    // Ids in ascending order, for stable offset and keyset pagination without walking the store.
+    private final NavigableSet<Long> sortedIds = new ConcurrentSkipListSet<>();
+
+    // userId -> ids of that user's educations. userIdsById remembers the indexed owner of each education because
+    // the service mutates the stored instance in place (including userId) before saving it again.
+    private final Map<Long, Set<Long>> idsByUserId = new ConcurrentHashMap<>();
+    private final Map<Long, Long> userIdsById = new ConcurrentHashMap<>();
+
+    private final RepositoryJournal<Education> journal;
+
+    public EducationRepository(RepositoryJournals journals, EntityStores stores) {
+        this.educations = stores.create(new EducationSlabLayout());
+        this.journal =
+                journals.open("educations", Education.class, this::streamAll, Education::getId, idGenerator::get);
+        idGenerator.set(journal.recover(
+                education -> educations.write(education.getId(), id -> store(id, education)),
+                id -> educations.remove(id, this::remove)));
+    }
+
     public Education save(Education education) {
+        journal.awaitWarm();
         if (education.getId() == null) {
             education.setId(idGenerator.getAndIncrement());
         }
-        educations.put(education.getId(), education);
+        journal.mutate(() -> educations.write(education.getId(), id -> {
+            journal.logSave(id, education);
+            return store(id, education);
+        }));
+        journal.sync();
         return education;
     }
 
     public Optional<Education> findById(Long id) {
-        return Optional.ofNullable(educations.get(id));
+        return journal.lookup(id, educations::get);
     }
 
     public List<Education> findAll() {
-        return new ArrayList<>(educations.values());
+        journal.awaitWarm();
+        return collect(sortedIds, 0, Integer.MAX_VALUE);
     }
 
     public List<Education> findByUserId(Long userId) {
-        return educations.values().stream()
-                .filter(education -> education.getUserId().equals(userId))
-                .collect(Collectors.toList());
+        journal.awaitWarm();
+        Set<Long> ids = idsByUserId.get(userId);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<Education> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Education education = educations.get(id);
+            if (education != null) {
+                result.add(education);
+            }
+        }
+        return result;
+    }
+
+    public Map<Long, List<Education>> findByUserIds(Collection<Long> userIds) {
+        journal.awaitWarm();
+        Map<Long, List<Education>> result = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            result.put(userId, findByUserId(userId));
+        }
+        return result;
     }
 
     public List<Education> findAll(int page, int size) {
-        List<Education> allEducations = new ArrayList<>(educations.values());
-        int start = page * size;
-        int end = Math.min(start + size, allEducations.size());
+        journal.awaitWarm();
+        return collect(sortedIds, (long) page * size, size);
+    }
 
-        if (start >= allEducations.size()) {
-            return new ArrayList<>();
-        }
+    public List<Education> findAfter(Long afterId, int limit) {
+        journal.awaitWarm();
+        NavigableSet<Long> ids = afterId == null ? sortedIds : sortedIds.tailSet(afterId, false);
+        return collect(ids, 0, limit);
+    }
 
-        return allEducations.subList(start, end);
+    /**
+     * Lazily walks all educations in id order without copying them into a list.
+     */
+    public Stream<Education> streamAll() {
+        journal.awaitWarm();
+        return sortedIds.stream().map(educations::get).filter(Objects::nonNull);
     }
 
     public int count() {
+        journal.awaitWarm();
         return educations.size();
     }
 
     public boolean existsById(Long id) {
-        return educations.containsKey(id);
+        return journal.lookup(id, educations::get).isPresent();
     }
 
     public void deleteById(Long id) {
-        educations.remove(id);
+        journal.awaitWarm();
+        delete(id);
+        journal.sync();
     }
 
     public void deleteByUserId(Long userId) {
-        educations.entrySet().removeIf(entry -> entry.getValue().getUserId().equals(userId));
+        journal.awaitWarm();
+        Set<Long> ids = idsByUserId.get(userId);
+        if (ids != null) {
+            ids.forEach(this::delete);
+        }
+        journal.sync();
+    }
+
+    private void delete(Long id) {
+        journal.mutate(() -> educations.remove(id, key -> {
+            journal.logDelete(key);
+            remove(key);
+        }));
+    }
+
+    private Education store(long id, Education education) {
+        Long previousUserId = userIdsById.get(id);
+        Long userId = education.getUserId();
+        sortedIds.add(id);
+        if (!Objects.equals(previousUserId, userId)) {
+            unindex(previousUserId, id);
+            index(userId, id);
+        }
+        return education;
+    }
+
+    private void remove(long id) {
+        unindex(userIdsById.get(id), id);
+        sortedIds.remove(id);
+    }
+
+    private void index(Long userId, Long id) {
+        if (userId == null) {
+            return;
+        }
+        userIdsById.put(id, userId);
+        idsByUserId.compute(userId, (key, ids) -> {
+            Set<Long> updated = ids != null ? ids : new ConcurrentSkipListSet<>();
+            updated.add(id);
+            return updated;
+        });
+    }
+
+    private void unindex(Long userId, Long id) {
+        if (userId == null) {
+            return;
+        }
+        userIdsById.remove(id, userId);
+        idsByUserId.computeIfPresent(userId, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private List<Education> collect(Iterable<Long> ids, long skip, int limit) {
+        List<Education> result = new ArrayList<>(Math.min(limit, 1024));
+        for (Long id : ids) {
+            if (result.size() >= limit) {
+                break;
+            }
+            Education education = educations.get(id);
+            if (education == null) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            result.add(education);
+        }
+        return result;
     }
 }
@@ -0,0 +1,44 @@
+package com.datadog.profile.repository;
+
+import com.datadog.common.storage.SlabLayout;
+import com.datadog.common.storage.SlabRow;
+import com.datadog.profile.model.Education;
+
+public class EducationSlabLayout implements SlabLayout<Education> {
+
+    private static final int START_DATE = 0;
+    private static final int END_DATE = 1;
+    private static final int PER = 2;
+    private static final int USER_ID = 3;
+
+    private static final int STREAM = 0;
+
+    @Override
+    public int longColumns() {
+        return 4;
+    }
+
+    @Override
+    public int stringColumns() {
+        return 1;
+    }
+
+    @Override
+    public void write(Education education, SlabRow row) {
+        row.setDate(START_DATE, education.getStartDate());
+        row.setDate(END_DATE, education.getEndDate());
+        row.setDouble(PER, education.getPer());
+        row.setLong(USER_ID, education.getUserId());
+        row.setString(STREAM, education.getStream());
+    }
+
+    @Override
+    public Education read(long id, SlabRow row) {
+        return Education.builder().id(id).stream(row.getString(STREAM))
+                .startDate(row.getDate(START_DATE))
+                .endDate(row.getDate(END_DATE))
+                .per(row.getDouble(PER))
+                .userId(row.getLong(USER_ID))
+                .build();
+    }
+}
@@ -1,9 +1,14 @@
 package com.datadog.profile.service;
 
+import com.datadog.common.dto.ProfileChangeEvent.ChangeType;
+import com.datadog.common.dto.ProfileChangeEvent.EntityType;
+import com.datadog.profile.event.ProfileChangeNotifier;
 import com.datadog.profile.model.Address;
 import com.datadog.profile.repository.AddressRepository;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -14,9 +19,11 @@ public class AddressService {
     private static final Logger log = LoggerFactory.getLogger(AddressService.class);
 
     private final AddressRepository addressRepository;
+    private final ProfileChangeNotifier profileChangeNotifier;
 
-    public AddressService(AddressRepository addressRepository) {
+    public AddressService(AddressRepository addressRepository, ProfileChangeNotifier profileChangeNotifier) {
         this.addressRepository = addressRepository;
+        this.profileChangeNotifier = profileChangeNotifier;
     }
 
     public Address createAddress(Address address) {
@@ -29,6 +36,7 @@ public class AddressService {
 
         Address savedAddress = addressRepository.save(address);
         log.info("Address created successfully with id: {}", savedAddress.getId());
+        profileChangeNotifier.notifyChange(savedAddress.getUserId(), EntityType.ADDRESS, ChangeType.CREATED);
         return savedAddress;
     }
 
@@ -59,6 +67,11 @@ public class AddressService {
         return addresses;
     }
 
+    public Stream<Address> streamAllAddresses() {
+        log.info("Streaming all addresses");
+        return addressRepository.streamAll();
+    }
+
     public List<Address> getAllAddresses(int page, int size) {
         log.info("Fetching addresses with pagination - page: {}, size: {}", page, size);
         List<Address> addresses = addressRepository.findAll(page, size);
@@ -66,6 +79,13 @@ public class AddressService {
         return addresses;
     }
 
+    public List<Address> getAddressesAfter(Long afterId, int limit) {
+        log.info("Fetching addresses after id: {}, limit: {}", afterId, limit);
+        List<Address> addresses = addressRepository.findAfter(afterId, limit);
+        log.debug("Found {} addresses after id: {}", addresses.size(), afterId);
+        return addresses;
+    }
+
     public int getTotalCount() {
         log.debug("Getting total address count");
         int count = addressRepository.count();
@@ -89,6 +109,7 @@ public class AddressService {
         }
 
         Address address = existingAddress.get();
+        Long previousUserId = address.getUserId();
         address.setAddress1(addressDetails.getAddress1());
         address.setAddress2(addressDetails.getAddress2());
         address.setArea(addressDetails.getArea());
@@ -98,25 +119,33 @@ public class AddressService {
 
         Address updatedAddress = addressRepository.save(address);
         log.info("Address updated successfully with id: {}", updatedAddress.getId());
+        profileChangeNotifier.notifyChange(updatedAddress.getUserId(), EntityType.ADDRESS, ChangeType.UPDATED);
+        if (!Objects.equals(previousUserId, updatedAddress.getUserId())) {
+            profileChangeNotifier.notifyChange(previousUserId, EntityType.ADDRESS, ChangeType.DELETED);
+        }
         return updatedAddress;
     }
 
     public void deleteAddress(Long id) {
         log.info("Deleting address with id: {}", id);
 
-        if (!addressRepository.existsById(id)) {
+        Optional<Address> existingAddress = addressRepository.findById(id);
+
+        if (existingAddress.isEmpty()) {
             log.error("Address not found for deletion with id: {}", id);
             throw new IllegalArgumentException("Address not found with id: " + id);
         }
 
         addressRepository.deleteById(id);
         log.info("Address deleted successfully with id: {}", id);
+        profileChangeNotifier.notifyChange(existingAddress.get().getUserId(), EntityType.ADDRESS, ChangeType.DELETED);
     }
 
     public void deleteAddressesByUserId(Long userId) {
         log.info("Deleting all addresses for userId: {}", userId);
         addressRepository.deleteByUserId(userId);
         log.info("All addresses deleted successfully for userId: {}", userId);
+        profileChangeNotifier.notifyChange(userId, EntityType.ADDRESS, ChangeType.DELETED);
     }
 
     public boolean existsById(Long id) {
@@ -1,9 +1,14 @@
 package com.datadog.profile.service;
 
+import com.datadog.common.dto.ProfileChangeEvent.ChangeType;
+import com.datadog.common.dto.ProfileChangeEvent.EntityType;
+import com.datadog.profile.event.ProfileChangeNotifier;
 import com.datadog.profile.model.Education;
 import com.datadog.profile.repository.EducationRepository;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -14,9 +19,11 @@ public class EducationService {
     private static final Logger log = LoggerFactory.getLogger(EducationService.class);
 
     private final EducationRepository educationRepository;
+    private final ProfileChangeNotifier profileChangeNotifier;
 
-    public EducationService(EducationRepository educationRepository) {
+    public EducationService(EducationRepository educationRepository, ProfileChangeNotifier profileChangeNotifier) {
         this.educationRepository = educationRepository;
+        this.profileChangeNotifier = profileChangeNotifier;
     }
 
     public Education createEducation(Education education) {
@@ -30,6 +37,7 @@ public class EducationService {
 
         Education savedEducation = educationRepository.save(education);
         log.info("Education created successfully with id: {}", savedEducation.getId());
+        profileChangeNotifier.notifyChange(savedEducation.getUserId(), EntityType.EDUCATION, ChangeType.CREATED);
         return savedEducation;
     }
 
@@ -60,6 +68,11 @@ public class EducationService {
         return educations;
     }
 
+    public Stream<Education> streamAllEducations() {
+        log.info("Streaming all educations");
+        return educationRepository.streamAll();
+    }
+
     public List<Education> getAllEducations(int page, int size) {
         log.info("Fetching educations with pagination - page: {}, size: {}", page, size);
         List<Education> educations = educationRepository.findAll(page, size);
@@ -67,6 +80,13 @@ public class EducationService {
         return educations;
     }
 
+    public List<Education> getEducationsAfter(Long afterId, int limit) {
+        log.info("Fetching educations after id: {}, limit: {}", afterId, limit);
+        List<Education> educations = educationRepository.findAfter(afterId, limit);
+        log.debug("Found {} educations after id: {}", educations.size(), afterId);
+        return educations;
+    }
+
     public int getTotalCount() {
         log.debug("Getting total education count");
         int count = educationRepository.count();
@@ -91,6 +111,7 @@ public class EducationService {
         }
 
         Education education = existingEducation.get();
+        Long previousUserId = education.getUserId();
         education.setStream(educationDetails.getStream());
         education.setStartDate(educationDetails.getStartDate());
         education.setEndDate(educationDetails.getEndDate());
@@ -99,25 +120,34 @@ public class EducationService {
 
         Education updatedEducation = educationRepository.save(education);
         log.info("Education updated successfully with id: {}", updatedEducation.getId());
+        profileChangeNotifier.notifyChange(updatedEducation.getUserId(), EntityType.EDUCATION, ChangeType.UPDATED);
+        if (!Objects.equals(previousUserId, updatedEducation.getUserId())) {
+            profileChangeNotifier.notifyChange(previousUserId, EntityType.EDUCATION, ChangeType.DELETED);
+        }
         return updatedEducation;
     }
 
     public void deleteEducation(Long id) {
         log.info("Deleting education with id: {}", id);
 
-        if (!educationRepository.existsById(id)) {
+        Optional<Education> existingEducation = educationRepository.findById(id);
+
+        if (existingEducation.isEmpty()) {
             log.error("Education not found for deletion with id: {}", id);
             throw new IllegalArgumentException("Education not found with id: " + id);
         }
 
         educationRepository.deleteById(id);
         log.info("Education deleted successfully with id: {}", id);
+        profileChangeNotifier.notifyChange(
+                existingEducation.get().getUserId(), EntityType.EDUCATION, ChangeType.DELETED);
     }
 
     public void deleteEducationsByUserId(Long userId) {
         log.info("Deleting all educations for userId: {}", userId);
         educationRepository.deleteByUserId(userId);
         log.info("All educations deleted successfully for userId: {}", userId);
+        profileChangeNotifier.notifyChange(userId, EntityType.EDUCATION, ChangeType.DELETED);
     }
 
     public boolean existsById(Long id) {
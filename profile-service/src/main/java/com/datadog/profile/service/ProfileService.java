@@ -0,0 +1,68 @@
+package com.datadog.profile.service;
+
+import static com.datadog.common.constant.Constants.MAX_BATCH_SIZE;
+
+import com.datadog.profile.model.Address;
+import com.datadog.profile.model.Education;
+import com.datadog.profile.model.Profile;
+import com.datadog.profile.repository.AddressRepository;
+import com.datadog.profile.repository.EducationRepository;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ProfileService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileService.class);
+
+    private final AddressRepository addressRepository;
+    private final EducationRepository educationRepository;
+
+    public ProfileService(AddressRepository addressRepository, EducationRepository educationRepository) {
+        this.addressRepository = addressRepository;
+        this.educationRepository = educationRepository;
+    }
+
+    public Profile getProfileByUserId(Long userId) {
+        log.info("Fetching profile for userId: {}", userId);
+        List<Address> addresses = addressRepository.findByUserId(userId);
+        List<Education> educations = educationRepository.findByUserId(userId);
+        log.debug("Found {} addresses and {} educations for userId: {}", addresses.size(), educations.size(), userId);
+        return Profile.builder()
+                .userId(userId)
+                .addresses(addresses)
+                .educations(educations)
+                .build();
+    }
+
+    public List<Profile> getProfilesByUserIds(List<Long> userIds) {
+        log.info("Fetching profiles for {} userIds", userIds.size());
+        Set<Long> uniqueIds = new LinkedHashSet<>(userIds);
+        uniqueIds.remove(null);
+
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            log.warn("Batch of {} userIds exceeds the limit of {}", uniqueIds.size(), MAX_BATCH_SIZE);
+            throw new IllegalArgumentException("Batch size exceeds limit of " + MAX_BATCH_SIZE);
+        }
+
+        Map<Long, List<Address>> addresses = addressRepository.findByUserIds(uniqueIds);
+        Map<Long, List<Education>> educations = educationRepository.findByUserIds(uniqueIds);
+
+        List<Profile> profiles = new ArrayList<>(addresses.size());
+        for (Long userId : addresses.keySet()) {
+            profiles.add(Profile.builder()
+                    .userId(userId)
+                    .addresses(addresses.get(userId))
+                    .educations(educations.get(userId))
+                    .build());
+        }
+        log.debug("Built {} profiles", profiles.size());
+        return profiles;
+    }
+}
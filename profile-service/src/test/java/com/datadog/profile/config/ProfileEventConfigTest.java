@@ -0,0 +1,34 @@
+package com.datadog.profile.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datadog.profile.event.ProfileChangePublisher;
+import com.datadog.profile.event.WebhookProfileChangePublisher;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ProfileEventConfigTest {
+
+    @Test
+    void webhookWithoutSecretPublishesNothing() {
+        ProfileChangePublisher publisher = new ProfileEventConfig().profileChangePublisher(webhook(""), event -> {});
+
+        assertThat(publisher).isNotInstanceOf(WebhookProfileChangePublisher.class);
+    }
+
+    @Test
+    void webhookWithSecretDeliversEvents() {
+        ProfileChangePublisher publisher =
+                new ProfileEventConfig().profileChangePublisher(webhook("test-secret"), event -> {});
+
+        assertThat(publisher).isInstanceOf(WebhookProfileChangePublisher.class);
+    }
+
+    private static ProfileEventProperties webhook(String secret) {
+        ProfileEventProperties properties = new ProfileEventProperties();
+        properties.setTransport(ProfileEventProperties.Transport.WEBHOOK);
+        properties.getWebhook().setUrls(List.of("http://localhost:8080/internal/profile-events"));
+        properties.getWebhook().setSecret(secret);
+        return properties;
+    }
+}
@@ -0,0 +1,57 @@
+package com.datadog.profile.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datadog.common.config.PersistenceProperties;
+import com.datadog.common.config.StorageProperties;
+import com.datadog.common.constant.Constants;
+import com.datadog.common.persistence.RepositoryJournals;
+import com.datadog.common.storage.EntityStores;
+import com.datadog.profile.model.Address;
+import com.datadog.profile.model.Profile;
+import com.datadog.profile.repository.AddressRepository;
+import com.datadog.profile.repository.EducationRepository;
+import com.datadog.profile.service.ProfileService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class ProfileControllerTest {
+
+    private final RepositoryJournals journals = new RepositoryJournals(new PersistenceProperties(), new ObjectMapper());
+    private final EntityStores stores = new EntityStores(new StorageProperties());
+    private final AddressRepository addressRepository = new AddressRepository(journals, stores);
+    private final ProfileController controller =
+            new ProfileController(new ProfileService(addressRepository, new EducationRepository(journals, stores)));
+
+    @Test
+    void batchIgnoresNullAndRepeatedIds() {
+        addressRepository.save(Address.builder()
+                .address1("1 Main Road")
+                .city("Pune")
+                .userId(1L)
+                .build());
+
+        ResponseEntity<List<Profile>> response = controller.getProfilesByUserIds(Arrays.asList(1L, null, 2L, 1L));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(Profile::getUserId).containsExactly(1L, 2L);
+        assertThat(response.getBody().get(0).getAddresses()).hasSize(1);
+        assertThat(response.getBody().get(1).getAddresses()).isEmpty();
+    }
+
+    @Test
+    void batchOverTheLimitIsABadRequest() {
+        List<Long> atLimit =
+                LongStream.rangeClosed(1, Constants.MAX_BATCH_SIZE).boxed().toList();
+        List<Long> overLimit =
+                LongStream.rangeClosed(1, Constants.MAX_BATCH_SIZE + 1).boxed().toList();
+
+        assertThat(controller.getProfilesByUserIds(atLimit).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(controller.getProfilesByUserIds(overLimit).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
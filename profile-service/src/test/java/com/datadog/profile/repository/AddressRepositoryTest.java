@@ -0,0 +1,111 @@
+package com.datadog.profile.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datadog.common.config.PersistenceProperties;
+import com.datadog.common.config.StorageProperties;
+import com.datadog.common.persistence.RepositoryJournals;
+import com.datadog.common.storage.EntityStores;
+import com.datadog.profile.model.Address;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class AddressRepositoryTest {
+
+    @ParameterizedTest
+    @EnumSource(StorageProperties.Engine.class)
+    void createdAddressesAreFoundByTheirUser(StorageProperties.Engine engine) {
+        AddressRepository repository = repository(engine);
+        Address home = repository.save(address(1L, "Pune"));
+        Address office = repository.save(address(1L, "Mumbai"));
+        Address other = repository.save(address(2L, "Delhi"));
+
+        assertThat(ids(repository.findByUserId(1L))).containsExactly(home.getId(), office.getId());
+        Map<Long, List<Address>> byUser = repository.findByUserIds(List.of(2L, 1L, 3L));
+        assertThat(byUser).containsOnlyKeys(2L, 1L, 3L);
+        assertThat(ids(byUser.get(2L))).containsExactly(other.getId());
+        assertThat(ids(byUser.get(1L))).containsExactly(home.getId(), office.getId());
+        assertThat(byUser.get(3L)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageProperties.Engine.class)
+    void inPlaceUpdateMovesTheAddressToItsNewUser(StorageProperties.Engine engine) {
+        AddressRepository repository = repository(engine);
+        Address moved = repository.save(address(1L, "Pune"));
+        Address kept = repository.save(address(1L, "Mumbai"));
+
+        // What the service does: change the instance it looked up, userId included, and save it again.
+        Address found = repository.findById(moved.getId()).orElseThrow();
+        found.setUserId(2L);
+        found.setCity("Nagpur");
+        repository.save(found);
+
+        assertThat(ids(repository.findByUserId(1L))).containsExactly(kept.getId());
+        assertThat(repository.findByUserId(2L)).singleElement().satisfies(address -> {
+            assertThat(address.getId()).isEqualTo(moved.getId());
+            assertThat(address.getCity()).isEqualTo("Nagpur");
+        });
+        Map<Long, List<Address>> byUser = repository.findByUserIds(List.of(1L, 2L));
+        assertThat(ids(byUser.get(1L))).containsExactly(kept.getId());
+        assertThat(ids(byUser.get(2L))).containsExactly(moved.getId());
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageProperties.Engine.class)
+    void deletedAddressIsNoLongerFoundByItsUser(StorageProperties.Engine engine) {
+        AddressRepository repository = repository(engine);
+        Address deleted = repository.save(address(1L, "Pune"));
+        Address kept = repository.save(address(1L, "Mumbai"));
+
+        repository.deleteById(deleted.getId());
+
+        assertThat(ids(repository.findByUserId(1L))).containsExactly(kept.getId());
+        assertThat(ids(repository.findByUserIds(List.of(1L)).get(1L))).containsExactly(kept.getId());
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageProperties.Engine.class)
+    void deleteByUserIdRemovesOnlyThatUsersAddresses(StorageProperties.Engine engine) {
+        AddressRepository repository = repository(engine);
+        repository.save(address(1L, "Pune"));
+        repository.save(address(1L, "Mumbai"));
+        Address other = repository.save(address(2L, "Delhi"));
+
+        repository.deleteByUserId(1L);
+
+        assertThat(repository.findByUserId(1L)).isEmpty();
+        assertThat(ids(repository.findByUserId(2L))).containsExactly(other.getId());
+        assertThat(repository.count()).isEqualTo(1);
+
+        // The user's index entry went with the last address, and a new address starts it again.
+        Address added = repository.save(address(1L, "Goa"));
+        Map<Long, List<Address>> byUser = repository.findByUserIds(List.of(1L, 2L));
+        assertThat(ids(byUser.get(1L))).containsExactly(added.getId());
+        assertThat(ids(byUser.get(2L))).containsExactly(other.getId());
+    }
+
+    private static AddressRepository repository(StorageProperties.Engine engine) {
+        StorageProperties storage = new StorageProperties();
+        storage.setEngine(engine);
+        return new AddressRepository(
+                new RepositoryJournals(new PersistenceProperties(), new ObjectMapper()), new EntityStores(storage));
+    }
+
+    private static Address address(Long userId, String city) {
+        return Address.builder()
+                .address1("1 Main Road")
+                .area("Central")
+                .city(city)
+                .pincode("411001")
+                .userId(userId)
+                .build();
+    }
+
+    private static List<Long> ids(List<Address> addresses) {
+        return addresses.stream().map(Address::getId).toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.datadog.profile.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datadog.common.config.PersistenceProperties;
+import com.datadog.common.config.StorageProperties;
+import com.datadog.common.persistence.RepositoryJournals;
+import com.datadog.common.storage.EntityStores;
+import com.datadog.profile.model.Education;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class EducationRepositoryTest {
+
+    @ParameterizedTest
+    @EnumSource(StorageProperties.Engine.class)
+    void createdEducationesAreFoundByTheirUser(StorageProperties.Engine engine) {
+        EducationRepository repository = repository(engine);
+        Education school = repository.save(education(1L, "Science"));
+        Education college = repository.save(education(1L, "Commerce"));
+        Education other = repository.save(education(2L, "Arts"));
+
+        assertThat(ids(repository.findByUserId(1L))).containsExactly(school.getId(), college.getId());
+        Map<Long, List<Education>> byUser = repository.findByUserIds(List.of(2L, 1L, 3L));
+        assertThat(byUser).containsOnlyKeys(2L, 1L, 3L);
+        assertThat(ids(byUser.get(2L))).containsExactly(other.getId());
+        assertThat(ids(byUser.get(1L))).containsExactly(school.getId(), college.getId());
+        assertThat(byUser.get(3L)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageProperties.Engine.class)
+    void inPlaceUpdateMovesTheEducationToItsNewUser(StorageProperties.Engine engine) {
+        EducationRepository repository = repository(engine);
+        Education moved = repository.save(education(1L, "Science"));
+        Education kept = repository.save(education(1L, "Commerce"));
+
+        // What the service does: change the instance it looked up, userId included, and save it again.
+        Education found = repository.findById(moved.getId()).orElseThrow();
+        found.setUserId(2L);
+        found.setStream("Engineering");
+        repository.save(found);
+
+        assertThat(ids(repository.findByUserId(1L))).containsExactly(kept.getId());
+        assertThat(repository.findByUserId(2L)).singleElement().satisfies(education -> {
+            assertThat(education.getId()).isEqualTo(moved.getId());
+            assertThat(education.getStream()).isEqualTo("Engineering");
+        });
+        Map<Long, List<Education>> byUser = repository.findByUserIds(List.of(1L, 2L));
+        assertThat(ids(byUser.get(1L))).containsExactly(kept.getId());
+        assertThat(ids(byUser.get(2L))).containsExactly(moved.getId());
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageProperties.Engine.class)
+    void deletedEducationIsNoLongerFoundByItsUser(StorageProperties.Engine engine) {
+        EducationRepository repository = repository(engine);
+        Education deleted = repository.save(education(1L, "Science"));
+        Education kept = repository.save(education(1L, "Commerce"));
+
+        repository.deleteById(deleted.getId());
+
+        assertThat(ids(repository.findByUserId(1L))).containsExactly(kept.getId());
+        assertThat(ids(repository.findByUserIds(List.of(1L)).get(1L))).containsExactly(kept.getId());
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageProperties.Engine.class)
+    void deleteByUserIdRemovesOnlyThatUsersEducationes(StorageProperties.Engine engine) {
+        EducationRepository repository = repository(engine);
+        repository.save(education(1L, "Science"));
+        repository.save(education(1L, "Commerce"));
+        Education other = repository.save(education(2L, "Arts"));
+
+        repository.deleteByUserId(1L);
+
+        assertThat(repository.findByUserId(1L)).isEmpty();
+        assertThat(ids(repository.findByUserId(2L))).containsExactly(other.getId());
+        assertThat(repository.count()).isEqualTo(1);
+
+        // The user's index entry went with the last education, and a new education starts it again.
+        Education added = repository.save(education(1L, "Law"));
+        Map<Long, List<Education>> byUser = repository.findByUserIds(List.of(1L, 2L));
+        assertThat(ids(byUser.get(1L))).containsExactly(added.getId());
+        assertThat(ids(byUser.get(2L))).containsExactly(other.getId());
+    }
+
+    private static EducationRepository repository(StorageProperties.Engine engine) {
+        StorageProperties storage = new StorageProperties();
+        storage.setEngine(engine);
+        return new EducationRepository(
+                new RepositoryJournals(new PersistenceProperties(), new ObjectMapper()), new EntityStores(storage));
+    }
+
+    private static Education education(Long userId, String stream) {
+        return Education.builder().stream(stream)
+                .startDate(LocalDate.of(2015, 6, 1))
+                .endDate(LocalDate.of(2019, 5, 31))
+                .per(82.5)
+                .userId(userId)
+                .build();
+    }
+
+    private static List<Long> ids(List<Education> educations) {
+        return educations.stream().map(Education::getId).toList();
+    }
+}
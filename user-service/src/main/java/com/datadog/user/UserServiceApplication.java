@@ -3,6 +3,8 @@ package com.datadog.user;
 import com.datadog.common.client.ProfileServiceClient;
 import com.datadog.common.config.InterceptorConfig;
 import com.datadog.common.config.LogbookConfig;
+import com.datadog.common.config.PersistenceConfig;
+import com.datadog.common.config.StorageConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
@@ -13,7 +15,7 @@ import org.springframework.context.annotation.Import;
             org.springframework.cloud.autoconfigure.RefreshAutoConfiguration.class,
             org.springframework.cloud.autoconfigure.LifecycleMvcEndpointAutoConfiguration.class
         })
-@Import(value = {InterceptorConfig.class, LogbookConfig.class})
+@Import(value = {InterceptorConfig.class, LogbookConfig.class, PersistenceConfig.class, StorageConfig.class})
 @EnableFeignClients(clients = {ProfileServiceClient.class})
 public class UserServiceApplication {
     public static void main(String[] args) {
@@ -0,0 +1,122 @@
+package com.datadog.user.cache;
+
+import com.datadog.common.dto.ProfileDto;
+import com.datadog.user.client.CallRejectedException;
+import com.datadog.user.client.ProfileServiceGateway;
+import com.datadog.user.config.ProfileServiceProperties;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache of profile-service data keyed by userId.
+ *
+ * <p>Entries older than {@code refresh-after} are still served while a background reload runs; if that
+ * reload fails the stale entry is kept, so a slow or unavailable profile-service degrades to the last known
+ * data until {@code expire-after} evicts it. While profile-service's circuit is open, refreshes are rejected without
+ * a call and renew the cached entry instead, so cached profiles keep being served for as long as it stays open.
+ *
+ * <p>Misses are loaded on the profile fetch executor, which carries the request context, and the caller waits on
+ * the pending future outside the cache. A synchronous loading cache would block inside the map's per-bin lock
+ * instead, pinning virtual request threads to their carrier for the whole profile-service call.
+ *
+ * <p>Invalidating a user also detaches any profile-service call in flight for them, so the next miss fetches data
+ * newer than the change rather than caching what that earlier call returns.
+ */
+@Component
+public class ProfileCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileCache.class);
+
+    public static final String CACHE_NAME = "profiles";
+
+    private final ProfileServiceGateway profileServiceGateway;
+    private final AsyncLoadingCache<Long, ProfileDto> cache;
+
+    public ProfileCache(
+            ProfileServiceGateway profileServiceGateway,
+            ProfileServiceProperties profileServiceProperties,
+            Executor profileFetchExecutor,
+            Executor profileRefreshExecutor,
+            MeterRegistry meterRegistry) {
+        this.profileServiceGateway = profileServiceGateway;
+        ProfileServiceProperties.CacheProperties properties = profileServiceProperties.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .refreshAfterWrite(properties.getRefreshAfter())
+                .expireAfterWrite(properties.getExpireAfter())
+                .executor(profileRefreshExecutor)
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<>() {
+                    @Override
+                    public CompletableFuture<ProfileDto> asyncLoad(Long userId, Executor executor) {
+                        log.debug("Profile cache miss for userId: {}", userId);
+                        return CompletableFuture.supplyAsync(
+                                () -> profileServiceGateway.getProfile(userId), profileFetchExecutor);
+                    }
+
+                    @Override
+                    public CompletableFuture<Map<Long, ProfileDto>> asyncLoadAll(
+                            Set<? extends Long> userIds, Executor executor) {
+                        log.debug("Profile cache miss for {} userIds", userIds.size());
+                        Set<Long> ids = Set.copyOf(userIds);
+                        return CompletableFuture.supplyAsync(
+                                () -> profileServiceGateway.getProfiles(ids), profileFetchExecutor);
+                    }
+
+                    @Override
+                    public CompletableFuture<ProfileDto> asyncReload(
+                            Long userId, ProfileDto oldValue, Executor executor) {
+                        // Runs on the refresh executor: a refresh can outlive the request that triggered it.
+                        return CompletableFuture.supplyAsync(
+                                () -> {
+                                    try {
+                                        return profileServiceGateway.getProfile(userId);
+                                    } catch (CallRejectedException e) {
+                                        // Renewing the entry keeps it from expiring while profile-service is shed.
+                                        log.debug("Keeping cached profile for userId: {}, {}", userId, e.getMessage());
+                                        return oldValue;
+                                    }
+                                },
+                                executor);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public ProfileDto get(Long userId) {
+        return cache.get(userId).join();
+    }
+
+    /** Returns the profile if it is cached and loaded, without starting or waiting for a load; otherwise null. */
+    public ProfileDto getIfPresent(Long userId) {
+        CompletableFuture<ProfileDto> profile = cache.getIfPresent(userId);
+        return profile != null && profile.isDone() && !profile.isCompletedExceptionally() ? profile.join() : null;
+    }
+
+    public Map<Long, ProfileDto> getAll(Iterable<Long> userIds) {
+        return cache.getAll(userIds).join();
+    }
+
+    public void invalidate(Long userId) {
+        log.debug("Invalidating cached profile for userId: {}", userId);
+        // Detach the call first: a miss between the two steps would otherwise join it and cache its result.
+        profileServiceGateway.forgetProfile(userId);
+        cache.synchronous().invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        log.debug("Invalidating all cached profiles");
+        profileServiceGateway.forgetProfiles();
+        cache.synchronous().invalidateAll();
+    }
+}
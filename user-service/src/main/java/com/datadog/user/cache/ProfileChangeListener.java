@@ -0,0 +1,53 @@
+package com.datadog.user.cache;
+
+import com.datadog.common.dto.ProfileChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached profiles when profile-service reports a change, through the webhook endpoint or, in tests, as an
+ * application event.
+ *
+ * <p>Events are applied in whatever order they arrive: each one only evicts, and {@link ProfileCache#invalidate}
+ * makes the next load fetch anew, so a late or repeated event costs one extra fetch and never restores stale data.
+ * The version is logged for tracing only; profile-service restarts its sequence on every boot.
+ */
+@Component
+public class ProfileChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileChangeListener.class);
+
+    private final ProfileCache profileCache;
+    private final Counter eventsReceived;
+
+    public ProfileChangeListener(ProfileCache profileCache, MeterRegistry meterRegistry) {
+        this.profileCache = profileCache;
+        this.eventsReceived = Counter.builder("profile.change.events")
+                .description("Profile change events applied to the profile cache")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onProfileChange(ProfileChangeEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        log.debug(
+                "Profile {} {} for userId: {} (version {})",
+                event.getEntityType(),
+                event.getChangeType(),
+                event.getUserId(),
+                event.getVersion());
+        profileCache.invalidate(event.getUserId());
+        eventsReceived.increment();
+    }
+
+    public void onProfileChanges(List<ProfileChangeEvent> events) {
+        events.forEach(this::onProfileChange);
+    }
+}
@@ -0,0 +1,9 @@
+package com.datadog.user.client;
+
+/** Thrown instead of calling profile-service when its circuit is open or the endpoint's bulkhead is full. */
+public class CallRejectedException extends RuntimeException {
+
+    public CallRejectedException(String message) {
+        super(message, null, false, false);
+    }
+}
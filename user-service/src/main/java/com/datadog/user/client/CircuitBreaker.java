@@ -0,0 +1,158 @@
+package com.datadog.user.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Count-based circuit breaker. While closed it tracks the outcome of the last {@code windowSize} calls and opens
+ * when at least {@code minimumCalls} were recorded and the failure rate reaches the threshold. An open circuit
+ * rejects calls for {@code openDuration}, then lets {@code halfOpenCalls} trial calls through: if all succeed it
+ * closes, and the first failure opens it again.
+ *
+ * <p>Publishes {@code resilience.circuit.state} (1 for the current {@code state}, 0 otherwise) and counts every
+ * transition in {@code resilience.circuit.transitions} tagged with {@code from} and {@code to}.
+ */
+class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final MeterRegistry meterRegistry;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermitted;
+    private int halfOpenSucceeded;
+
+    CircuitBreaker(
+            String name,
+            int windowSize,
+            int minimumCalls,
+            double failureRateThreshold,
+            Duration openDuration,
+            int halfOpenCalls,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        for (State value : State.values()) {
+            Gauge.builder("resilience.circuit.state", this, breaker -> breaker.state() == value ? 1 : 0)
+                    .tag("name", name)
+                    .tag("state", tag(value))
+                    .register(meterRegistry);
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /** Returns whether a call may go ahead; a permitted call must report exactly one outcome. */
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitted >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenPermitted++;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    /** Reports a permitted call that ended without saying anything about profile-service's health. */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermitted > halfOpenSucceeded) {
+            halfOpenPermitted--;
+        }
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length && outcomes[next]) {
+            failures--;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+        recorded = Math.min(recorded + 1, outcomes.length);
+    }
+
+    private void transitionTo(State to) {
+        State from = state;
+        state = to;
+        switch (to) {
+            case OPEN -> openedAt = System.nanoTime();
+            case HALF_OPEN -> {
+                halfOpenPermitted = 0;
+                halfOpenSucceeded = 0;
+            }
+            case CLOSED -> {
+                recorded = 0;
+                next = 0;
+                failures = 0;
+            }
+        }
+        Counter.builder("resilience.circuit.transitions")
+                .tag("name", name)
+                .tag("from", tag(from))
+                .tag("to", tag(to))
+                .register(meterRegistry)
+                .increment();
+        log.warn("Circuit breaker {} changed from {} to {}", name, from, to);
+    }
+
+    private static String tag(State state) {
+        return state.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,45 @@
+package com.datadog.user.client;
+
+import java.util.Arrays;
+
+/**
+ * The latencies of the most recent successful calls, and percentiles over them. Percentiles are recomputed from a
+ * sorted copy at most every {@value #RESORT_EVERY} records, so reading them on every call stays cheap.
+ */
+class LatencyWindow {
+
+    private static final int RESORT_EVERY = 16;
+
+    private final long[] samples;
+    private final int minSamples;
+    private int count;
+    private int next;
+    private long[] sorted = new long[0];
+    private int recordsSinceSort;
+
+    LatencyWindow(int size, int minSamples) {
+        this.samples = new long[size];
+        this.minSamples = minSamples;
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        recordsSinceSort++;
+    }
+
+    /** Returns the latency at {@code quantile} (0..1) in nanoseconds, or -1 until enough calls were recorded. */
+    synchronized long percentile(double quantile) {
+        if (count < minSamples) {
+            return -1;
+        }
+        if (sorted.length != count || recordsSinceSort >= RESORT_EVERY) {
+            sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            recordsSinceSort = 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.clamp(index, 0, sorted.length - 1)];
+    }
+}
@@ -0,0 +1,148 @@
+package com.datadog.user.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+/**
+ * Connection pool and call metrics of an {@link OkHttpClient}, tagged with {@code client=<name>}.
+ *
+ * <ul>
+ *   <li>{@code okhttp.pool.connection.count} ({@code state=active|idle}) and {@code okhttp.pool.connection.limit}:
+ *       pool occupancy against the idle limit.
+ *   <li>{@code okhttp.calls.in.flight}: calls currently running. More calls than active connections means they
+ *       are multiplexed over HTTP/2 streams.
+ *   <li>{@code okhttp.connections.opened} ({@code protocol}) and {@code okhttp.connections.failed}: new connections;
+ *       a rate close to the request rate is connection churn.
+ *   <li>{@code okhttp.connection.acquire} ({@code reused=true|false}): time from call start until it holds a
+ *       connection, including DNS, connect and TLS for new ones.
+ *   <li>{@code okhttp.requests} ({@code method}, {@code uri}, {@code status}, {@code protocol}): call latency.
+ *       Latency rising with in-flight calls while acquisition stays flat points at head-of-line blocking on a
+ *       shared connection rather than pool exhaustion.
+ * </ul>
+ */
+public class OkHttpClientMetrics implements EventListener.Factory {
+
+    private final String name;
+    private final MeterRegistry meterRegistry;
+    private final Counter connectionsFailed;
+
+    public OkHttpClientMetrics(String name, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        this.connectionsFailed =
+                Counter.builder("okhttp.connections.failed").tag("client", name).register(meterRegistry);
+    }
+
+    /** Registers the pool and dispatcher gauges of a client built with this listener factory. */
+    public void bindTo(OkHttpClient client, int maxIdleConnections) {
+        new OkHttpConnectionPoolMetrics(
+                        client.connectionPool(), "okhttp.pool", Tags.of("client", name), maxIdleConnections)
+                .bindTo(meterRegistry);
+        Gauge.builder("okhttp.calls.in.flight", client.dispatcher(), dispatcher -> dispatcher.runningCallsCount())
+                .tag("client", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public EventListener create(Call call) {
+        return new CallMetrics();
+    }
+
+    /** Per-call state; OkHttp delivers the events of one call sequentially. */
+    private final class CallMetrics extends EventListener {
+
+        private long callStart;
+        private boolean connected;
+        private String status = "IO_ERROR";
+        private String protocol = "none";
+
+        @Override
+        public void callStart(Call call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            connected = true;
+            Counter.builder("okhttp.connections.opened")
+                    .tag("client", name)
+                    .tag("protocol", protocol != null ? protocol.toString() : "none")
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        @Override
+        public void connectFailed(
+                Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol, IOException ioe) {
+            connectionsFailed.increment();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            protocol = connection.protocol().toString();
+            Timer.builder("okhttp.connection.acquire")
+                    .tag("client", name)
+                    .tag("reused", String.valueOf(!connected))
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - callStart, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            status = String.valueOf(response.code());
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            record(call);
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            record(call);
+        }
+
+        private void record(Call call) {
+            Timer.builder("okhttp.requests")
+                    .tag("client", name)
+                    .tag("method", call.request().method())
+                    .tag("uri", uri(call.request()))
+                    .tag("status", status)
+                    .tag("protocol", protocol)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - callStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * The Feign path template of the call, or the one an asynchronous client tagged it with, so expanded ids do not
+     * multiply the time series.
+     */
+    private static String uri(okhttp3.Request request) {
+        String template = request.tag(String.class);
+        if (template != null) {
+            return template;
+        }
+        feign.Request feignRequest = request.tag(feign.Request.class);
+        if (feignRequest == null
+                || feignRequest.requestTemplate() == null
+                || feignRequest.requestTemplate().methodMetadata() == null) {
+            return "none";
+        }
+        return feignRequest.requestTemplate().methodMetadata().template().path();
+    }
+}
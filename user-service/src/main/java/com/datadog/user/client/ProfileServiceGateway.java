@@ -0,0 +1,119 @@
+package com.datadog.user.client;
+
+import com.datadog.common.client.ProfileServiceClient;
+import com.datadog.common.config.DownstreamFailures;
+import com.datadog.common.dto.ProfileDto;
+import com.datadog.user.config.ProfileServiceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calls to profile-service through {@link ResilientCalls}. Failures, timeouts and rejected calls surface as
+ * exceptions so callers (and the profile cache) can decide between stale data and an empty fallback. Each failure is
+ * also recorded in {@link DownstreamFailures}, so the request that saw it is logged in full.
+ */
+@Component
+public class ProfileServiceGateway {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileServiceGateway.class);
+
+    private final ProfileServiceClient profileServiceClient;
+    private final ResilientCalls resilientCalls;
+    private final SingleFlight<Long, ProfileDto> profileFlights;
+    private final DownstreamFailures downstreamFailures;
+
+    public ProfileServiceGateway(
+            ProfileServiceClient profileServiceClient,
+            ProfileServiceProperties profileServiceProperties,
+            Executor profileFetchExecutor,
+            MeterRegistry meterRegistry,
+            DownstreamFailures downstreamFailures) {
+        this.profileServiceClient = profileServiceClient;
+        this.downstreamFailures = downstreamFailures;
+        this.resilientCalls = new ResilientCalls(
+                "profile-service",
+                profileServiceProperties.getTimeout(),
+                profileServiceProperties.getResilience(),
+                profileFetchExecutor,
+                meterRegistry);
+        this.profileFlights = new SingleFlight<>("profile-service.profile", meterRegistry);
+    }
+
+    public ProfileDto getProfile(Long userId) {
+        // Concurrent requests for the same user share one in-flight call, whether they come from cache misses,
+        // background refreshes or uncached callers.
+        return recordingFailures(() -> profileFlights.execute(userId, () -> {
+            ProfileDto profile = resilientCalls.execute("profile", () -> {
+                log.debug("Fetching profile for userId: {}", userId);
+                return profileServiceClient.getProfileByUserId(userId);
+            });
+            return withDefaults(profile, userId);
+        }));
+    }
+
+    /** Makes later {@link #getProfile} calls for {@code userId} fetch anew instead of joining one in flight. */
+    public void forgetProfile(Long userId) {
+        profileFlights.forget(userId);
+    }
+
+    public void forgetProfiles() {
+        profileFlights.forgetAll();
+    }
+
+    public Map<Long, ProfileDto> getProfiles(Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        List<ProfileDto> fetched = recordingFailures(() -> resilientCalls.execute("profiles", () -> {
+            log.debug("Fetching profiles for {} userIds", ids.size());
+            return profileServiceClient.getProfilesByUserIds(ids);
+        }));
+
+        Map<Long, ProfileDto> profiles = new HashMap<>();
+        if (fetched != null) {
+            for (ProfileDto profile : fetched) {
+                profiles.put(profile.getUserId(), withDefaults(profile, profile.getUserId()));
+            }
+        }
+        return profiles;
+    }
+
+    /** Records failures on the calling thread, whose MDC holds the correlation ID of the request that waits. */
+    private <T> T recordingFailures(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            downstreamFailures.record();
+            throw e;
+        }
+    }
+
+    public static ProfileDto emptyProfile(Long userId) {
+        return ProfileDto.builder()
+                .userId(userId)
+                .addresses(Collections.emptyList())
+                .educations(Collections.emptyList())
+                .build();
+    }
+
+    private static ProfileDto withDefaults(ProfileDto profile, Long userId) {
+        if (profile == null) {
+            return emptyProfile(userId);
+        }
+        if (profile.getAddresses() == null) {
+            profile.setAddresses(Collections.emptyList());
+        }
+        if (profile.getEducations() == null) {
+            profile.setEducations(Collections.emptyList());
+        }
+        return profile;
+    }
+}
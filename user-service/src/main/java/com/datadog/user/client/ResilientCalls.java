@@ -0,0 +1,263 @@
+package com.datadog.user.client;
+
+import com.datadog.user.config.ProfileServiceProperties;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs calls to one downstream service on {@code executor} with, per named endpoint:
+ *
+ * <ul>
+ *   <li>an adaptive timeout: {@code timeout-multiplier} times the {@code timeout-percentile} latency of recent
+ *       successful calls, between {@code min-timeout} and the configured {@code timeout};
+ *   <li>one extra attempt, sent when the first is slower than the {@code hedge-percentile} latency (a hedge) or
+ *       fails (a retry), if the {@link RetryBudget} allows it; the first successful attempt wins;
+ *   <li>a bulkhead of {@code max-concurrent-calls} that rejects calls instead of queueing them.
+ * </ul>
+ *
+ * <p>All endpoints share one {@link CircuitBreaker}. Timeouts and server errors count as failures; client errors
+ * (4xx) and rejections do not. A rejected call fails immediately with {@link CallRejectedException}, which leaves
+ * callers to serve cached data or their fallback. Other failures surface as {@link CompletionException}.
+ *
+ * <p>Publishes {@code resilience.calls} ({@code endpoint}, {@code outcome}), {@code resilience.attempts}
+ * ({@code endpoint}, {@code kind=hedge|retry}), {@code resilience.budget.exhausted}, {@code resilience.budget.tokens},
+ * {@code resilience.timeout} and {@code resilience.bulkhead.in.use}, besides the circuit breaker's meters.
+ */
+public class ResilientCalls {
+
+    private final String name;
+    private final Duration maxTimeout;
+    private final ProfileServiceProperties.ResilienceProperties properties;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+    private final Counter budgetExhausted;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public ResilientCalls(
+            String name,
+            Duration timeout,
+            ProfileServiceProperties.ResilienceProperties properties,
+            Executor executor,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxTimeout = timeout;
+        this.properties = properties;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = new CircuitBreaker(
+                name,
+                properties.getFailureWindow(),
+                properties.getMinimumCalls(),
+                properties.getFailureRateThreshold(),
+                properties.getOpenDuration(),
+                properties.getHalfOpenCalls(),
+                meterRegistry);
+        this.retryBudget = new RetryBudget(properties.getRetryBudgetRatio(), properties.getRetryBudgetMaxTokens());
+        this.budgetExhausted =
+                Counter.builder("resilience.budget.exhausted").tag("name", name).register(meterRegistry);
+        Gauge.builder("resilience.budget.tokens", retryBudget, RetryBudget::tokens)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(String endpoint, Supplier<T> call) {
+        if (!properties.isEnabled()) {
+            // A call that times out keeps running unobserved, with only the request context captured when it was
+            // submitted; if it has not started yet, the timed-out future keeps it from running at all.
+            return CompletableFuture.supplyAsync(call, executor)
+                    .orTimeout(maxTimeout.toNanos(), TimeUnit.NANOSECONDS)
+                    .join();
+        }
+
+        Endpoint target = endpoints.computeIfAbsent(endpoint, Endpoint::new);
+        if (!circuitBreaker.tryAcquirePermission()) {
+            target.outcome("circuit-open").increment();
+            throw new CallRejectedException("Circuit breaker " + name + " is open");
+        }
+        if (!target.bulkhead.tryAcquire()) {
+            circuitBreaker.onIgnored();
+            target.outcome("bulkhead-full").increment();
+            throw new CallRejectedException("Bulkhead " + name + "/" + endpoint + " is full");
+        }
+        retryBudget.deposit();
+
+        long timeout = target.timeoutNanos();
+        Attempts<T> attempts = new Attempts<>(target, call);
+        attempts.launch();
+        long hedgeDelay = target.hedgeDelayNanos();
+        if (hedgeDelay > 0 && hedgeDelay < timeout) {
+            // Submitted from the calling thread, so the hedged attempt carries the same request context.
+            executor.execute(() -> attempts.hedgeAfter(hedgeDelay));
+        }
+
+        try {
+            T value = attempts.result.orTimeout(timeout, TimeUnit.NANOSECONDS).join();
+            circuitBreaker.onSuccess();
+            target.outcome("success").increment();
+            return value;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                circuitBreaker.onFailure();
+                target.outcome("timeout").increment();
+            } else if (isClientError(e.getCause())) {
+                circuitBreaker.onIgnored();
+                target.outcome("client-error").increment();
+            } else {
+                circuitBreaker.onFailure();
+                target.outcome("failure").increment();
+            }
+            throw e;
+        }
+    }
+
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    private static boolean isClientError(Throwable error) {
+        return error instanceof FeignException feignException
+                && feignException.status() >= 400
+                && feignException.status() < 500;
+    }
+
+    private final class Endpoint {
+
+        private final String endpoint;
+        private final LatencyWindow latencies;
+        private final Semaphore bulkhead;
+
+        Endpoint(String endpoint) {
+            this.endpoint = endpoint;
+            this.latencies = new LatencyWindow(properties.getLatencyWindow(), properties.getMinSamples());
+            this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls());
+            TimeGauge.builder("resilience.timeout", this, TimeUnit.NANOSECONDS, target -> target.timeoutNanos())
+                    .tag("name", name)
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            Gauge.builder(
+                            "resilience.bulkhead.in.use",
+                            bulkhead,
+                            semaphore -> properties.getMaxConcurrentCalls() - semaphore.availablePermits())
+                    .tag("name", name)
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        }
+
+        long timeoutNanos() {
+            long percentile = latencies.percentile(properties.getTimeoutPercentile());
+            if (percentile < 0) {
+                return maxTimeout.toNanos();
+            }
+            long adaptive = (long) (percentile * properties.getTimeoutMultiplier());
+            return Math.clamp(adaptive, properties.getMinTimeout().toNanos(), maxTimeout.toNanos());
+        }
+
+        long hedgeDelayNanos() {
+            return properties.getHedgePercentile() > 0 ? latencies.percentile(properties.getHedgePercentile()) : -1;
+        }
+
+        Counter outcome(String outcome) {
+            return Counter.builder("resilience.calls")
+                    .tag("name", name)
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        Counter attempt(String kind) {
+            return Counter.builder("resilience.attempts")
+                    .tag("name", name)
+                    .tag("endpoint", endpoint)
+                    .tag("kind", kind)
+                    .register(meterRegistry);
+        }
+    }
+
+    /** The attempts of one call. Each attempt holds a bulkhead permit until it completes, even if abandoned. */
+    private final class Attempts<T> {
+
+        private final Endpoint target;
+        private final Supplier<T> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private int pending;
+        private boolean extraSent;
+
+        Attempts(Endpoint target, Supplier<T> call) {
+            this.target = target;
+            this.call = call;
+        }
+
+        /** Starts an attempt; the caller has acquired its bulkhead permit. */
+        synchronized void launch() {
+            pending++;
+            long start = System.nanoTime();
+            CompletableFuture.supplyAsync(call, executor).whenComplete((value, error) -> {
+                target.bulkhead.release();
+                if (error == null) {
+                    target.latencies.record(System.nanoTime() - start);
+                    result.complete(value);
+                } else {
+                    onFailure(error);
+                }
+            });
+        }
+
+        void hedgeAfter(long delayNanos) {
+            try {
+                result.get(delayNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                sendExtra("hedge");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // The call already failed; nothing to hedge.
+            }
+        }
+
+        private synchronized void onFailure(Throwable error) {
+            pending--;
+            Throwable cause =
+                    error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (!isClientError(cause) && sendExtra("retry")) {
+                return;
+            }
+            if (pending == 0) {
+                result.completeExceptionally(error);
+            }
+        }
+
+        private synchronized boolean sendExtra(String kind) {
+            if (result.isDone() || extraSent) {
+                return false;
+            }
+            extraSent = true;
+            if (!target.bulkhead.tryAcquire()) {
+                return false;
+            }
+            if (!retryBudget.tryWithdraw()) {
+                target.bulkhead.release();
+                budgetExhausted.increment();
+                return false;
+            }
+            target.attempt(kind).increment();
+            launch();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.datadog.user.client;
+
+/**
+ * Limits hedged and retried attempts to a fraction of the calls. Every call deposits {@code ratio} tokens, up to
+ * {@code maxTokens}, and every extra attempt withdraws one; when profile-service is struggling the extra load it
+ * gets from retries is therefore bounded, instead of multiplying with every caller.
+ */
+class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    RetryBudget(double ratio, int maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    synchronized double tokens() {
+        return tokens;
+    }
+}
@@ -0,0 +1,83 @@
+package com.datadog.user.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller (the leader) runs the call and every
+ * caller that arrives while it is in flight (a follower) waits for and shares its result or failure. Followers
+ * get the exception the leader threw, not a {@link CompletionException} wrapping it.
+ *
+ * <p>Publishes {@code singleflight.calls} tagged with {@code role=leader|follower}; the follower share of the
+ * total is the coalescing ratio.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("singleflight.calls")
+                .tag("name", name)
+                .tag("role", "leader")
+                .register(meterRegistry);
+        this.followers = Counter.builder("singleflight.calls")
+                .tag("name", name)
+                .tag("role", "follower")
+                .register(meterRegistry);
+        Gauge.builder("singleflight.in.flight", inFlight, Map::size)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Detaches the in-flight call for {@code key}, if any, so that callers arriving afterwards start a new one rather
+     * than share a call that began before the data changed. Callers already waiting still get its result.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            followers.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                // The leader only fails with unchecked throwables; rethrow its own, as it saw it.
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        leaders.increment();
+        try {
+            V value = call.get();
+            leader.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+}
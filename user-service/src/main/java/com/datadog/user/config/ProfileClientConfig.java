@@ -0,0 +1,92 @@
+package com.datadog.user.config;
+
+import com.datadog.common.client.AsyncProfileServiceClient;
+import com.datadog.common.config.RequestContextTaskDecorator;
+import com.datadog.common.feign.OkHttpFeignClient;
+import com.datadog.user.client.OkHttpClientMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Client;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+@Configuration
+@EnableConfigurationProperties(ProfileServiceProperties.class)
+public class ProfileClientConfig {
+
+    @Bean
+    public SimpleAsyncTaskExecutor profileFetchExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("profile-fetch-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        return executor;
+    }
+
+    @Bean
+    public OkHttpClient profileServiceHttpClient(
+            OkHttpClient.Builder okHttpClientBuilder,
+            ProfileServiceProperties properties,
+            MeterRegistry meterRegistry) {
+        ProfileServiceProperties.HttpProperties http = properties.getHttp();
+        OkHttpClientMetrics metrics = new OkHttpClientMetrics("profile-service", meterRegistry);
+        // Start from a copy so the shared builder (Logbook and gzip interceptors, dispatcher) is left untouched.
+        OkHttpClient.Builder builder = okHttpClientBuilder
+                .build()
+                .newBuilder()
+                .connectionPool(new ConnectionPool(
+                        http.getMaxIdleConnections(), http.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .connectTimeout(http.getConnectTimeout())
+                .readTimeout(http.getReadTimeout())
+                .callTimeout(http.getCallTimeout())
+                .eventListenerFactory(metrics);
+        if (http.isHttp2()) {
+            builder.protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+        }
+        if (!http.isCompression()) {
+            // OkHttp only asks for gzip when the request does not name an encoding itself.
+            builder.addInterceptor(chain -> chain.proceed(chain.request()
+                    .newBuilder()
+                    .header("Accept-Encoding", "identity")
+                    .build()));
+        }
+        OkHttpClient client = builder.build();
+        metrics.bindTo(client, http.getMaxIdleConnections());
+        return client;
+    }
+
+    @Bean
+    public Client feignClient(OkHttpClient profileServiceHttpClient) {
+        return new OkHttpFeignClient(profileServiceHttpClient);
+    }
+
+    @Bean
+    public Request.Options feignRequestOptions(ProfileServiceProperties properties) {
+        // Matches the OkHttp client's timeouts, so Feign calls use it as is instead of a derived copy.
+        ProfileServiceProperties.HttpProperties http = properties.getHttp();
+        return new Request.Options(http.getConnectTimeout(), http.getReadTimeout(), true);
+    }
+
+    @Bean
+    public AsyncProfileServiceClient asyncProfileServiceClient(
+            OkHttpClient profileServiceHttpClient, ProfileServiceProperties properties, ObjectMapper objectMapper) {
+        return new AsyncProfileServiceClient(
+                profileServiceHttpClient, properties.getUrl(), objectMapper, properties.getTimeout());
+    }
+
+    @Bean
+    public SimpleAsyncTaskExecutor profileRefreshExecutor() {
+        // Background cache refreshes outlive the request that triggered them, so only the MDC is carried over.
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("profile-refresh-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(new RequestContextTaskDecorator(false));
+        return executor;
+    }
+}
@@ -0,0 +1,368 @@
+package com.datadog.user.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "profile-service")
+public class ProfileServiceProperties {
+
+    private String url;
+    private Duration timeout = Duration.ofSeconds(2);
+    private CacheProperties cache = new CacheProperties();
+    private AsyncProperties async = new AsyncProperties();
+    private HttpProperties http = new HttpProperties();
+    private ResilienceProperties resilience = new ResilienceProperties();
+    private EventsProperties events = new EventsProperties();
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public CacheProperties getCache() {
+        return cache;
+    }
+
+    public void setCache(CacheProperties cache) {
+        this.cache = cache;
+    }
+
+    public AsyncProperties getAsync() {
+        return async;
+    }
+
+    public void setAsync(AsyncProperties async) {
+        this.async = async;
+    }
+
+    public HttpProperties getHttp() {
+        return http;
+    }
+
+    public void setHttp(HttpProperties http) {
+        this.http = http;
+    }
+
+    public ResilienceProperties getResilience() {
+        return resilience;
+    }
+
+    public void setResilience(ResilienceProperties resilience) {
+        this.resilience = resilience;
+    }
+
+    public EventsProperties getEvents() {
+        return events;
+    }
+
+    public void setEvents(EventsProperties events) {
+        this.events = events;
+    }
+
+    public static class CacheProperties {
+        private long maximumSize = 10_000;
+        private Duration refreshAfter = Duration.ofSeconds(30);
+        private Duration expireAfter = Duration.ofMinutes(10);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getRefreshAfter() {
+            return refreshAfter;
+        }
+
+        public void setRefreshAfter(Duration refreshAfter) {
+            this.refreshAfter = refreshAfter;
+        }
+
+        public Duration getExpireAfter() {
+            return expireAfter;
+        }
+
+        public void setExpireAfter(Duration expireAfter) {
+            this.expireAfter = expireAfter;
+        }
+    }
+
+    /** Settings of the {@code /internal/profile-events} webhook that profile-service posts change events to. */
+    public static class EventsProperties {
+        /** Shared secret profile-service must send; every event is rejected while it is unset. */
+        private String secret;
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+    }
+
+    /** Settings of the non-blocking client used by {@code GET /api/users/{id}/details:async}. */
+    public static class AsyncProperties {
+        /** Time allowed for the addresses call before its fallback is used. */
+        private Duration addressesTimeout = Duration.ofSeconds(1);
+        /** Time allowed for the educations call before its fallback is used. */
+        private Duration educationsTimeout = Duration.ofSeconds(1);
+
+        public Duration getAddressesTimeout() {
+            return addressesTimeout;
+        }
+
+        public void setAddressesTimeout(Duration addressesTimeout) {
+            this.addressesTimeout = addressesTimeout;
+        }
+
+        public Duration getEducationsTimeout() {
+            return educationsTimeout;
+        }
+
+        public void setEducationsTimeout(Duration educationsTimeout) {
+            this.educationsTimeout = educationsTimeout;
+        }
+    }
+
+    /** Settings of the pooled OkHttp transport behind {@code ProfileServiceClient}. */
+    public static class HttpProperties {
+        /** Idle connections kept open for reuse; busy connections are not limited. */
+        private int maxIdleConnections = 32;
+        /** How long an idle connection is kept; keep it below profile-service's keep-alive timeout. */
+        private Duration keepAlive = Duration.ofSeconds(30);
+        /** Time allowed to establish a connection. */
+        private Duration connectTimeout = Duration.ofSeconds(1);
+        /** Time allowed between reads of the response. */
+        private Duration readTimeout = Duration.ofSeconds(2);
+        /** Time allowed for a whole call, including connecting and reading the body; 0 means none. */
+        private Duration callTimeout = Duration.ofSeconds(2);
+        /** Talk HTTP/2 over cleartext (h2c, prior knowledge); profile-service needs server.http2.enabled. */
+        private boolean http2 = false;
+        /** Ask for gzip-compressed responses. */
+        private boolean compression = true;
+
+        public int getMaxIdleConnections() {
+            return maxIdleConnections;
+        }
+
+        public void setMaxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getCallTimeout() {
+            return callTimeout;
+        }
+
+        public void setCallTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+        }
+
+        public boolean isHttp2() {
+            return http2;
+        }
+
+        public void setHttp2(boolean http2) {
+            this.http2 = http2;
+        }
+
+        public boolean isCompression() {
+            return compression;
+        }
+
+        public void setCompression(boolean compression) {
+            this.compression = compression;
+        }
+    }
+
+    /** Adaptive timeouts, hedging, retry budget, circuit breaker and bulkheads around profile-service calls. */
+    public static class ResilienceProperties {
+        /** Apply the policies below; when off every call simply waits up to {@code timeout}. */
+        private boolean enabled = true;
+        /** Latency percentile of recent calls that the adaptive timeout is derived from. */
+        private double timeoutPercentile = 0.99;
+        /** Headroom applied to that percentile; {@code timeout} stays the upper bound. */
+        private double timeoutMultiplier = 2.0;
+        /** Lower bound of the adaptive timeout. */
+        private Duration minTimeout = Duration.ofMillis(100);
+        /** Successful calls per endpoint the percentiles are computed over. */
+        private int latencyWindow = 256;
+        /** Calls needed before timeouts adapt and hedging starts; until then {@code timeout} applies. */
+        private int minSamples = 20;
+        /** Latency percentile after which a hedged attempt is sent; 0 disables hedging. */
+        private double hedgePercentile = 0.95;
+        /** Extra attempts (hedges and retries) allowed per call, on average. */
+        private double retryBudgetRatio = 0.1;
+        /** Extra attempts that can be saved up for a burst. */
+        private int retryBudgetMaxTokens = 10;
+        /** Calls whose outcome the circuit breaker looks at. */
+        private int failureWindow = 50;
+        /** Calls needed in the window before the circuit can open. */
+        private int minimumCalls = 20;
+        /** Failure rate at which the circuit opens. */
+        private double failureRateThreshold = 0.5;
+        /** How long an open circuit rejects calls before trying again. */
+        private Duration openDuration = Duration.ofSeconds(10);
+        /** Trial calls that must succeed to close the circuit again. */
+        private int halfOpenCalls = 3;
+        /** Concurrent calls allowed per endpoint, extra attempts included. */
+        private int maxConcurrentCalls = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getTimeoutPercentile() {
+            return timeoutPercentile;
+        }
+
+        public void setTimeoutPercentile(double timeoutPercentile) {
+            this.timeoutPercentile = timeoutPercentile;
+        }
+
+        public double getTimeoutMultiplier() {
+            return timeoutMultiplier;
+        }
+
+        public void setTimeoutMultiplier(double timeoutMultiplier) {
+            this.timeoutMultiplier = timeoutMultiplier;
+        }
+
+        public Duration getMinTimeout() {
+            return minTimeout;
+        }
+
+        public void setMinTimeout(Duration minTimeout) {
+            this.minTimeout = minTimeout;
+        }
+
+        public int getLatencyWindow() {
+            return latencyWindow;
+        }
+
+        public void setLatencyWindow(int latencyWindow) {
+            this.latencyWindow = latencyWindow;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public double getHedgePercentile() {
+            return hedgePercentile;
+        }
+
+        public void setHedgePercentile(double hedgePercentile) {
+            this.hedgePercentile = hedgePercentile;
+        }
+
+        public double getRetryBudgetRatio() {
+            return retryBudgetRatio;
+        }
+
+        public void setRetryBudgetRatio(double retryBudgetRatio) {
+            this.retryBudgetRatio = retryBudgetRatio;
+        }
+
+        public int getRetryBudgetMaxTokens() {
+            return retryBudgetMaxTokens;
+        }
+
+        public void setRetryBudgetMaxTokens(int retryBudgetMaxTokens) {
+            this.retryBudgetMaxTokens = retryBudgetMaxTokens;
+        }
+
+        public int getFailureWindow() {
+            return failureWindow;
+        }
+
+        public void setFailureWindow(int failureWindow) {
+            this.failureWindow = failureWindow;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.datadog.user.controller;
+
+import com.datadog.common.constant.Constants;
+import com.datadog.common.dto.ProfileChangeEvent;
+import com.datadog.user.cache.ProfileChangeListener;
+import com.datadog.user.config.ProfileServiceProperties;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Receives profile-service's change events. Events evict cached profiles, so only callers presenting the shared
+ * {@code profile-service.events.secret} are accepted; none are while it is unset.
+ */
+@RestController
+@RequestMapping("/internal/profile-events")
+public class ProfileEventController {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileEventController.class);
+
+    private final ProfileChangeListener profileChangeListener;
+    private final byte[] secret;
+
+    public ProfileEventController(
+            ProfileChangeListener profileChangeListener, ProfileServiceProperties profileServiceProperties) {
+        this.profileChangeListener = profileChangeListener;
+        String configured = profileServiceProperties.getEvents().getSecret();
+        this.secret = configured == null || configured.isBlank() ? null : configured.getBytes(StandardCharsets.UTF_8);
+        if (secret == null) {
+            log.warn("profile-service.events.secret is not set; profile change events will be rejected");
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<Void> receiveProfileEvents(
+            @RequestHeader(name = Constants.PROFILE_EVENTS_SECRET_HEADER, required = false) String presented,
+            @RequestBody List<ProfileChangeEvent> events) {
+        if (!authorized(presented)) {
+            log.warn("Rejected {} profile change events without a valid secret", events.size());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        log.info("REST request to apply {} profile change events", events.size());
+        profileChangeListener.onProfileChanges(events);
+        return ResponseEntity.accepted().build();
+    }
+
+    private boolean authorized(String presented) {
+        // Constant-time, so the secret cannot be guessed byte by byte from response times.
+        return secret != null
+                && presented != null
+                && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+}
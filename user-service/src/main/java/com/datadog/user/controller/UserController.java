@@ -1,12 +1,23 @@
 package com.datadog.user.controller;
 
+import static com.datadog.common.constant.Constants.MAX_PAGE_LIMIT;
+import static com.datadog.common.constant.Constants.NEXT_CURSOR_HEADER;
+
 import com.datadog.common.dto.UserDetailsResponse;
+import com.datadog.common.web.JsonStreaming;
+import com.datadog.common.web.PropagatedContext;
 import com.datadog.user.model.User;
+import com.datadog.user.service.AsyncUserDetailsService;
 import com.datadog.user.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,9 +25,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/users")
@@ -25,9 +38,14 @@ public class UserController {
     private static final Logger log = LoggerFactory.getLogger(UserController.class);
 
     private final UserService userService;
+    private final AsyncUserDetailsService asyncUserDetailsService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService) {
+    public UserController(
+            UserService userService, AsyncUserDetailsService asyncUserDetailsService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.asyncUserDetailsService = asyncUserDetailsService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -58,10 +76,53 @@ public class UserController {
                 });
     }
 
+    @GetMapping("/{id}/details:async")
+    public CompletableFuture<ResponseEntity<UserDetailsResponse>> getUserDetailsAsync(
+            @PathVariable Long id, HttpServletRequest request) {
+        log.info("REST request to get user details asynchronously by id: {}", id);
+        PropagatedContext context = PropagatedContext.of(request);
+        return asyncUserDetailsService
+                .getUserDetailsById(id, context)
+                .thenApply(userDetails -> userDetails.map(ResponseEntity::ok).orElseGet(() -> {
+                    context.run(() -> log.warn("REST response - user not found with id: {}", id));
+                    return ResponseEntity.notFound().build();
+                }));
+    }
+
+    @PostMapping("/details:batch")
+    public ResponseEntity<List<UserDetailsResponse>> getUserDetailsBatch(@RequestBody List<Long> ids) {
+        log.info("REST request to get user details for {} ids", ids.size());
+        try {
+            List<UserDetailsResponse> userDetails = userService.getUserDetailsByIds(ids);
+            log.info("REST response - returning details for {} users", userDetails.size());
+            return ResponseEntity.ok(userDetails);
+        } catch (IllegalArgumentException e) {
+            log.error("REST error getting user details batch: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping(
+            params = {"!page", "!size", "!after", "!limit"},
+            produces = {MediaType.APPLICATION_JSON_VALUE, JsonStreaming.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean ndjson = JsonStreaming.prefersNdjson(accept);
+        log.info("REST request to stream all users - ndjson: {}", ndjson);
+        return JsonStreaming.response(objectMapper, userService.streamAllUsers(), ndjson);
+    }
+
     @GetMapping
     public ResponseEntity<List<User>> getAllUsers(
-            @RequestParam(required = false) Integer page, @RequestParam(required = false) Integer size) {
-        log.info("REST request to get all users - page: {}, size: {}", page, size);
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        log.info("REST request to get all users - page: {}, size: {}, after: {}, limit: {}", page, size, after, limit);
+
+        if (after != null || limit != null) {
+            return getUsersAfter(after, limit);
+        }
 
         List<User> users;
         if (page != null && size != null) {
@@ -75,6 +136,24 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    private ResponseEntity<List<User>> getUsersAfter(Long after, Integer limit) {
+        int pageLimit = limit != null ? limit : MAX_PAGE_LIMIT;
+        if (pageLimit <= 0 || pageLimit > MAX_PAGE_LIMIT) {
+            log.error("REST error getting users: limit must be between 1 and {}", MAX_PAGE_LIMIT);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        List<User> users = userService.getUsersAfter(after, pageLimit);
+        log.info("REST response - returning {} users after id: {}", users.size(), after);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (users.size() == pageLimit) {
+            Long lastId = users.get(pageLimit - 1).getId();
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(lastId));
+        }
+        return response.body(users);
+    }
+
     @GetMapping("/count")
     public ResponseEntity<Integer> getUserCount() {
         log.info("REST request to get user count");
@@ -111,4 +190,18 @@ public class UserController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    @DeleteMapping("/{id}/profile-cache")
+    public ResponseEntity<Void> evictProfile(@PathVariable Long id) {
+        log.info("REST request to evict cached profile for user id: {}", id);
+        userService.evictProfile(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/profile-cache")
+    public ResponseEntity<Void> evictAllProfiles() {
+        log.info("REST request to evict all cached profiles");
+        userService.evictAllProfiles();
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,66 +1,208 @@
 package com.datadog.user.repository;
 
+import com.datadog.common.persistence.RepositoryJournal;
+import com.datadog.common.persistence.RepositoryJournals;
+import com.datadog.common.storage.EntityStore;
+import com.datadog.common.storage.EntityStores;
 import com.datadog.user.model.User;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class UserRepository {
 
-    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final EntityStore<User> users;
     private final AtomicLong idGenerator = new AtomicLong(1);
 
+    // Ids in ascending order, for stable offset and keyset pagination without walking the store.
+    private final NavigableSet<Long> sortedIds = new ConcurrentSkipListSet<>();
+
+    // Unique secondary indexes. Keys are reserved with putIfAbsent so concurrent saves cannot both claim the
+    // same username or email; indexedKeys remembers what each id currently holds because a caller may save
+    // the stored User again after changing it in place.
+    private final Map<String, Long> idsByUsername = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsByEmail = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedKeys> indexedKeys = new ConcurrentHashMap<>();
+
+    private final RepositoryJournal<User> journal;
+
+    public UserRepository(RepositoryJournals journals, EntityStores stores) {
+        this.users = stores.create();
+        this.journal = journals.open("users", User.class, this::streamAll, User::getId, idGenerator::get);
+        idGenerator.set(journal.recover(
+                user -> users.write(user.getId(), key -> index(key, user)), id -> users.remove(id, this::unindex)));
+    }
+
     public User save(User user) {
-        if (user.getId() == null) {
-            user.setId(idGenerator.getAndIncrement());
-            user.setActive(true);
-        }
-        users.put(user.getId(), user);
+        journal.awaitWarm();
+        boolean isNew = user.getId() == null;
+        Long id = isNew ? idGenerator.getAndIncrement() : user.getId();
+
+        journal.mutate(() -> users.write(id, key -> {
+            index(key, user);
+            if (isNew) {
+                user.setId(key);
+                user.setActive(true);
+            }
+            journal.logSave(key, user);
+            return user;
+        }));
+        journal.sync();
         return user;
     }
 
     public Optional<User> findById(Long id) {
-        return Optional.ofNullable(users.get(id));
+        return journal.lookup(id, users::get);
     }
 
     public List<User> findAll() {
-        return new ArrayList<>(users.values());
+        journal.awaitWarm();
+        return collect(sortedIds, 0, Integer.MAX_VALUE);
+    }
+
+    public List<User> findAllById(Collection<Long> ids) {
+        List<User> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            journal.lookup(id, users::get).ifPresent(result::add);
+        }
+        return result;
     }
 
     public List<User> findAll(int page, int size) {
-        List<User> allUsers = new ArrayList<>(users.values());
-        int start = page * size;
-        int end = Math.min(start + size, allUsers.size());
+        journal.awaitWarm();
+        return collect(sortedIds, (long) page * size, size);
+    }
 
-        if (start >= allUsers.size()) {
-            return new ArrayList<>();
-        }
+    public List<User> findAfter(Long afterId, int limit) {
+        journal.awaitWarm();
+        NavigableSet<Long> ids = afterId == null ? sortedIds : sortedIds.tailSet(afterId, false);
+        return collect(ids, 0, limit);
+    }
 
-        return allUsers.subList(start, end);
+    /**
+     * Lazily walks all users in id order without copying them; each element is read from the live map as the
+     * stream advances, so the memory held by a consumer is independent of the number of users.
+     */
+    public Stream<User> streamAll() {
+        journal.awaitWarm();
+        return sortedIds.stream().map(users::get).filter(Objects::nonNull);
     }
 
     public int count() {
+        journal.awaitWarm();
         return users.size();
     }
 
     public boolean existsById(Long id) {
-        return users.containsKey(id);
+        return journal.lookup(id, users::get).isPresent();
     }
 
     public void deleteById(Long id) {
-        users.remove(id);
+        journal.awaitWarm();
+        journal.mutate(() -> users.remove(id, key -> {
+            journal.logDelete(key);
+            unindex(key);
+        }));
+        journal.sync();
     }
 
     public boolean existsByUsername(String username) {
-        return users.values().stream().anyMatch(user -> user.getUsername().equals(username));
+        journal.awaitWarm();
+        return username != null && idsByUsername.containsKey(username);
     }
 
     public boolean existsByEmail(String email) {
-        return users.values().stream().anyMatch(user -> user.getEmail().equals(email));
+        journal.awaitWarm();
+        return email != null && idsByEmail.containsKey(email);
+    }
+
+    private User index(long key, User user) {
+        IndexedKeys previous = indexedKeys.get(key);
+        IndexedKeys current = new IndexedKeys(user.getUsername(), user.getEmail());
+
+        boolean usernameReserved = reserve(idsByUsername, current.username(), key, "Username already exists: ");
+        try {
+            reserve(idsByEmail, current.email(), key, "Email already exists: ");
+        } catch (IllegalArgumentException e) {
+            if (usernameReserved) {
+                idsByUsername.remove(current.username(), key);
+            }
+            throw e;
+        }
+
+        if (previous != null) {
+            if (!Objects.equals(previous.username(), current.username())) {
+                release(idsByUsername, previous.username(), key);
+            }
+            if (!Objects.equals(previous.email(), current.email())) {
+                release(idsByEmail, previous.email(), key);
+            }
+        }
+        indexedKeys.put(key, current);
+        sortedIds.add(key);
+        return user;
     }
+
+    private void unindex(long key) {
+        IndexedKeys previous = indexedKeys.remove(key);
+        if (previous != null) {
+            release(idsByUsername, previous.username(), key);
+            release(idsByEmail, previous.email(), key);
+        }
+        sortedIds.remove(key);
+    }
+
+    /**
+     * Claims {@code value} for {@code id} in the given index.
+     *
+     * @return true if the key was newly reserved by this call, false if {@code id} already held it
+     * @throws IllegalArgumentException if another id holds the key
+     */
+    private static boolean reserve(Map<String, Long> index, String value, Long id, String duplicateMessage) {
+        if (value == null) {
+            return false;
+        }
+        Long owner = index.putIfAbsent(value, id);
+        if (owner != null && !owner.equals(id)) {
+            throw new IllegalArgumentException(duplicateMessage + value);
+        }
+        return owner == null;
+    }
+
+    private static void release(Map<String, Long> index, String value, Long id) {
+        if (value != null) {
+            index.remove(value, id);
+        }
+    }
+
+    private List<User> collect(Iterable<Long> ids, long skip, int limit) {
+        List<User> result = new ArrayList<>(Math.min(limit, 1024));
+        for (Long id : ids) {
+            if (result.size() >= limit) {
+                break;
+            }
+            User user = users.get(id);
+            if (user == null) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            result.add(user);
+        }
+        return result;
+    }
+
+    private record IndexedKeys(String username, String email) {}
 }
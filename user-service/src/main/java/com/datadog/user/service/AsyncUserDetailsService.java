@@ -0,0 +1,120 @@
+package com.datadog.user.service;
+
+import com.datadog.common.client.AsyncProfileServiceClient;
+import com.datadog.common.config.DownstreamFailures;
+import com.datadog.common.dto.AddressDto;
+import com.datadog.common.dto.EducationDto;
+import com.datadog.common.dto.ProfileDto;
+import com.datadog.common.dto.UserDetailsResponse;
+import com.datadog.common.web.PropagatedContext;
+import com.datadog.user.cache.ProfileCache;
+import com.datadog.user.config.ProfileServiceProperties;
+import com.datadog.user.model.User;
+import com.datadog.user.repository.UserRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Non-blocking variant of {@link UserService#getUserDetailsById}. A cached profile is served directly; otherwise the
+ * address and education calls are sent concurrently through {@link AsyncProfileServiceClient} and zipped, each with
+ * its own timeout and an empty-list fallback, so one slow or failing call does not hold up or fail the other. No
+ * thread waits on profile-service while the calls are in flight.
+ *
+ * <p>These calls bypass the resilience layer of the blocking path: no circuit breaker, bulkhead, adaptive timeout,
+ * hedging or retry applies, only the per-call timeouts and fallbacks here.
+ *
+ * <p>Partial results are not written to the profile cache; the blocking path keeps populating it.
+ */
+@Service
+public class AsyncUserDetailsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncUserDetailsService.class);
+
+    private final UserRepository userRepository;
+    private final ProfileCache profileCache;
+    private final AsyncProfileServiceClient profileServiceClient;
+    private final ProfileServiceProperties.AsyncProperties properties;
+    private final DownstreamFailures downstreamFailures;
+
+    public AsyncUserDetailsService(
+            UserRepository userRepository,
+            ProfileCache profileCache,
+            AsyncProfileServiceClient asyncProfileServiceClient,
+            ProfileServiceProperties profileServiceProperties,
+            DownstreamFailures downstreamFailures) {
+        this.userRepository = userRepository;
+        this.profileCache = profileCache;
+        this.profileServiceClient = asyncProfileServiceClient;
+        this.properties = profileServiceProperties.getAsync();
+        this.downstreamFailures = downstreamFailures;
+    }
+
+    public CompletableFuture<Optional<UserDetailsResponse>> getUserDetailsById(Long id, PropagatedContext context) {
+        log.info("Fetching user details asynchronously with id: {}", id);
+        Optional<User> userOptional = userRepository.findById(id);
+        if (userOptional.isEmpty()) {
+            log.warn("User not found with id: {}", id);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        User user = userOptional.get();
+        ProfileDto cached = profileCache.getIfPresent(id);
+        if (cached != null) {
+            log.debug("Serving cached profile for userId: {}", id);
+            return CompletableFuture.completedFuture(Optional.of(UserService.toUserDetails(user, cached)));
+        }
+
+        CompletableFuture<List<AddressDto>> addresses = withFallback(
+                profileServiceClient.getAddressesByUserId(id, context),
+                properties.getAddressesTimeout(),
+                "addresses",
+                id,
+                context);
+        CompletableFuture<List<EducationDto>> educations = withFallback(
+                profileServiceClient.getEducationsByUserId(id, context),
+                properties.getEducationsTimeout(),
+                "educations",
+                id,
+                context);
+        return addresses.thenCombine(educations, (userAddresses, userEducations) -> {
+            ProfileDto profile = ProfileDto.builder()
+                    .userId(id)
+                    .addresses(userAddresses)
+                    .educations(userEducations)
+                    .build();
+            context.run(() -> log.info(
+                    "User details fetched asynchronously for id: {}, addresses: {}, educations: {}",
+                    id,
+                    userAddresses.size(),
+                    userEducations.size()));
+            return Optional.of(UserService.toUserDetails(user, profile));
+        });
+    }
+
+    private <T> CompletableFuture<List<T>> withFallback(
+            CompletableFuture<List<T>> call, Duration timeout, String name, Long userId, PropagatedContext context) {
+        return call.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).handle((result, failure) -> {
+            if (failure != null) {
+                downstreamFailures.record(context.correlationId());
+                context.run(() ->
+                        log.error("Failed to fetch {} for userId: {}, error: {}", name, userId, describe(failure)));
+                return List.of();
+            }
+            return result != null ? result : List.of();
+        });
+    }
+
+    private static String describe(Throwable failure) {
+        Throwable cause =
+                failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        return cause instanceof TimeoutException ? "timed out" : cause.getMessage();
+    }
+}
@@ -1,14 +1,22 @@
 package com.datadog.user.service;
 
-import com.datadog.common.client.ProfileServiceClient;
-import com.datadog.common.dto.AddressDto;
-import com.datadog.common.dto.EducationDto;
+import static com.datadog.common.constant.Constants.MAX_BATCH_SIZE;
+
+import com.datadog.common.dto.ProfileDto;
 import com.datadog.common.dto.UserDetailsResponse;
+import com.datadog.user.cache.ProfileCache;
+import com.datadog.user.client.ProfileServiceGateway;
 import com.datadog.user.model.User;
 import com.datadog.user.repository.UserRepository;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,7 +29,7 @@ public class UserService {
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
-    private final ProfileServiceClient profileServiceClient;
+    private final ProfileCache profileCache;
 
     public User createUser(User user) {
         log.info("Creating new user with username: {}", user.getUsername());
@@ -71,48 +79,91 @@ public class UserService {
         User user = userOptional.get();
         log.debug("User found: {}, fetching profile data from profile-service", user.getUsername());
 
-        List<AddressDto> addresses = fetchAddresses(id);
-        List<EducationDto> educations = fetchEducations(id);
+        ProfileDto profile = fetchProfile(id);
+        UserDetailsResponse response = toUserDetails(user, profile);
 
-        UserDetailsResponse response = UserDetailsResponse.builder()
+        log.info(
+                "User details fetched successfully for id: {}, addresses: {}, educations: {}",
+                id,
+                response.getAddresses().size(),
+                response.getEducations().size());
+        return Optional.of(response);
+    }
+
+    public List<UserDetailsResponse> getUserDetailsByIds(List<Long> ids) {
+        log.info("Fetching user details for {} ids", ids.size());
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        uniqueIds.remove(null);
+
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            log.warn("Batch of {} ids exceeds the limit of {}", uniqueIds.size(), MAX_BATCH_SIZE);
+            throw new IllegalArgumentException("Batch size exceeds limit of " + MAX_BATCH_SIZE);
+        }
+
+        List<User> users = userRepository.findAllById(uniqueIds);
+        if (users.isEmpty()) {
+            log.debug("None of the requested users exist");
+            return new ArrayList<>();
+        }
+
+        List<Long> foundIds = users.stream().map(User::getId).toList();
+        Map<Long, ProfileDto> profiles = fetchProfiles(foundIds);
+
+        List<UserDetailsResponse> responses = new ArrayList<>(users.size());
+        for (User user : users) {
+            responses.add(toUserDetails(
+                    user, profiles.getOrDefault(user.getId(), ProfileServiceGateway.emptyProfile(user.getId()))));
+        }
+        log.info("User details fetched successfully for {} of {} requested ids", responses.size(), uniqueIds.size());
+        return responses;
+    }
+
+    static UserDetailsResponse toUserDetails(User user, ProfileDto profile) {
+        return UserDetailsResponse.builder()
                 .id(user.getId())
                 .username(user.getUsername())
                 .email(user.getEmail())
                 .firstName(user.getFirstName())
                 .lastName(user.getLastName())
                 .active(user.isActive())
-                .addresses(addresses)
-                .educations(educations)
+                .addresses(profile.getAddresses())
+                .educations(profile.getEducations())
                 .build();
-
-        log.info(
-                "User details fetched successfully for id: {}, addresses: {}, educations: {}",
-                id,
-                addresses.size(),
-                educations.size());
-        return Optional.of(response);
     }
 
-    private List<AddressDto> fetchAddresses(Long userId) {
+    private ProfileDto fetchProfile(Long userId) {
         try {
-            log.debug("Fetching addresses for userId: {}", userId);
-            return profileServiceClient.getAddressesByUserId(userId);
-        } catch (Exception e) {
-            log.error("Failed to fetch addresses for userId: {}, error: {}", userId, e.getMessage());
-            return Collections.emptyList();
+            return profileCache.get(userId);
+        } catch (RuntimeException e) {
+            log.error("Failed to fetch profile for userId: {}, error: {}", userId, describe(e));
+            return ProfileServiceGateway.emptyProfile(userId);
         }
     }
 
-    private List<EducationDto> fetchEducations(Long userId) {
+    private Map<Long, ProfileDto> fetchProfiles(List<Long> userIds) {
         try {
-            log.debug("Fetching educations for userId: {}", userId);
-            return profileServiceClient.getEducationsByUserId(userId);
-        } catch (Exception e) {
-            log.error("Failed to fetch educations for userId: {}, error: {}", userId, e.getMessage());
-            return Collections.emptyList();
+            return profileCache.getAll(userIds);
+        } catch (RuntimeException e) {
+            log.error("Failed to fetch profiles for {} userIds, error: {}", userIds.size(), describe(e));
+            return Map.of();
         }
     }
 
+    public void evictProfile(Long userId) {
+        log.info("Evicting cached profile for userId: {}", userId);
+        profileCache.invalidate(userId);
+    }
+
+    public void evictAllProfiles() {
+        log.info("Evicting all cached profiles");
+        profileCache.invalidateAll();
+    }
+
+    private static String describe(RuntimeException e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof TimeoutException ? "timed out" : cause.getMessage();
+    }
+
     public List<User> getAllUsers() {
         log.info("Fetching all users");
         List<User> users = userRepository.findAll();
@@ -120,6 +171,11 @@ public class UserService {
         return users;
     }
 
+    public Stream<User> streamAllUsers() {
+        log.info("Streaming all users");
+        return userRepository.streamAll();
+    }
+
     public List<User> getAllUsers(int page, int size) {
         log.info("Fetching users with pagination - page: {}, size: {}", page, size);
         List<User> users = userRepository.findAll(page, size);
@@ -127,6 +183,13 @@ public class UserService {
         return users;
     }
 
+    public List<User> getUsersAfter(Long afterId, int limit) {
+        log.info("Fetching users after id: {}, limit: {}", afterId, limit);
+        List<User> users = userRepository.findAfter(afterId, limit);
+        log.debug("Found {} users after id: {}", users.size(), afterId);
+        return users;
+    }
+
     public int getTotalCount() {
         log.debug("Getting total user count");
         int count = userRepository.count();
@@ -163,13 +226,19 @@ public class UserService {
             throw new IllegalArgumentException("Email already exists: " + userDetails.getEmail());
         }
 
-        user.setUsername(userDetails.getUsername());
-        user.setEmail(userDetails.getEmail());
-        user.setFirstName(userDetails.getFirstName());
-        user.setLastName(userDetails.getLastName());
-        user.setActive(userDetails.isActive());
+        // A copy, so that a save rejected by a concurrent claim of the username or email leaves the stored user as
+        // it was rather than holding keys its indexes never took.
+        User updated = User.builder()
+                .id(user.getId())
+                .username(userDetails.getUsername())
+                .email(userDetails.getEmail())
+                .password(user.getPassword())
+                .firstName(userDetails.getFirstName())
+                .lastName(userDetails.getLastName())
+                .active(userDetails.isActive())
+                .build();
 
-        User updatedUser = userRepository.save(user);
+        User updatedUser = userRepository.save(updated);
         log.info("User updated successfully with id: {}", updatedUser.getId());
         return updatedUser;
     }
@@ -183,6 +252,7 @@ public class UserService {
         }
 
         userRepository.deleteById(id);
+        profileCache.invalidate(id);
         log.info("User deleted successfully with id: {}", id);
     }
 
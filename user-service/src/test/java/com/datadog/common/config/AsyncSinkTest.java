@@ -0,0 +1,234 @@
+package com.datadog.common.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datadog.common.constant.Constants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpLogWriter;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.json.JsonHttpLogFormatter;
+import org.zalando.logbook.servlet.LogbookFilter;
+
+class AsyncSinkTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecordingWriter writer = new RecordingWriter();
+    private AsyncSink sink;
+
+    @AfterEach
+    void closeSink() throws InterruptedException {
+        writer.release.countDown();
+        MDC.clear();
+        if (sink != null) {
+            sink.close();
+        }
+    }
+
+    @Test
+    void dropsAndCountsEntriesThatFindTheBufferFull() throws Exception {
+        start(1, AsyncSink.Overflow.DROP);
+        writer.hold();
+
+        // Once the writer holds one line and the buffer one more, every other line finds the buffer full. Which lines
+        // are dropped depends on whether the writer took the first request before its response came, but not how many.
+        exchange("/api/users/1", 200);
+        assertThat(writer.entered.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+        exchange("/api/users/2", 200);
+        exchange("/api/users/3", 200);
+
+        assertThat(dropped("request") + dropped("response")).isEqualTo(4);
+
+        writer.release.countDown();
+        sink.close();
+        assertThat(writer.lines).hasSize(2);
+        assertThat(meterRegistry.get("logbook.sink.written").functionCounter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void blockingOverflowHoldsTheRequestThreadUntilThereIsSpace() throws Exception {
+        start(1, AsyncSink.Overflow.BLOCK);
+        writer.hold();
+        exchange("/api/users/1", 200);
+        assertThat(writer.entered.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> exchange("/api/users/2", 200));
+        Thread.sleep(200);
+        assertThat(blocked).isNotDone();
+
+        writer.release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        sink.close();
+        assertThat(writer.lines).hasSize(4);
+        assertThat(dropped("request") + dropped("response")).isZero();
+    }
+
+    @Test
+    void closeWritesEverythingStillBuffered() throws Exception {
+        start(1024, AsyncSink.Overflow.DROP);
+        writer.hold();
+        for (int i = 1; i <= 100; i++) {
+            exchange("/api/users/" + i, 200);
+        }
+
+        CompletableFuture.runAsync(() -> {
+            sleep(100);
+            writer.release.countDown();
+        });
+        sink.close();
+
+        assertThat(writer.lines).hasSize(200);
+        assertThat(writer.lines.get(199)).contains("\"type\":\"response\"");
+    }
+
+    @Test
+    void writerThreadRestoresEachEntrysMdc() throws Exception {
+        start(1024, AsyncSink.Overflow.DROP);
+
+        MDC.put(Constants.CORRELATION_ID_MDC_KEY, "trace-1");
+        exchange("/api/users/1", 200);
+        MDC.put(Constants.CORRELATION_ID_MDC_KEY, "trace-2");
+        exchange("/api/users/2", 200);
+        MDC.clear();
+        exchange("/api/users/3", 200);
+        sink.close();
+
+        assertThat(writer.correlationIds).containsExactly("trace-1", "trace-1", "trace-2", "trace-2", null, null);
+    }
+
+    @Test
+    void snapshotsFormatTheExchangeAfterTheContainerRecyclesIt() throws Exception {
+        start(1024, AsyncSink.Overflow.DROP);
+        writer.hold();
+        MockHttpServletRequest request = request("/api/users/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        exchange(request, response, 201);
+
+        // What a container does to the objects before handing them to the next exchange.
+        request.setRequestURI("/recycled");
+        request.setMethod("DELETE");
+        request.removeHeader("X-Tenant");
+        request.setContent(new byte[0]);
+        response.setCommitted(false);
+        response.reset();
+        response.setStatus(204);
+        writer.release.countDown();
+        sink.close();
+
+        assertThat(writer.lines).hasSize(2);
+        assertThat(writer.lines.get(0))
+                .contains("\"method\":\"POST\"")
+                .contains("/api/users/1")
+                .contains("\"X-Tenant\":[\"acme\"]")
+                .contains("\"body\":{\"username\":\"user1\"}");
+        assertThat(writer.lines.get(1))
+                .contains("\"status\":201")
+                .contains("\"Location\":[\"/api/users/1\"]")
+                .contains("\"body\":{\"id\":1}");
+    }
+
+    private void start(int capacity, AsyncSink.Overflow overflow) {
+        sink = new AsyncSink(new JsonHttpLogFormatter(), writer, capacity, 1, overflow);
+        sink.bindTo(meterRegistry);
+    }
+
+    private double dropped(String message) {
+        return meterRegistry
+                .get("logbook.sink.dropped")
+                .tag("message", message)
+                .functionCounter()
+                .count();
+    }
+
+    private void exchange(String path, int status) {
+        exchange(request(path), new MockHttpServletResponse(), status);
+    }
+
+    private void exchange(MockHttpServletRequest request, MockHttpServletResponse response, int status) {
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                req.getInputStream().readAllBytes();
+                resp.setStatus(status);
+                resp.setContentType("application/json");
+                resp.setHeader("Location", req.getRequestURI());
+                resp.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        try {
+            new LogbookFilter(Logbook.builder().sink(sink).build())
+                    .doFilter(request, response, new MockFilterChain(servlet));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContentType("application/json");
+        request.setContent("{\"username\":\"user1\"}".getBytes(StandardCharsets.UTF_8));
+        request.addHeader("X-Tenant", "acme");
+        return request;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Records each line with the correlation ID in the writer thread's MDC; {@link #hold} stalls it until released. */
+    private static final class RecordingWriter implements HttpLogWriter {
+
+        private final List<String> lines = new CopyOnWriteArrayList<>();
+        private final List<String> correlationIds = new CopyOnWriteArrayList<>();
+        private final Semaphore entered = new Semaphore(0);
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        void hold() {
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public void write(Precorrelation precorrelation, String request) {
+            record(request);
+        }
+
+        @Override
+        public void write(Correlation correlation, String response) {
+            record(response);
+        }
+
+        private void record(String line) {
+            entered.release();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lines.add(line);
+            correlationIds.add(MDC.get(Constants.CORRELATION_ID_MDC_KEY));
+        }
+    }
+}
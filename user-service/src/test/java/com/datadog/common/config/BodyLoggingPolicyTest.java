@@ -0,0 +1,147 @@
+package com.datadog.common.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.servlet.LogbookFilter;
+
+class BodyLoggingPolicyTest {
+
+    private final LogbookProperties.BodyProperties properties = new LogbookProperties.BodyProperties();
+    private final DownstreamFailures downstreamFailures = new DownstreamFailures();
+    private final RecordingSink sink = new RecordingSink();
+
+    @Test
+    void sampledExchangeKeepsOnlyTheFirstBytesOfBodiesWhileTheyStream() throws Exception {
+        properties.setMaxBodyBytes(40);
+        String requestBody = "{\"username\":\"user1\",\"password\":\"secret-that-is-cut\",\"firstName\":\"First\"}";
+        String responseBody = "x".repeat(10_000);
+
+        MockHttpServletResponse response = exchange("POST", "/api/users", requestBody, 200, responseBody);
+
+        assertThat(response.getContentAsString()).isEqualTo(responseBody);
+        assertThat(sink.requestBodies).containsExactly("{\"username\":\"user1\",\"password\":\"XXX...");
+        assertThat(sink.responseBodies).containsExactly("x".repeat(40) + "...");
+    }
+
+    @Test
+    void unsampledExchangeIsLoggedWithItsBodiesOnlyWhenItFails() throws Exception {
+        properties.setSampleRate(0);
+
+        exchange("POST", "/api/users", "{\"username\":\"user1\"}", 201, "{\"id\":1}");
+        assertThat(sink.responseBodies).isEmpty();
+
+        exchange("POST", "/api/users", "{\"username\":\"user1\"}", 503, "{\"error\":\"unavailable\"}");
+        assertThat(sink.requestBodies).containsExactly("{\"username\":\"user1\"}");
+        assertThat(sink.responseBodies).containsExactly("{\"error\":\"unavailable\"}");
+    }
+
+    @Test
+    void withoutTailCaptureAFailedUnsampledExchangeIsLoggedWithoutBodies() throws Exception {
+        properties.setSampleRate(0);
+        properties.setTailCapture(false);
+
+        exchange("POST", "/api/users", "{\"username\":\"user1\"}", 503, "{\"error\":\"unavailable\"}");
+
+        assertThat(sink.requestBodies).containsExactly("");
+        assertThat(sink.responseBodies).containsExactly("");
+    }
+
+    @Test
+    void unsampledExchangeIsLoggedWhenADownstreamCallOnItsCorrelationIdFailed() throws Exception {
+        properties.setSampleRate(0);
+
+        exchange("GET", "/api/users/1/details", "", 200, "{\"id\":1}", () -> downstreamFailures.record("other"));
+        assertThat(sink.responseBodies).isEmpty();
+
+        exchange("GET", "/api/users/1/details", "", 200, "{\"id\":1}", () -> downstreamFailures.record("trace-1"));
+        assertThat(sink.responseBodies).containsExactly("{\"id\":1}");
+        // Once logged, the exchange is no longer tracked.
+        assertThat(downstreamFailures.hasFailed("trace-1")).isFalse();
+    }
+
+    @Test
+    void headersOnlyRouteIsAlwaysLoggedWithoutBodies() throws Exception {
+        properties.setSampleRate(0);
+        properties.setHeadersOnly(List.of("GET /api/users"));
+
+        exchange("GET", "/api/users", "", 200, "[{\"id\":1}]");
+
+        assertThat(sink.responseBodies).containsExactly("");
+    }
+
+    private MockHttpServletResponse exchange(String method, String path, String body, int status, String responseBody)
+            throws Exception {
+        return exchange(method, path, body, status, responseBody, () -> {});
+    }
+
+    private MockHttpServletResponse exchange(
+            String method, String path, String body, int status, String responseBody, Runnable handler)
+            throws Exception {
+        BodyLoggingPolicy policy = new BodyLoggingPolicy(properties, downstreamFailures);
+        Logbook logbook = Logbook.builder()
+                .strategy(policy)
+                .bodyFilter(new ObfuscatingBodyFilter(obfuscation()))
+                .sink(sink)
+                .build();
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        request.addHeader("X-Correlation-ID", "trace-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setHeader("X-Correlation-ID", "trace-1");
+
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                req.getInputStream().readAllBytes();
+                handler.run();
+                resp.setStatus(status);
+                resp.setContentType("application/json");
+                resp.getOutputStream().write(responseBody.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        new BodyCaptureFilter(policy, downstreamFailures, new LogbookFilter(logbook))
+                .doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private static LogbookProperties.ObfuscateProperties obfuscation() {
+        LogbookProperties.ObfuscateProperties obfuscation = new LogbookProperties.ObfuscateProperties();
+        obfuscation.setBodyFields(Set.of("password"));
+        return obfuscation;
+    }
+
+    private static final class RecordingSink implements Sink {
+
+        private final List<String> requestBodies = new ArrayList<>();
+        private final List<String> responseBodies = new ArrayList<>();
+
+        @Override
+        public void write(Precorrelation precorrelation, HttpRequest request) throws IOException {
+            requestBodies.add(request.getBodyAsString());
+        }
+
+        @Override
+        public void write(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException {
+            responseBodies.add(response.getBodyAsString());
+        }
+    }
+}
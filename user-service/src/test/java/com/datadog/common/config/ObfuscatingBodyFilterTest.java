@@ -0,0 +1,63 @@
+package com.datadog.common.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ObfuscatingBodyFilterTest {
+
+    private final ObfuscatingBodyFilter filter = new ObfuscatingBodyFilter(properties());
+
+    @Test
+    void obfuscatesFieldsAndPathsAndCompactsInOnePass() {
+        String body =
+                """
+                {
+                  "username" : "user1",
+                  "password" : "secret1",
+                  "pin" : 1234,
+                  "access_token" : "token",
+                  "data" : {
+                    "note" : "my password is my secret",
+                    "hints" : [ "secret", "public" ],
+                    "image" : "base64"
+                  },
+                  "notes" : "password stays outside data",
+                  "addresses" : [ { "pa\\u0073sword" : "x", "city" : "Pune" } ]
+                }
+                """;
+
+        assertThat(filter.filter("application/json", body))
+                .isEqualTo("{\"username\":\"user1\",\"password\":\"XXX\",\"pin\":1234,\"access_token\":\"XXX\","
+                        + "\"data\":{\"note\":\"my XXX is my XXX\",\"hints\":[\"XXX\",\"public\"],\"image\":\"XXX\"},"
+                        + "\"notes\":\"password stays outside data\","
+                        + "\"addresses\":[{\"pa\\u0073sword\":\"XXX\",\"city\":\"Pune\"}]}");
+    }
+
+    @Test
+    void obfuscatesBodyCutShortUpToWhereItEnds() {
+        assertThat(filter.filter("application/json", "{\"password\": \"secret1\", \"pin\": \"12"))
+                .isEqualTo("{\"password\":\"XXX\",\"pin\":\"XXX");
+        assertThat(filter.filter("application/json", "{\"data\": {\"note\": \"my secr"))
+                .isEqualTo("{\"data\":{\"note\":\"my secr");
+    }
+
+    @Test
+    void fallsBackToFieldReplacementForMalformedJsonAndLeavesOtherBodies() {
+        assertThat(filter.filter("application/json", "{\"password\": \"secret1\", pin: \"12\"}"))
+                .isEqualTo("{\"password\": \"XXX\", pin: \"12\"}");
+        assertThat(filter.filter("application/x-www-form-urlencoded", "user=a&password=secret1"))
+                .isEqualTo("user=a&password=XXX");
+        assertThat(filter.filter("text/plain", "password: secret1")).isEqualTo("password: secret1");
+    }
+
+    private static LogbookProperties.ObfuscateProperties properties() {
+        LogbookProperties.ObfuscateProperties properties = new LogbookProperties.ObfuscateProperties();
+        properties.setBodyFields(Set.of("image", "pin", "password"));
+        properties.setBodyFieldsJsonPath(Map.of("data", List.of("password", "secret")));
+        return properties;
+    }
+}
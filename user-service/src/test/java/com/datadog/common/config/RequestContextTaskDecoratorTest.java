@@ -0,0 +1,84 @@
+package com.datadog.common.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datadog.common.constant.Constants;
+import com.datadog.common.web.PropagatedContext;
+import feign.RequestTemplate;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class RequestContextTaskDecoratorTest {
+
+    private final RequestContextTaskDecorator decorator = new RequestContextTaskDecorator();
+
+    @AfterEach
+    void clearContext() {
+        RequestContextHolder.resetRequestAttributes();
+        MDC.clear();
+    }
+
+    @Test
+    void taskThatOutlivesItsRequestSendsTheHeadersCapturedOnSubmit() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader("x-tenant", "acme");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        MDC.put(Constants.CORRELATION_ID_MDC_KEY, "trace-1");
+        AtomicReference<RequestTemplate> sent = new AtomicReference<>();
+        Runnable call = decorator.decorate(() -> sent.set(applyInterceptor()));
+
+        // The caller gave up and the container recycled the request for another one before the task ran.
+        RequestContextHolder.resetRequestAttributes();
+        MDC.clear();
+        request.removeHeader("x-tenant");
+        request.addHeader("x-tenant", "other");
+        call.run();
+
+        assertThat(sent.get().headers().get("x-tenant")).containsExactly("acme");
+        assertThat(sent.get().headers().get(Constants.CORRELATION_ID_HEADER)).containsExactly("trace-1");
+        assertThat(PropagatedContext.current()).isNull();
+    }
+
+    @Test
+    void taskSubmittedFromAWorkerCarriesTheSameContext() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader("x-tenant", "acme");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        AtomicReference<PropagatedContext> seen = new AtomicReference<>();
+        AtomicReference<Runnable> retry = new AtomicReference<>();
+
+        // Like a retry, submitted by the failed attempt's worker rather than by the request thread.
+        decorator
+                .decorate(() -> retry.set(decorator.decorate(() -> seen.set(PropagatedContext.current()))))
+                .run();
+        RequestContextHolder.resetRequestAttributes();
+        retry.get().run();
+
+        assertThat(seen.get().headers()).containsEntry("x-tenant", "acme");
+    }
+
+    @Test
+    void backgroundTasksCarryNoRequestContext() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader("x-tenant", "acme");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        AtomicReference<RequestTemplate> sent = new AtomicReference<>();
+
+        Runnable refresh = new RequestContextTaskDecorator(false).decorate(() -> sent.set(applyInterceptor()));
+        RequestContextHolder.resetRequestAttributes();
+        refresh.run();
+
+        assertThat(sent.get().headers()).doesNotContainKey("x-tenant");
+    }
+
+    private static RequestTemplate applyInterceptor() {
+        RequestTemplate template = new RequestTemplate();
+        new PropagateHeadersInterceptor().apply(template);
+        return template;
+    }
+}
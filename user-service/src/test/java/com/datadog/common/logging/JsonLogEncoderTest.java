@@ -0,0 +1,48 @@
+package com.datadog.common.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class JsonLogEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesOneJsonLineWithMdcKeysAsFields() throws Exception {
+        Logger logger = new LoggerContext().getLogger("com.datadog.user.service.UserService");
+        String escaped = "\"quoted\" \\ tab\t naïve 日本 😀 \u0001";
+        LoggingEvent event = new LoggingEvent(
+                Logger.class.getName(),
+                logger,
+                Level.ERROR,
+                "Failed for {}: " + escaped,
+                new IllegalStateException("boom"),
+                new Object[] {"user1"});
+        event.setTimeStamp(1_760_764_668_042L);
+        event.setThreadName("http-nio-8080-exec-1");
+        event.setMDCPropertyMap(Map.of("correlationId", "trace-1", "platform", "WEB", "customerId", "42"));
+
+        JsonLogEncoder encoder = new JsonLogEncoder();
+        String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+        assertThat(line).endsWith("}\n").doesNotContain("customerId");
+        JsonNode json = objectMapper.readTree(line);
+        assertThat(json.get("@timestamp").asText()).isEqualTo("2025-10-18T05:17:48.042Z");
+        assertThat(json.get("level").asText()).isEqualTo("ERROR");
+        assertThat(json.get("thread").asText()).isEqualTo("http-nio-8080-exec-1");
+        assertThat(json.get("logger").asText()).isEqualTo("com.datadog.user.service.UserService");
+        assertThat(json.get("message").asText()).isEqualTo("Failed for user1: " + escaped);
+        assertThat(json.get("correlationId").asText()).isEqualTo("trace-1");
+        assertThat(json.get("platform").asText()).isEqualTo("WEB");
+        assertThat(json.get("stack_trace").asText()).contains("java.lang.IllegalStateException: boom");
+    }
+}
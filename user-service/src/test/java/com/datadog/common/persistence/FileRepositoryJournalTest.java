@@ -0,0 +1,77 @@
+package com.datadog.common.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileRepositoryJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final Map<Long, Item> items = new ConcurrentHashMap<>();
+    private final AtomicReference<Runnable> pendingSnapshot = new AtomicReference<>();
+
+    @Test
+    void snapshotWaitsForAMutationLoggedBeforeItsEntityIsVisible() throws Exception {
+        FileRepositoryJournal<Item> journal = open(pendingSnapshot::set);
+        journal.recover(item -> {}, id -> {});
+
+        Thread snapshot =
+                Thread.ofPlatform().unstarted(() -> pendingSnapshot.get().run());
+        journal.mutate(() -> {
+            // Logged, which triggers a snapshot, but not yet published to the map the snapshot copies.
+            journal.logSave(1, new Item(1, "first"));
+            snapshot.start();
+            // Without the journal holding it back, the snapshot finishes within this wait and misses the entity.
+            joinQuietly(snapshot, 500);
+            assertThat(snapshot.isAlive()).isTrue();
+            items.put(1L, new Item(1, "first"));
+        });
+        snapshot.join(TimeUnit.SECONDS.toMillis(5));
+        journal.close();
+
+        List<Item> recovered = new ArrayList<>();
+        FileRepositoryJournal<Item> reopened = open(Runnable::run);
+        reopened.recover(recovered::add, id -> {});
+        reopened.awaitWarm();
+        reopened.close();
+
+        assertThat(recovered).containsExactly(new Item(1, "first"));
+    }
+
+    private FileRepositoryJournal<Item> open(Executor snapshotExecutor) {
+        return new FileRepositoryJournal<>(
+                directory,
+                "items",
+                Item.class,
+                new ObjectMapper(),
+                () -> items.values().stream(),
+                Item::id,
+                () -> 2,
+                16,
+                false,
+                1,
+                snapshotExecutor);
+    }
+
+    private static void joinQuietly(Thread thread, long millis) {
+        try {
+            thread.join(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record Item(long id, String name) {}
+}
@@ -0,0 +1,170 @@
+package com.datadog.common.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEveryRecordAcrossARotationAfterTheGivenLsn() throws IOException {
+        try (WriteAheadLog wal = open(0, new ArrayList<>())) {
+            append(wal, 1, 2);
+            assertThat(wal.rotate()).isEqualTo(2);
+            append(wal, 3, 4);
+            wal.sync();
+        }
+        assertThat(segments()).hasSize(2);
+
+        List<WriteAheadLog.Entry> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = open(1, replayed)) {
+            assertThat(wal.append(WriteAheadLog.SAVE, 5, payload(5))).isEqualTo(5);
+        }
+
+        assertThat(replayed).extracting(WriteAheadLog.Entry::lsn).containsExactly(2L, 3L, 4L);
+        assertThat(replayed).extracting(WriteAheadLog.Entry::id).containsExactly(2L, 3L, 4L);
+        assertThat(replayed.get(2).payload()).isEqualTo(payload(4));
+    }
+
+    @Test
+    void truncatesATornLastRecordOfTheNewestSegmentAndCarriesOn() throws IOException {
+        try (WriteAheadLog wal = open(0, new ArrayList<>())) {
+            append(wal, 1, 3);
+            wal.sync();
+        }
+        Path newest = segments().get(0);
+        long intact = Files.size(newest);
+        try (FileChannel channel = FileChannel.open(newest, StandardOpenOption.WRITE)) {
+            channel.truncate(intact - 3);
+        }
+
+        List<WriteAheadLog.Entry> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = open(0, replayed)) {
+            assertThat(wal.append(WriteAheadLog.SAVE, 30, payload(30))).isEqualTo(3);
+            wal.sync();
+        }
+        assertThat(replayed).extracting(WriteAheadLog.Entry::lsn).containsExactly(1L, 2L);
+
+        replayed.clear();
+        open(0, replayed).close();
+        assertThat(replayed).extracting(WriteAheadLog.Entry::id).containsExactly(1L, 2L, 30L);
+    }
+
+    @Test
+    void truncatesACorruptedLastRecordOfTheNewestSegment() throws IOException {
+        try (WriteAheadLog wal = open(0, new ArrayList<>())) {
+            append(wal, 1, 3);
+            wal.sync();
+        }
+        Path newest = segments().get(0);
+        long intact = Files.size(newest);
+        flipByte(newest, intact - 1);
+
+        List<WriteAheadLog.Entry> replayed = new ArrayList<>();
+        open(0, replayed).close();
+
+        assertThat(replayed).extracting(WriteAheadLog.Entry::lsn).containsExactly(1L, 2L);
+        // Header (length, CRC), then lsn, type and id ahead of the payload.
+        int lastRecordBytes = 2 * Integer.BYTES + 2 * Long.BYTES + Byte.BYTES + payload(3).length;
+        assertThat(Files.size(newest)).isEqualTo(intact - lastRecordBytes);
+    }
+
+    @Test
+    void corruptionOutsideTheNewestSegmentFailsLoudly() throws IOException {
+        try (WriteAheadLog wal = open(0, new ArrayList<>())) {
+            append(wal, 1, 3);
+            wal.rotate();
+            append(wal, 4, 5);
+            wal.sync();
+        }
+        Path older = segments().get(0);
+        long sizeBefore = Files.size(older);
+        flipByte(older, sizeBefore - 1);
+
+        assertThatThrownBy(() -> open(0, new ArrayList<>()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Corrupt record");
+        // Acknowledged records are left for an operator rather than truncated away.
+        assertThat(Files.size(older)).isEqualTo(sizeBefore);
+    }
+
+    @Test
+    void syncReturnsOnlyOnceEveryEarlierAppendIsOnDisk() throws Exception {
+        int threads = 4;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (WriteAheadLog wal = open(0, new ArrayList<>())) {
+            List<Future<?>> appenders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t * perThread + 1;
+                appenders.add(executor.submit(() -> append(wal, first, first + perThread - 1)));
+            }
+            for (Future<?> appender : appenders) {
+                appender.get();
+            }
+            wal.sync();
+
+            // Read a copy of the files as they are now, while the log stays open.
+            Path copy = Files.createDirectory(directory.resolve("copy"));
+            for (Path segment : segments()) {
+                Files.copy(segment, copy.resolve(segment.getFileName()));
+            }
+            List<WriteAheadLog.Entry> onDisk = new ArrayList<>();
+            WriteAheadLog.open(copy, "users", 0, 64, false, onDisk::add).close();
+
+            assertThat(onDisk).hasSize(threads * perThread);
+            assertThat(onDisk).extracting(WriteAheadLog.Entry::lsn).isSorted().doesNotHaveDuplicates();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private WriteAheadLog open(long afterLsn, List<WriteAheadLog.Entry> replayed) throws IOException {
+        return WriteAheadLog.open(directory, "users", afterLsn, 64, true, replayed::add);
+    }
+
+    private static void append(WriteAheadLog wal, long firstId, long lastId) {
+        for (long id = firstId; id <= lastId; id++) {
+            wal.append(WriteAheadLog.SAVE, id, payload(id));
+        }
+    }
+
+    private static byte[] payload(long id) {
+        return ("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".wal"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static void flipByte(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, position);
+            b.put(0, (byte) (b.get(0) ^ 0xFF));
+            channel.write(b.rewind(), position);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.datadog.common.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class LongHashEntityStoreTest {
+
+    private final LongHashEntityStore<Entity> store = new LongHashEntityStore<>();
+
+    @Test
+    void overwriteReplacesTheEntityInPlace() {
+        store.write(7, id -> new Entity(id, 1));
+        store.write(7, id -> new Entity(id, 2));
+
+        assertThat(store.get(7)).isEqualTo(new Entity(7, 2));
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void nullFromTheWriterDeletes() {
+        store.write(7, id -> new Entity(id, 1));
+
+        assertThat(store.write(7, id -> null)).isNull();
+        assertThat(store.write(8, id -> null)).isNull();
+
+        assertThat(store.contains(7)).isFalse();
+        assertThat(store.contains(8)).isFalse();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void deleteShiftsTheRestOfAProbeRunBackAcrossTheTableEnd() {
+        // Four ids of one segment whose home is the last slot: they occupy slots 63, 0, 1 and 2.
+        long[] run = collidingIds(LongSlotSegment.INITIAL_CAPACITY - 1, 4);
+        for (long id : run) {
+            store.write(id, i -> new Entity(i, 0));
+        }
+
+        assertThat(store.remove(run[0], id -> {})).isTrue();
+        assertThat(store.remove(run[2], id -> {})).isTrue();
+
+        assertThat(store.get(run[0])).isNull();
+        assertThat(store.get(run[1])).isEqualTo(new Entity(run[1], 0));
+        assertThat(store.get(run[2])).isNull();
+        assertThat(store.get(run[3])).isEqualTo(new Entity(run[3], 0));
+        assertThat(store.remove(run[0], id -> {})).isFalse();
+        assertThat(store.size()).isEqualTo(2);
+
+        store.write(run[0], i -> new Entity(i, 1));
+        assertThat(store.get(run[0])).isEqualTo(new Entity(run[0], 1));
+        assertThat(store.size()).isEqualTo(3);
+    }
+
+    @Test
+    void growsUnderLoadAndKeepsEveryEntry() {
+        int entries = 100_000;
+        for (long id = 1; id <= entries; id++) {
+            store.write(id, i -> new Entity(i, 0));
+        }
+        for (long id = 2; id <= entries; id += 2) {
+            store.remove(id, i -> {});
+        }
+
+        assertThat(store.size()).isEqualTo(entries / 2);
+        for (long id = 1; id <= entries; id++) {
+            assertThat(store.get(id)).isEqualTo(id % 2 == 1 ? new Entity(id, 0) : null);
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveIds() {
+        assertThatThrownBy(() -> store.write(0, id -> new Entity(id, 0))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.write(-1, id -> new Entity(id, 0))).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(store.get(0)).isNull();
+        assertThat(store.get(-1)).isNull();
+        assertThat(store.contains(0)).isFalse();
+        assertThat(store.remove(-1, id -> {})).isFalse();
+    }
+
+    @Test
+    void optimisticReadersNeverMissEntriesWhileWritersShiftAndGrowTheirSegment() throws Exception {
+        // Stable ids stay present throughout, sharing a segment and probe run with ids that writers keep adding and
+        // removing, so readers race with backward shifts and resizes around them.
+        long[] ids = collidingIds(10, 4_000);
+        int stable = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(4);
+        try {
+            for (int i = 0; i < stable; i++) {
+                store.write(ids[i], id -> new Entity(id, 0));
+            }
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int writer = 0; writer < 2; writer++) {
+                int offset = stable + writer;
+                tasks.add(executor.submit(() -> {
+                    started.countDown();
+                    for (int round = 0; running.get() && round < 50; round++) {
+                        for (int i = offset; i < ids.length; i += 2) {
+                            int version = round;
+                            store.write(ids[i], id -> new Entity(id, version));
+                            store.write(ids[i % stable], id -> new Entity(id, version));
+                        }
+                        for (int i = offset; i < ids.length; i += 2) {
+                            store.remove(ids[i], id -> {});
+                        }
+                    }
+                }));
+            }
+            for (int reader = 0; reader < 2; reader++) {
+                tasks.add(executor.submit(() -> {
+                    started.countDown();
+                    while (running.get()) {
+                        for (int i = 0; i < stable; i++) {
+                            Entity entity = store.get(ids[i]);
+                            assertThat(entity).isNotNull();
+                            assertThat(entity.id()).isEqualTo(ids[i]);
+                        }
+                    }
+                }));
+            }
+            started.await();
+            tasks.get(0).get(60, TimeUnit.SECONDS);
+            tasks.get(1).get(60, TimeUnit.SECONDS);
+            running.set(false);
+            for (Future<?> task : tasks) {
+                task.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+        assertThat(store.size()).isEqualTo(stable);
+    }
+
+    /** The first {@code count} ids of segment 0 whose home slot in a new segment is {@code home}. */
+    static long[] collidingIds(int home, int count) {
+        long[] ids = new long[count];
+        int found = 0;
+        for (long id = 1; found < count; id++) {
+            long hash = LongHashing.mix(id);
+            if (LongSlotSegment.indexOf(id) == 0 && ((int) hash & (LongSlotSegment.INITIAL_CAPACITY - 1)) == home) {
+                ids[found++] = id;
+            }
+        }
+        return ids;
+    }
+
+    record Entity(long id, int version) {}
+}
@@ -0,0 +1,185 @@
+package com.datadog.common.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class SlabEntityStoreTest {
+
+    private final SlabEntityStore<Row> store = new SlabEntityStore<>(new RowLayout(), new StringPool(16));
+
+    @Test
+    void roundTripsEveryColumnType() {
+        Row row = new Row(7, 42L, LocalDate.of(2024, 2, 29), 87.5, "Pune", "12 MG Road");
+        store.write(7, id -> row);
+
+        assertThat(store.get(7)).isEqualTo(row);
+    }
+
+    @Test
+    void roundTripsNullColumns() {
+        Row row = new Row(7, null, null, null, null, null);
+        store.write(7, id -> row);
+
+        assertThat(store.get(7)).isEqualTo(row);
+        assertThat(store.contains(7)).isTrue();
+    }
+
+    @Test
+    void roundTripsEmptyMultiByteAndLongStrings() {
+        // Over 127 UTF-8 bytes, so the pool writes a two-byte length.
+        String longText = "Straße 日本 😀 ".repeat(20);
+        Row empty = new Row(1, 0L, LocalDate.EPOCH, -0.0, "", "");
+        Row multiByte = new Row(2, -1L, LocalDate.of(1900, 1, 1), Double.NaN, "Zürich", "東京都 😀");
+        Row longRow = new Row(3, Long.MAX_VALUE, LocalDate.MAX, Double.MIN_VALUE, longText, longText);
+        for (Row row : List.of(empty, multiByte, longRow)) {
+            store.write(row.id(), id -> row);
+        }
+
+        assertThat(store.get(1)).isEqualTo(empty);
+        assertThat(store.get(2)).isEqualTo(multiByte);
+        assertThat(store.get(3)).isEqualTo(longRow);
+    }
+
+    @Test
+    void overwriteClearsColumnsTheNewEntityLeavesNull() {
+        store.write(7, id -> new Row(id, 1L, LocalDate.EPOCH, 1.0, "Pune", "12 MG Road"));
+        store.write(7, id -> new Row(id, null, null, null, null, null));
+
+        assertThat(store.get(7)).isEqualTo(new Row(7, null, null, null, null, null));
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void deletesShiftRowsAcrossProbeRuns() {
+        // Two probe runs that meet: one homed at the last slot wrapping to the front, one homed at slot 1.
+        long[] wrapping = LongHashEntityStoreTest.collidingIds(LongSlotSegment.INITIAL_CAPACITY - 1, 3);
+        long[] following = LongHashEntityStoreTest.collidingIds(1, 3);
+        for (long id : wrapping) {
+            store.write(id, key -> row(key));
+        }
+        for (long id : following) {
+            store.write(id, key -> row(key));
+        }
+
+        assertThat(store.remove(wrapping[0], id -> {})).isTrue();
+        assertThat(store.remove(following[0], id -> {})).isTrue();
+        assertThat(store.write(wrapping[1], id -> null)).isNull();
+
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.get(wrapping[0])).isNull();
+        assertThat(store.get(wrapping[1])).isNull();
+        assertThat(store.get(following[0])).isNull();
+        assertThat(store.get(wrapping[2])).isEqualTo(row(wrapping[2]));
+        assertThat(store.get(following[1])).isEqualTo(row(following[1]));
+        assertThat(store.get(following[2])).isEqualTo(row(following[2]));
+    }
+
+    @Test
+    void readersSeeWholeRowsWhileWritersRewriteAndGrowTheSegment() throws Exception {
+        long[] ids = LongHashEntityStoreTest.collidingIds(10, 2_000);
+        int stable = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(3);
+        try {
+            for (int i = 0; i < stable; i++) {
+                store.write(ids[i], id -> row(id, 0));
+            }
+            Future<?> writer = executor.submit(() -> {
+                started.countDown();
+                for (int round = 1; round <= 20; round++) {
+                    int version = round;
+                    for (int i = stable; i < ids.length; i++) {
+                        store.write(ids[i], id -> row(id, version));
+                        store.write(ids[i % stable], id -> row(id, version));
+                    }
+                    for (int i = stable; i < ids.length; i++) {
+                        store.remove(ids[i], id -> {});
+                    }
+                }
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int reader = 0; reader < 2; reader++) {
+                readers.add(executor.submit(() -> {
+                    started.countDown();
+                    while (running.get()) {
+                        for (int i = 0; i < stable; i++) {
+                            Row row = store.get(ids[i]);
+                            assertThat(row).isNotNull();
+                            // Every column of a row comes from the same write.
+                            assertThat(row).isEqualTo(row(ids[i], row.count()));
+                        }
+                    }
+                }));
+            }
+            started.await();
+            writer.get(60, TimeUnit.SECONDS);
+            running.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+        assertThat(store.size()).isEqualTo(stable);
+    }
+
+    private static Row row(long id) {
+        return row(id, id);
+    }
+
+    private static Row row(long id, long version) {
+        return new Row(
+                id,
+                version,
+                LocalDate.ofEpochDay(version),
+                version / 2.0,
+                "City " + version % 7,
+                id + " Main Street, version " + version);
+    }
+
+    record Row(long id, Long count, LocalDate date, Double score, String city, String street) {}
+
+    static class RowLayout implements SlabLayout<Row> {
+
+        @Override
+        public int longColumns() {
+            return 3;
+        }
+
+        @Override
+        public int stringColumns() {
+            return 1;
+        }
+
+        @Override
+        public int rowStringColumns() {
+            return 1;
+        }
+
+        @Override
+        public void write(Row entity, SlabRow row) {
+            row.setLong(0, entity.count());
+            row.setDate(1, entity.date());
+            row.setDouble(2, entity.score());
+            row.setString(0, entity.city());
+            row.setRowString(0, entity.street());
+        }
+
+        @Override
+        public Row read(long id, SlabRow row) {
+            return new Row(id, row.getLong(0), row.getDate(1), row.getDouble(2), row.getString(0), row.getRowString(0));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.datadog.common.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class StringPoolTest {
+
+    @Test
+    void equalStringsShareOneReference() {
+        StringPool pool = new StringPool(16);
+
+        int pune = pool.intern("Pune");
+        int bytes = pool.sizeInBytes();
+
+        assertThat(pool.intern(new String("Pune"))).isEqualTo(pune);
+        assertThat(pool.sizeInBytes()).isEqualTo(bytes);
+        assertThat(pool.intern("pune")).isNotEqualTo(pune);
+    }
+
+    @Test
+    void roundTripsThroughGrowthAndRehash() {
+        StringPool pool = new StringPool(16);
+        List<String> values = new ArrayList<>();
+        values.add("");
+        values.add("Zürich 日本 😀");
+        values.add("x".repeat(127));
+        values.add("x".repeat(128));
+        values.add("é".repeat(10_000));
+        for (int i = 0; i < 5_000; i++) {
+            values.add("City " + i);
+        }
+        int[] references = values.stream().mapToInt(pool::intern).toArray();
+
+        for (int i = 0; i < values.size(); i++) {
+            assertThat(pool.get(references[i])).isEqualTo(values.get(i));
+            assertThat(pool.intern(values.get(i))).isEqualTo(references[i]);
+        }
+    }
+}
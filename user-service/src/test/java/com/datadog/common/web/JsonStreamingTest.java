@@ -0,0 +1,38 @@
+package com.datadog.common.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class JsonStreamingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void ndjsonEndsEveryRecordWithANewline() throws Exception {
+        String body = write(Stream.of(Map.of("id", 1), Map.of("id", 2)), true);
+
+        assertThat(body).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+    }
+
+    @Test
+    void emptyNdjsonResultHasNoRecords() throws Exception {
+        assertThat(write(Stream.empty(), true)).isEmpty();
+    }
+
+    @Test
+    void emptyArrayResultIsAnEmptyArray() throws Exception {
+        assertThat(write(Stream.empty(), false)).isEqualTo("[]");
+    }
+
+    private String write(Stream<?> elements, boolean ndjson) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonStreaming.response(objectMapper, elements, ndjson).getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,85 @@
+package com.datadog.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import com.datadog.common.client.ProfileServiceClient;
+import com.datadog.common.constant.Constants;
+import com.datadog.common.dto.ProfileDto;
+import com.datadog.common.web.PropagatedContext;
+import com.datadog.user.model.User;
+import com.datadog.user.repository.UserRepository;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadModeTest {
+
+    @MockitoBean
+    private ProfileServiceClient profileServiceClient;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    private record Captured(String correlationId, String platform, String tenant) {}
+
+    @Test
+    void tomcatServesRequestsOnVirtualThreads() {
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+
+        assertThat(webServer.getTomcat().getConnector().getProtocolHandler().getExecutor())
+                .isInstanceOf(VirtualThreadExecutor.class);
+    }
+
+    @Test
+    void profileServiceCallsSeeTheRequestContext() {
+        User user = userRepository.save(User.builder()
+                .username("virtual")
+                .email("virtual@example.com")
+                .firstName("Virtual")
+                .lastName("Thread")
+                .active(true)
+                .build());
+        AtomicReference<Captured> captured = new AtomicReference<>();
+        when(profileServiceClient.getProfileByUserId(anyLong())).thenAnswer(invocation -> {
+            captured.set(new Captured(
+                    MDC.get(Constants.CORRELATION_ID_MDC_KEY),
+                    MDC.get(Constants.PLATFORM_MDC_KEY),
+                    PropagatedContext.current().headers().get("x-tenant")));
+            return ProfileDto.builder().userId(invocation.getArgument(0)).build();
+        });
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(Constants.HEADER_DATADOG_TRACE_ID, "trace-1");
+        headers.set(Constants.HEADER_API_PLATFORM, "ios");
+        headers.set("x-tenant", "acme");
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/users/" + user.getId(), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getHeaders().getFirst(Constants.CORRELATION_ID_HEADER))
+                .isEqualTo("trace-1");
+        assertThat(captured.get()).isEqualTo(new Captured("trace-1", "IOS", "acme"));
+    }
+}
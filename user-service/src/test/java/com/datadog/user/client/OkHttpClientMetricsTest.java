@@ -0,0 +1,98 @@
+package com.datadog.user.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datadog.common.feign.OkHttpFeignClient;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.Param;
+import feign.RequestLine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OkHttpClientMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> acceptEncodings = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+
+    interface Profiles {
+        @RequestLine("GET /api/profiles/user/{userId}")
+        String getProfile(@Param("userId") Long userId);
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/profiles/user/", exchange -> {
+            acceptEncodings.add(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            byte[] json = "{\"userId\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                out.write(json);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void callsReuseOnePooledConnectionAndDecompressResponses() {
+        OkHttpClientMetrics metrics = new OkHttpClientMetrics("profile-service", meterRegistry);
+        OkHttpClient client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(4, 30, TimeUnit.SECONDS))
+                .eventListenerFactory(metrics)
+                .build();
+        metrics.bindTo(client, 4);
+        Profiles profiles = Feign.builder()
+                .client(new OkHttpFeignClient(client))
+                .target(
+                        Profiles.class,
+                        "http://127.0.0.1:" + server.getAddress().getPort());
+
+        for (long userId = 1; userId <= 3; userId++) {
+            assertThat(profiles.getProfile(userId)).isEqualTo("{\"userId\":1}");
+        }
+
+        assertThat(acceptEncodings).containsOnly("gzip");
+        assertThat(meterRegistry.get("okhttp.connections.opened").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry
+                        .get("okhttp.requests")
+                        .tag("uri", "/api/profiles/user/{userId}")
+                        .tag("status", "200")
+                        .timer()
+                        .count())
+                .isEqualTo(3);
+        assertThat(meterRegistry
+                        .get("okhttp.connection.acquire")
+                        .tag("reused", "true")
+                        .timer()
+                        .count())
+                .isEqualTo(2);
+        assertThat(meterRegistry
+                        .get("okhttp.pool.connection.count")
+                        .tag("state", "idle")
+                        .gauge()
+                        .value())
+                .isEqualTo(1);
+    }
+}
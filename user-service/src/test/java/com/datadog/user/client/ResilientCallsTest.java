@@ -0,0 +1,164 @@
+package com.datadog.user.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datadog.user.config.ProfileServiceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ResilientCallsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ProfileServiceProperties.ResilienceProperties properties =
+            new ProfileServiceProperties.ResilienceProperties();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void circuitOpensOnFailuresAndClosesAfterSuccessfulTrialCalls() throws Exception {
+        properties.setFailureWindow(4);
+        properties.setMinimumCalls(4);
+        properties.setOpenDuration(Duration.ofMillis(200));
+        properties.setHalfOpenCalls(1);
+        ResilientCalls calls = resilientCalls();
+        AtomicInteger invocations = new AtomicInteger();
+        Supplier<String> failing = () -> {
+            invocations.incrementAndGet();
+            throw new IllegalStateException("profile-service unavailable");
+        };
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> calls.execute("profile", failing)).isInstanceOf(CompletionException.class);
+        }
+        assertThat(calls.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int before = invocations.get();
+        assertThatThrownBy(() -> calls.execute("profile", failing)).isInstanceOf(CallRejectedException.class);
+        assertThat(invocations.get()).isEqualTo(before);
+
+        TimeUnit.MILLISECONDS.sleep(250);
+        assertThat(calls.execute("profile", () -> "profile")).isEqualTo("profile");
+        assertThat(calls.circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(transitions("closed", "open")).isEqualTo(1);
+        assertThat(transitions("open", "half-open")).isEqualTo(1);
+        assertThat(transitions("half-open", "closed")).isEqualTo(1);
+    }
+
+    @Test
+    void slowCallIsHedgedAndFirstSuccessWins() {
+        properties.setMinSamples(5);
+        properties.setHedgePercentile(0.5);
+        ResilientCalls calls = resilientCalls();
+        for (int i = 0; i < 5; i++) {
+            calls.execute("profile", () -> "warm");
+        }
+
+        AtomicInteger attempts = new AtomicInteger();
+        long start = System.nanoTime();
+        String result = calls.execute("profile", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(1000);
+                return "slow";
+            }
+            return "hedged";
+        });
+
+        assertThat(result).isEqualTo("hedged");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+        assertThat(meterRegistry
+                        .get("resilience.attempts")
+                        .tag("kind", "hedge")
+                        .counter()
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void retriesAreLimitedByTheBudget() {
+        properties.setRetryBudgetRatio(0);
+        properties.setRetryBudgetMaxTokens(1);
+        ResilientCalls calls = resilientCalls();
+        AtomicInteger invocations = new AtomicInteger();
+        Supplier<String> failing = () -> {
+            invocations.incrementAndGet();
+            throw new IllegalStateException("boom");
+        };
+
+        assertThatThrownBy(() -> calls.execute("profile", failing)).isInstanceOf(CompletionException.class);
+        assertThat(invocations.get()).isEqualTo(2);
+
+        assertThatThrownBy(() -> calls.execute("profile", failing)).isInstanceOf(CompletionException.class);
+        assertThat(invocations.get()).isEqualTo(3);
+        assertThat(meterRegistry.get("resilience.budget.exhausted").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimit() throws Exception {
+        properties.setMaxConcurrentCalls(1);
+        ResilientCalls calls = resilientCalls();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(
+                () -> calls.execute("profiles", () -> {
+                    started.countDown();
+                    await(release);
+                    return "first";
+                }),
+                executor);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> calls.execute("profiles", () -> "second"))
+                .isInstanceOf(CallRejectedException.class)
+                .hasMessageContaining("Bulkhead");
+        assertThat(calls.execute("profile", () -> "other endpoint")).isEqualTo("other endpoint");
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+    }
+
+    private ResilientCalls resilientCalls() {
+        return new ResilientCalls("test", Duration.ofSeconds(2), properties, executor, meterRegistry);
+    }
+
+    private double transitions(String from, String to) {
+        return meterRegistry
+                .get("resilience.circuit.transitions")
+                .tag("from", from)
+                .tag("to", to)
+                .counter()
+                .count();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
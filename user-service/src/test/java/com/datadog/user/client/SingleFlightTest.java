@@ -0,0 +1,113 @@
+package com.datadog.user.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    void concurrentCallersShareOneInFlightCall() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            invocations.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "profile";
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                invocations.incrementAndGet();
+                return "duplicate";
+            })));
+        }
+        while (followerCount() < 7) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThat(leader.get()).isEqualTo("profile");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get()).isEqualTo("profile");
+        }
+        assertThat(invocations).hasValue(1);
+        executor.shutdown();
+    }
+
+    @Test
+    void failureIsSharedAndNotRemembered() {
+        assertThatThrownBy(() -> singleFlight.execute(1L, () -> {
+                    throw new IllegalStateException("down");
+                }))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.execute(1L, () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void followerOfAFailingLeaderGetsTheLeadersException() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CallRejectedException rejected = new CallRejectedException("profile-service circuit open");
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw rejected;
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<Throwable> follower = executor.submit(() -> {
+            try {
+                singleFlight.execute(1L, () -> "duplicate");
+                return null;
+            } catch (RuntimeException e) {
+                return e;
+            }
+        });
+        while (followerCount() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThatThrownBy(leader::get).hasCause(rejected);
+        assertThat(follower.get()).isSameAs(rejected);
+        executor.shutdown();
+    }
+
+    private double followerCount() {
+        return meterRegistry
+                .get("singleflight.calls")
+                .tag("role", "follower")
+                .counter()
+                .count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
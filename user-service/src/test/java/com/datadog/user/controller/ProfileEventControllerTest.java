@@ -0,0 +1,153 @@
+package com.datadog.user.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datadog.common.constant.Constants;
+import com.datadog.common.dto.ProfileChangeEvent;
+import com.datadog.common.dto.ProfileDto;
+import com.datadog.user.cache.ProfileCache;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"profile-service.events.secret=test-secret", "profile-service.resilience.enabled=false"})
+class ProfileEventControllerTest {
+
+    private static final long SLOW_USER = 3;
+
+    private static final Map<Long, AtomicInteger> FETCHES = new ConcurrentHashMap<>();
+    private static final CountDownLatch SLOW_FETCH_STARTED = new CountDownLatch(1);
+    private static final CountDownLatch SLOW_FETCH_RELEASED = new CountDownLatch(1);
+    private static final HttpServer PROFILE_SERVICE = startProfileService();
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void profileServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add(
+                "profile-service.url",
+                () -> "http://127.0.0.1:" + PROFILE_SERVICE.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopProfileService() {
+        SLOW_FETCH_RELEASED.countDown();
+        PROFILE_SERVICE.stop(0);
+    }
+
+    @Test
+    void webhookEventEvictsTheCachedProfile() {
+        assertThat(city(profileCache.get(1L))).isEqualTo("fetch 1");
+
+        ResponseEntity<Void> response = post("test-secret", 1L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(profileCache.getIfPresent(1L)).isNull();
+        assertThat(city(profileCache.get(1L))).isEqualTo("fetch 2");
+    }
+
+    @Test
+    void eventsWithoutTheSecretAreRejected() {
+        ProfileDto cached = profileCache.get(2L);
+
+        assertThat(post(null, 2L).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(post("wrong-secret", 2L).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(profileCache.getIfPresent(2L)).isEqualTo(cached);
+    }
+
+    @Test
+    void loadAfterAnEvictionDoesNotJoinAFetchThatStartedBeforeIt() throws Exception {
+        CompletableFuture<ProfileDto> before = CompletableFuture.supplyAsync(() -> profileCache.get(SLOW_USER));
+        assertThat(SLOW_FETCH_STARTED.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(post("test-secret", SLOW_USER).getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+
+        // Answered while the earlier fetch is still held, so it cannot have joined it.
+        ProfileDto after =
+                CompletableFuture.supplyAsync(() -> profileCache.get(SLOW_USER)).get(5, TimeUnit.SECONDS);
+        assertThat(city(after)).isEqualTo("fetch 2");
+
+        SLOW_FETCH_RELEASED.countDown();
+        assertThat(city(before.get(5, TimeUnit.SECONDS))).isEqualTo("fetch 1");
+        assertThat(city(profileCache.getIfPresent(SLOW_USER))).isEqualTo("fetch 2");
+    }
+
+    private ResponseEntity<Void> post(String secret, long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        if (secret != null) {
+            headers.set(Constants.PROFILE_EVENTS_SECRET_HEADER, secret);
+        }
+        ProfileChangeEvent event = ProfileChangeEvent.builder()
+                .userId(userId)
+                .entityType(ProfileChangeEvent.EntityType.ADDRESS)
+                .changeType(ProfileChangeEvent.ChangeType.UPDATED)
+                .version(1)
+                .build();
+        return restTemplate.postForEntity(
+                "/internal/profile-events", new HttpEntity<>(List.of(event), headers), Void.class);
+    }
+
+    private static String city(ProfileDto profile) {
+        return profile.getAddresses().get(0).getCity();
+    }
+
+    private static HttpServer startProfileService() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/api/profiles/user/", exchange -> {
+                String path = exchange.getRequestURI().getPath();
+                long userId = Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+                int fetch = FETCHES.computeIfAbsent(userId, id -> new AtomicInteger())
+                        .incrementAndGet();
+                if (userId == SLOW_USER && fetch == 1) {
+                    SLOW_FETCH_STARTED.countDown();
+                    try {
+                        SLOW_FETCH_RELEASED.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                byte[] body = ("{\"userId\":" + userId + ",\"addresses\":[{\"id\":1,\"city\":\"fetch " + fetch
+                                + "\",\"userId\":" + userId + "}],\"educations\":[]}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.datadog.user.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datadog.common.config.PersistenceProperties;
+import com.datadog.common.config.StorageProperties;
+import com.datadog.common.persistence.RepositoryJournals;
+import com.datadog.common.storage.EntityStores;
+import com.datadog.user.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UserRepositoryTest {
+
+    private final UserRepository userRepository = new UserRepository(
+            new RepositoryJournals(new PersistenceProperties(), new ObjectMapper()),
+            new EntityStores(new StorageProperties()));
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void rejectsDuplicateUsernameAndEmail() {
+        userRepository.save(user("johndoe", "john@example.com"));
+
+        assertThatThrownBy(() -> userRepository.save(user("johndoe", "other@example.com")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Username already exists");
+        assertThatThrownBy(() -> userRepository.save(user("other", "john@example.com")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Email already exists");
+        assertThat(userRepository.existsByUsername("other")).isFalse();
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void renameReleasesPreviousKeys() {
+        User user = userRepository.save(user("johndoe", "john@example.com"));
+
+        user.setUsername("jdoe");
+        user.setEmail("jdoe@example.com");
+        userRepository.save(user);
+
+        assertThat(userRepository.existsByUsername("johndoe")).isFalse();
+        assertThat(userRepository.existsByEmail("john@example.com")).isFalse();
+        assertThat(userRepository.existsByUsername("jdoe")).isTrue();
+
+        userRepository.deleteById(user.getId());
+
+        assertThat(userRepository.existsByUsername("jdoe")).isFalse();
+        assertThat(userRepository.existsByEmail("jdoe@example.com")).isFalse();
+    }
+
+    @Test
+    void concurrentCreatesWithSameUsernameAdmitExactlyOne() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String email = "john" + i + "@example.com";
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    userRepository.save(user("johndoe", email));
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int saved = 0;
+        for (Future<Boolean> result : results) {
+            saved += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertThat(saved).isEqualTo(1);
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void recoversUsersIndexesAndIdsFromSnapshotAndLog() {
+        PersistenceProperties properties = new PersistenceProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(dataDirectory.toString());
+        properties.setSnapshotEvery(3);
+
+        RepositoryJournals journals = new RepositoryJournals(properties, new ObjectMapper());
+        UserRepository repository = new UserRepository(journals, new EntityStores(new StorageProperties()));
+        for (int i = 0; i < 5; i++) {
+            repository.save(user("user" + i, "user" + i + "@example.com"));
+        }
+        User renamed = repository.findById(2L).orElseThrow();
+        renamed.setUsername("renamed");
+        repository.save(renamed);
+        repository.deleteById(5L);
+        journals.close();
+
+        try (RepositoryJournals reopened = new RepositoryJournals(properties, new ObjectMapper())) {
+            UserRepository recovered = new UserRepository(reopened, new EntityStores(new StorageProperties()));
+
+            assertThat(recovered.findById(2L)).map(User::getUsername).contains("renamed");
+            assertThat(recovered.count()).isEqualTo(4);
+            assertThat(recovered.findById(5L)).isEmpty();
+            assertThat(recovered.existsByUsername("renamed")).isTrue();
+            assertThat(recovered.existsByUsername("user1")).isFalse();
+            assertThat(recovered.save(user("next", "next@example.com")).getId()).isEqualTo(6L);
+        }
+    }
+
+    @Test
+    void snapshotThatFailsToLoadLeavesOnlyLookupsById() throws Exception {
+        PersistenceProperties properties = new PersistenceProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(dataDirectory.toString());
+        try (RepositoryJournals journals = new RepositoryJournals(properties, new ObjectMapper())) {
+            UserRepository repository = new UserRepository(journals, new EntityStores(new StorageProperties()));
+            for (int i = 1; i <= 3; i++) {
+                repository.save(user("user" + i, "user" + i + "@example.com"));
+            }
+        }
+        corrupt(dataDirectory, "user2@example.com");
+
+        try (RepositoryJournals reopened = new RepositoryJournals(properties, new ObjectMapper())) {
+            UserRepository recovered = new UserRepository(reopened, new EntityStores(new StorageProperties()));
+
+            assertThatThrownBy(recovered::count)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("only lookups by id are available");
+            assertThatThrownBy(() -> recovered.save(user("next", "next@example.com")))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(recovered.findById(3L)).map(User::getUsername).contains("user3");
+        }
+    }
+
+    /** Flips a byte inside the first occurrence of {@code text} in a snapshot under {@code directory}. */
+    private static void corrupt(Path directory, String text) throws IOException {
+        byte[] needle = text.getBytes(StandardCharsets.UTF_8);
+        try (Stream<Path> files = Files.walk(directory)) {
+            Path snapshot = files.filter(path -> path.toString().endsWith(".snapshot"))
+                    .findFirst()
+                    .orElseThrow();
+            byte[] bytes = Files.readAllBytes(snapshot);
+            for (int i = 0; i + needle.length <= bytes.length; i++) {
+                if (Arrays.equals(bytes, i, i + needle.length, needle, 0, needle.length)) {
+                    bytes[i] ^= 0x01;
+                    Files.write(snapshot, bytes);
+                    return;
+                }
+            }
+            throw new AssertionError(text + " not found in " + snapshot);
+        }
+    }
+
+    private static User user(String username, String email) {
+        return User.builder().username(username).email(email).build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.datadog.user.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datadog.common.constant.Constants;
+import com.datadog.common.dto.UserDetailsResponse;
+import com.datadog.user.model.User;
+import com.datadog.user.repository.UserRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"profile-service.async.addresses-timeout=2s", "profile-service.async.educations-timeout=200ms"})
+class AsyncUserDetailsServiceTest {
+
+    private static final Map<String, HttpHeaders> RECEIVED = new ConcurrentHashMap<>();
+    private static final HttpServer PROFILE_SERVICE = startProfileService();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void profileServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add(
+                "profile-service.url",
+                () -> "http://127.0.0.1:" + PROFILE_SERVICE.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopProfileService() {
+        PROFILE_SERVICE.stop(0);
+    }
+
+    @Test
+    void zipsCallsWithPerCallFallbackAndPropagatesHeaders() {
+        User user = userRepository.save(User.builder()
+                .username("async")
+                .email("async@example.com")
+                .firstName("Async")
+                .lastName("Details")
+                .active(true)
+                .build());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(Constants.HEADER_DATADOG_TRACE_ID, "trace-2");
+        headers.set("x-tenant", "acme");
+        ResponseEntity<UserDetailsResponse> response = restTemplate.exchange(
+                "/api/users/" + user.getId() + "/details:async",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                UserDetailsResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getAddresses()).hasSize(1);
+        assertThat(response.getBody().getAddresses().get(0).getCity()).isEqualTo("Pune");
+        // The educations call outlives its timeout, so its fallback is used without failing the request.
+        assertThat(response.getBody().getEducations()).isEmpty();
+
+        HttpHeaders sent = RECEIVED.get("/api/addresses/user/" + user.getId());
+        assertThat(sent.getFirst(Constants.CORRELATION_ID_HEADER)).isEqualTo("trace-2");
+        assertThat(sent.getFirst("x-tenant")).isEqualTo("acme");
+        // The calls go through the shared OkHttp client, so its metrics see them under their path templates.
+        assertThat(meterRegistry
+                        .find("okhttp.requests")
+                        .tag("client", "profile-service")
+                        .tag("uri", "/api/addresses/user/{userId}")
+                        .timer())
+                .isNotNull();
+    }
+
+    @Test
+    void unknownUserIsNotFound() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/users/999999/details:async", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private static HttpServer startProfileService() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/api/addresses/user/", exchange -> {
+                long userId = record(exchange);
+                respond(
+                        exchange,
+                        "[{\"id\":1,\"address1\":\"1 Main Street\",\"city\":\"Pune\",\"userId\":" + userId + "}]");
+            });
+            server.createContext("/api/educations/user/", exchange -> {
+                record(exchange);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                respond(exchange, "[]");
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long record(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        HttpHeaders headers = new HttpHeaders();
+        exchange.getRequestHeaders().forEach(headers::addAll);
+        RECEIVED.put(path, headers);
+        return Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.datadog.user.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datadog.common.config.PersistenceProperties;
+import com.datadog.common.config.StorageProperties;
+import com.datadog.common.persistence.RepositoryJournals;
+import com.datadog.common.storage.EntityStores;
+import com.datadog.user.model.User;
+import com.datadog.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+class UserServiceTest {
+
+    @Test
+    void updateRejectedByTheIndexesLeavesTheStoredUserUntouched() {
+        // The existence checks pass as if the other user claimed the username between check and save.
+        UserRepository userRepository =
+                new UserRepository(
+                        new RepositoryJournals(new PersistenceProperties(), new ObjectMapper()),
+                        new EntityStores(new StorageProperties())) {
+                    @Override
+                    public boolean existsByUsername(String username) {
+                        return false;
+                    }
+                };
+        UserService userService = new UserService(userRepository, null);
+        User john = userRepository.save(user("johndoe", "john@example.com"));
+        userRepository.save(user("janedoe", "jane@example.com"));
+
+        assertThatThrownBy(() -> userService.updateUser(john.getId(), user("janedoe", "john.doe@example.com")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Username already exists");
+
+        User stored = userRepository.findById(john.getId()).orElseThrow();
+        assertThat(stored.getUsername()).isEqualTo("johndoe");
+        assertThat(stored.getEmail()).isEqualTo("john@example.com");
+
+        // The indexes still match the stored user, so renaming it later releases the right keys.
+        userService.updateUser(john.getId(), user("jdoe", "jdoe@example.com"));
+        assertThat(userRepository.existsByEmail("john@example.com")).isFalse();
+        assertThat(userRepository.existsByEmail("jdoe@example.com")).isTrue();
+        assertThat(userRepository.findById(john.getId())).map(User::getUsername).contains("jdoe");
+    }
+
+    private static User user(String username, String email) {
+        return User.builder().username(username).email(email).active(true).build();
+    }
+}